@@ -0,0 +1,101 @@
+package com.geolocationpoc.benchmark;
+
+import com.geolocationpoc.cache.InFlightCoalescer;
+import com.geolocationpoc.cache.RequestCanonicalizer;
+import com.geolocationpoc.cache.RouteResultCache;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.matrix.TravelCostLearner;
+import com.geolocationpoc.matrix.TravelCostStore;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.service.CompositeRouteService;
+import com.geolocationpoc.service.RouteRefiner;
+import com.geolocationpoc.service.RouteService;
+import com.geolocationpoc.service.execution.BulkheadRegistry;
+import com.geolocationpoc.service.implementations.FixtureParsers;
+import com.geolocationpoc.service.routing.ProviderRouter;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Providers answer instantly with pre-parsed fixtures, isolating the composite's own overhead:
+// routing, breakers, bulkheads, merge and best-of selection. The cache is off so every call races.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CompositeSelectionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int stops;
+
+    private CompositeRouteService compositeService;
+    private RouteRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        request = Fixtures.request(stops);
+        CompactRouteRequest compact = CompactRouteRequest.of(request);
+        RouteResponse google = FixtureParsers.parseGoogle(Fixtures.googleResponse(request), compact);
+        RouteResponse mapbox = FixtureParsers.parseMapbox(Fixtures.mapboxResponse(request), compact);
+
+        RouteResultCache cache = new RouteResultCache(new RequestCanonicalizer(0.0001, Duration.ofMinutes(15)),
+                false, 0, Duration.ofMinutes(10));
+        // Disabled like the cache: every iteration should run the full selection
+        InFlightCoalescer coalescer = new InFlightCoalescer(new RequestCanonicalizer(0.0001, Duration.ofMinutes(15)),
+                new SimpleMeterRegistry(), false, Duration.ZERO);
+        BulkheadRegistry bulkheads = new BulkheadRegistry(new StandardEnvironment(), new SimpleMeterRegistry(),
+                1024, 1024);
+        // Minimum samples never reached, so every provider is raced on every call
+        ProviderRouter router = new ProviderRouter(50, 10, 0.5, Duration.ofSeconds(30), 2,
+                Integer.MAX_VALUE, 0.15, 0.0, Duration.ofSeconds(2));
+
+        compositeService = new CompositeRouteService(
+                List.of(new FixtureProvider("Google", google), new FixtureProvider("Mapbox", mapbox)),
+                cache, coalescer, bulkheads, router, ProviderTelemetry.noop(),
+                new TravelCostLearner(TravelCostStore.none()), new RouteRefiner(null, false, 0),
+                Duration.ofSeconds(25), Duration.ofSeconds(2));
+    }
+
+    @Benchmark
+    public RouteResponse bestRoute() {
+        return compositeService.optimizeBestRoute(request);
+    }
+
+    private record FixtureProvider(String name, RouteResponse response) implements RouteService {
+
+        @Override
+        public RouteResponse optimizeRoute(RouteRequest request) {
+            return response;
+        }
+
+        @Override
+        public Mono<RouteResponse> optimizeRouteAsync(RouteRequest request) {
+            return Mono.just(response);
+        }
+
+        @Override
+        public String providerName() {
+            return name;
+        }
+    }
+}
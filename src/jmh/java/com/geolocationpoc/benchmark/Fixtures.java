@@ -0,0 +1,205 @@
+package com.geolocationpoc.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Seeded synthetic jobs around one metro area, plus provider responses shaped like the real APIs
+public final class Fixtures {
+
+    private static final double CENTER_LAT = -23.55;
+    private static final double CENTER_LNG = -46.63;
+    private static final int STOPS_PER_VEHICLE = 50;
+    private static final OffsetDateTime START = OffsetDateTime.of(2025, 1, 6, 8, 0, 0, 0, ZoneOffset.UTC);
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private Fixtures() {
+    }
+
+    public static RouteRequest request(int stops) {
+        Random random = new Random(stops);
+        int vehicleCount = Math.max(1, stops / STOPS_PER_VEHICLE);
+
+        List<Vehicle> vehicles = new ArrayList<>(vehicleCount);
+        for (int v = 0; v < vehicleCount; v++) {
+            Coordinate depot = point(random, 0.05);
+            vehicles.add(new Vehicle("vehicle-" + v, depot, depot, null, null, 1000));
+        }
+        List<ServicePoint> services = new ArrayList<>(stops);
+        for (int s = 0; s < stops; s++) {
+            services.add(new ServicePoint("stop-" + s, point(random, 0.25), 120 + random.nextInt(480),
+                    1 + random.nextInt(20)));
+        }
+        return new RouteRequest(vehicles, services, START.toString(), START.plusHours(10).toString(), true);
+    }
+
+    public static byte[] googleResponse(RouteRequest request) {
+        return write(generator -> {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("routes");
+            for (Assignment route : assign(request)) {
+                generator.writeStartObject();
+                generator.writeStringField("vehicleLabel", route.vehicle.id());
+                generator.writeStringField("vehicleStartTime", START.toString());
+                generator.writeStringField("vehicleEndTime", START.plusSeconds(route.totalSeconds()).toString());
+
+                generator.writeArrayFieldStart("visits");
+                long elapsed = 0;
+                for (int i = 0; i < route.stops.size(); i++) {
+                    elapsed += route.seconds[i];
+                    generator.writeStartObject();
+                    generator.writeNumberField("shipmentIndex", i);
+                    generator.writeStringField("shipmentLabel", route.stops.get(i).id());
+                    generator.writeStringField("startTime", START.plusSeconds(elapsed).toString());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+
+                generator.writeArrayFieldStart("transitions");
+                for (int i = 0; i <= route.stops.size(); i++) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("travelDistanceMeters", route.meters[i]);
+                    generator.writeStringField("travelDuration", route.seconds[i] + "s");
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+
+                generator.writeObjectFieldStart("metrics");
+                generator.writeNumberField("performedShipmentCount", route.stops.size());
+                generator.writeNumberField("travelDistanceMeters", route.totalMeters());
+                generator.writeStringField("travelDuration", route.totalSeconds() + "s");
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+    }
+
+    public static byte[] mapboxResponse(RouteRequest request) {
+        return write(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("status", "complete");
+            generator.writeArrayFieldStart("routes");
+            for (Assignment route : assign(request)) {
+                generator.writeStartObject();
+                generator.writeStringField("vehicle", route.vehicle.id());
+                generator.writeArrayFieldStart("stops");
+
+                double odometer = 0;
+                long elapsed = 0;
+                writeMapboxStop(generator, "start", route.vehicle.id() + "-start", START, 0, odometer);
+                for (int i = 0; i < route.stops.size(); i++) {
+                    odometer += route.meters[i];
+                    elapsed += route.seconds[i];
+                    writeMapboxStop(generator, "service", route.stops.get(i).id(), START.plusSeconds(elapsed), 0,
+                            odometer);
+                }
+                odometer += route.meters[route.stops.size()];
+                elapsed += route.seconds[route.stops.size()];
+                writeMapboxStop(generator, "end", route.vehicle.id() + "-end", START.plusSeconds(elapsed), 0,
+                        odometer);
+
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+    }
+
+    private static void writeMapboxStop(JsonGenerator generator, String type, String location, OffsetDateTime eta,
+                                        int wait, double odometer) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+        generator.writeStringField("location", location);
+        generator.writeStringField("eta", eta.toString());
+        generator.writeNumberField("wait", wait);
+        generator.writeNumberField("odometer", odometer);
+        generator.writeEndObject();
+    }
+
+    // Round-robin assignment with straight-line legs; good enough for realistic payload shape and size
+    private static List<Assignment> assign(RouteRequest request) {
+        List<Assignment> routes = new ArrayList<>();
+        for (Vehicle vehicle : request.vehicles()) {
+            routes.add(new Assignment(vehicle, new ArrayList<>()));
+        }
+        for (int s = 0; s < request.services().size(); s++) {
+            routes.get(s % routes.size()).stops.add(request.services().get(s));
+        }
+        routes.forEach(Assignment::measure);
+        return routes;
+    }
+
+    private static Coordinate point(Random random, double spreadDegrees) {
+        return new Coordinate(CENTER_LAT + (random.nextDouble() - 0.5) * spreadDegrees,
+                CENTER_LNG + (random.nextDouble() - 0.5) * spreadDegrees);
+    }
+
+    private static byte[] write(JsonBody body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            body.write(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private static final class Assignment {
+
+        final Vehicle vehicle;
+        final List<ServicePoint> stops;
+        double[] meters;
+        long[] seconds;
+
+        Assignment(Vehicle vehicle, List<ServicePoint> stops) {
+            this.vehicle = vehicle;
+            this.stops = stops;
+        }
+
+        void measure() {
+            meters = new double[stops.size() + 1];
+            seconds = new long[stops.size() + 1];
+            Coordinate previous = vehicle.startLocation();
+            for (int i = 0; i <= stops.size(); i++) {
+                Coordinate next = i < stops.size() ? stops.get(i).location() : vehicle.endLocation();
+                double dLat = (next.lat() - previous.lat()) * 111_320;
+                double dLng = (next.lng() - previous.lng()) * 111_320 * Math.cos(Math.toRadians(previous.lat()));
+                meters[i] = Math.hypot(dLat, dLng) * 1.3;
+                seconds[i] = Math.round(meters[i] / 11.1);
+                previous = next;
+            }
+        }
+
+        double totalMeters() {
+            double total = 0;
+            for (double leg : meters) total += leg;
+            return total;
+        }
+
+        long totalSeconds() {
+            long total = 0;
+            for (long leg : seconds) total += leg;
+            return total;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.geolocationpoc.benchmark;
+
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.service.implementations.FixtureParsers;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs with the benchmark profile, so a fixture that drifts from the parsers fails before a benchmark does
+class FixturesTest {
+
+    @Test
+    void requestsAreReproducible() {
+        assertThat(Fixtures.request(100)).isEqualTo(Fixtures.request(100));
+        assertThat(Fixtures.request(100).services()).hasSize(100);
+        assertThat(Fixtures.request(100).vehicles()).hasSize(2);
+        assertThat(Fixtures.request(10).vehicles()).hasSize(1);
+    }
+
+    @Test
+    void providerResponsesParseIntoAPlanServingEveryStop() throws Exception {
+        RouteRequest request = Fixtures.request(1000);
+        CompactRouteRequest compact = CompactRouteRequest.of(request);
+        List<String> stopIds = request.services().stream().map(ServicePoint::id).toList();
+
+        RouteResponse google = FixtureParsers.parseGoogle(Fixtures.googleResponse(request), compact);
+        RouteResponse mapbox = FixtureParsers.parseMapbox(Fixtures.mapboxResponse(request), compact);
+
+        for (RouteResponse response : List.of(google, mapbox)) {
+            assertThat(response.stops()).extracting(OptimizedStop::serviceId)
+                    .containsExactlyInAnyOrderElementsOf(stopIds);
+            assertThat(response.totalDistanceMeters()).isPositive();
+            assertThat(response.routeMetrics()).isNotEmpty();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.geolocationpoc.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.geolocationpoc.client.GoogleAccessTokenManager;
+import com.geolocationpoc.client.GoogleOptimizationClient;
+import com.geolocationpoc.client.MapboxOptimizationClient;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class RequestBuildBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int stops;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+    private GoogleOptimizationClient googleClient;
+    private MapboxOptimizationClient mapboxClient;
+    private RouteRequest request;
+    private CompactRouteRequest compact;
+
+    @Setup
+    public void setUp() {
+        // Credentials load lazily, so building request bodies never touches the network
+        googleClient = new GoogleOptimizationClient(WebClient.builder(), "http://localhost", "benchmark", -1,
+                new GoogleAccessTokenManager(Duration.ofMinutes(5)), ProviderTelemetry.noop());
+        mapboxClient = new MapboxOptimizationClient(WebClient.builder(), "http://localhost", "benchmark", -1,
+                ProviderTelemetry.noop());
+        request = Fixtures.request(stops);
+        compact = CompactRouteRequest.of(request);
+    }
+
+    // Paid once per provider call, before either body is written
+    @Benchmark
+    public CompactRouteRequest compactRequest() {
+        return CompactRouteRequest.of(request);
+    }
+
+    @Benchmark
+    public int googleRequest() throws IOException {
+        out.reset();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            googleClient.writeOptimizationRequest(compact, generator);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int mapboxRequest() throws IOException {
+        out.reset();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            mapboxClient.writeOptimizationRequest(compact, generator);
+        }
+        return out.size();
+    }
+}
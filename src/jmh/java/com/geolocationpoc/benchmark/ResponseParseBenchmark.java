@@ -0,0 +1,54 @@
+package com.geolocationpoc.benchmark;
+
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.service.implementations.FixtureParsers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ResponseParseBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int stops;
+
+    private byte[] googleBody;
+    private byte[] mapboxBody;
+    private CompactRouteRequest compact;
+
+    @Setup
+    public void setUp() {
+        RouteRequest request = Fixtures.request(stops);
+        googleBody = Fixtures.googleResponse(request);
+        mapboxBody = Fixtures.mapboxResponse(request);
+        compact = CompactRouteRequest.of(request);
+    }
+
+    @Benchmark
+    public RouteResponse googleResponse() throws IOException {
+        return FixtureParsers.parseGoogle(googleBody, compact);
+    }
+
+    @Benchmark
+    public RouteResponse mapboxResponse() throws IOException {
+        return FixtureParsers.parseMapbox(mapboxBody, compact);
+    }
+}
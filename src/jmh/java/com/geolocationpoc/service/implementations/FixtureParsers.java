@@ -0,0 +1,32 @@
+package com.geolocationpoc.service.implementations;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+
+import java.io.IOException;
+
+// Lives in the adapters' package to reach their package-private streaming parsers
+public final class FixtureParsers {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final GoogleOptimizationAdapter GOOGLE = new GoogleOptimizationAdapter(null, ProviderTelemetry.noop());
+    private static final MapboxOptimizationAdapter MAPBOX = new MapboxOptimizationAdapter(null, ProviderTelemetry.noop());
+
+    private FixtureParsers() {
+    }
+
+    public static RouteResponse parseGoogle(byte[] body, CompactRouteRequest request) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            return GOOGLE.parseGoogleResponse(parser, request);
+        }
+    }
+
+    public static RouteResponse parseMapbox(byte[] body, CompactRouteRequest request) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            return MAPBOX.parseMapboxResponse(parser, request);
+        }
+    }
+}
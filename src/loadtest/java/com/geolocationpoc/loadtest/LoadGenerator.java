@@ -0,0 +1,188 @@
+package com.geolocationpoc.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop load: requests go out on a fixed schedule whether or not earlier ones finished, and
+// latency is measured from the scheduled send time, so a stalled server cannot hide its own queueing.
+//
+//   --url http://localhost:8080/api/routes/optimize --rps 50 --duration 60s --warmup 10s --stops 100
+public final class LoadGenerator {
+
+    private static final double CENTER_LAT = -23.55;
+    private static final double CENTER_LNG = -46.63;
+    private static final int STOPS_PER_VEHICLE = 50;
+
+    private final URI target;
+    private final int rps;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int stops;
+    private final Duration timeout;
+    private final HttpClient client;
+
+    private final long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicLong errors = new AtomicLong();
+    private final Map<String, AtomicLong> statuses = new ConcurrentHashMap<>();
+
+    private LoadGenerator(Map<String, String> options) {
+        this.target = URI.create(options.getOrDefault("url", "http://localhost:8080/api/routes/optimize"));
+        this.rps = Integer.parseInt(options.getOrDefault("rps", "20"));
+        this.duration = parseDuration(options.getOrDefault("duration", "60s"));
+        this.warmup = parseDuration(options.getOrDefault("warmup", "10s"));
+        this.stops = Integer.parseInt(options.getOrDefault("stops", "100"));
+        this.timeout = parseDuration(options.getOrDefault("timeout", "60s"));
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.latencies = new long[(int) Math.min(Integer.MAX_VALUE - 8, (long) rps * duration.toSeconds() + rps)];
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        new LoadGenerator(parseOptions(args)).run();
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf(Locale.ROOT, "Target %s at %d rps, %d stops, warmup %ds, measure %ds%n",
+                target, rps, stops, warmup.toSeconds(), duration.toSeconds());
+
+        drive(warmup, false);
+        drive(duration, true);
+        report();
+    }
+
+    private void drive(Duration phase, boolean measure) throws InterruptedException {
+        long total = phase.toSeconds() * rps;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        CountDownLatch done = new CountDownLatch((int) total);
+        Random random = new Random(measure ? 2 : 1);
+        long start = System.nanoTime();
+        long phaseStartMillis = System.currentTimeMillis();
+
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            HttpRequest request = HttpRequest.newBuilder(target)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(requestBody(random.nextLong(), stops)))
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (measure) {
+                            record(System.nanoTime() - scheduled, response, error);
+                        }
+                        done.countDown();
+                    });
+        }
+
+        done.await(timeout.toSeconds() + 5, TimeUnit.SECONDS);
+        if (measure) {
+            double seconds = (System.currentTimeMillis() - phaseStartMillis) / 1000.0;
+            System.out.printf(Locale.ROOT, "Completed %d requests in %.1fs (%.1f req/s)%n",
+                    recorded.get(), seconds, recorded.get() / seconds);
+        }
+    }
+
+    private void record(long latencyNanos, HttpResponse<Void> response, Throwable error) {
+        String status = error != null ? error.getClass().getSimpleName() : String.valueOf(response.statusCode());
+        statuses.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+        if (error != null || response.statusCode() >= 400) {
+            errors.incrementAndGet();
+        }
+        int slot = recorded.getAndIncrement();
+        if (slot < latencies.length) {
+            latencies[slot] = latencyNanos;
+        }
+    }
+
+    private void report() {
+        int count = Math.min(recorded.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        System.out.printf(Locale.ROOT, "Errors: %d (%.2f%%)  statuses: %s%n",
+                errors.get(), count > 0 ? 100.0 * errors.get() / count : 0, statuses);
+        for (double percentile : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            System.out.printf(Locale.ROOT, "p%-5s %8.1f ms%n",
+                    trim(percentile * 100), millis(sorted, percentile));
+        }
+        System.out.printf(Locale.ROOT, "max    %8.1f ms%n", count > 0 ? sorted[count - 1] / 1e6 : 0);
+    }
+
+    static String requestBody(long seed, int stops) {
+        Random random = new Random(seed);
+        int vehicles = Math.max(1, stops / STOPS_PER_VEHICLE);
+        StringBuilder body = new StringBuilder(128 + stops * 120);
+        body.append("{\"vehicles\":[");
+        for (int v = 0; v < vehicles; v++) {
+            double lat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.05;
+            double lng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.05;
+            if (v > 0) body.append(',');
+            body.append("{\"id\":\"vehicle-").append(v)
+                    .append("\",\"startLocation\":{\"lat\":").append(lat).append(",\"lng\":").append(lng)
+                    .append("},\"endLocation\":{\"lat\":").append(lat).append(",\"lng\":").append(lng)
+                    .append("},\"capacityKg\":1000}");
+        }
+        body.append("],\"services\":[");
+        for (int s = 0; s < stops; s++) {
+            if (s > 0) body.append(',');
+            body.append("{\"id\":\"stop-").append(s)
+                    .append("\",\"location\":{\"lat\":").append(CENTER_LAT + (random.nextDouble() - 0.5) * 0.25)
+                    .append(",\"lng\":").append(CENTER_LNG + (random.nextDouble() - 0.5) * 0.25)
+                    .append("},\"durationSeconds\":").append(120 + random.nextInt(480))
+                    .append(",\"demandKg\":").append(1 + random.nextInt(20)).append('}');
+        }
+        body.append("],\"globalStartTime\":\"2025-01-06T08:00:00Z\",\"globalEndTime\":\"2025-01-06T18:00:00Z\"}");
+        return body.toString();
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        if (value.endsWith("s")) return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        if (value.endsWith("m")) return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,42 @@
+package com.geolocationpoc.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geolocationpoc.dto.RouteRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadGeneratorTest {
+
+    @Test
+    void durationsTakeAUnitSuffix() {
+        assertThat(LoadGenerator.parseDuration("250ms")).isEqualTo(Duration.ofMillis(250));
+        assertThat(LoadGenerator.parseDuration("30s")).isEqualTo(Duration.ofSeconds(30));
+        assertThat(LoadGenerator.parseDuration("2m")).isEqualTo(Duration.ofMinutes(2));
+        assertThat(LoadGenerator.parseDuration("45")).isEqualTo(Duration.ofSeconds(45));
+    }
+
+    @Test
+    void optionsComeInFlagValuePairs() {
+        assertThat(LoadGenerator.parseOptions(new String[]{"--rps", "50", "--duration", "1m"}))
+                .containsEntry("rps", "50")
+                .containsEntry("duration", "1m")
+                .hasSize(2);
+        assertThatThrownBy(() -> LoadGenerator.parseOptions(new String[]{"rps", "50"}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void requestBodiesAreValidAndReproducible() throws Exception {
+        String body = LoadGenerator.requestBody(42, 120);
+
+        RouteRequest request = new ObjectMapper().readValue(body, RouteRequest.class);
+
+        assertThat(request.services()).hasSize(120);
+        assertThat(request.vehicles()).hasSize(2);
+        assertThat(LoadGenerator.requestBody(42, 120)).isEqualTo(body);
+    }
+}
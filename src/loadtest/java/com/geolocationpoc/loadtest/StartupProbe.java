@@ -0,0 +1,126 @@
+package com.geolocationpoc.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cold-start cost as autoscaling sees it: launches the server, fires one optimization after another
+// until one succeeds, and stops it again. Reports when the port first answered and when the first
+// optimization came back 200, both from process launch, over several launches. The server's output
+// goes to target/startup-probe-<run>.log.
+//
+//   --command "java -jar target/geolocation-poc-0.0.1-SNAPSHOT.jar --spring.profiles.active=standin"
+//   --runs 5 --url http://localhost:8080/api/routes/optimize --stops 50 --timeout 120s
+public final class StartupProbe {
+
+    private static final Duration RETRY_INTERVAL = Duration.ofMillis(50);
+    private static final Duration ATTEMPT_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(30);
+
+    private final List<String> command;
+    private final int runs;
+    private final URI target;
+    private final int stops;
+    private final Duration timeout;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupProbe(Map<String, String> options) {
+        this.command = List.of(options.getOrDefault("command",
+                "java --add-modules jdk.incubator.vector -jar target/geolocation-poc-0.0.1-SNAPSHOT.jar "
+                        + "--spring.profiles.active=standin").trim().split("\\s+"));
+        this.runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        this.target = URI.create(options.getOrDefault("url", "http://localhost:8080/api/routes/optimize"));
+        this.stops = Integer.parseInt(options.getOrDefault("stops", "50"));
+        this.timeout = LoadGenerator.parseDuration(options.getOrDefault("timeout", "120s"));
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        new StartupProbe(LoadGenerator.parseOptions(args)).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        System.out.printf(Locale.ROOT, "Launching %s %d times, probing %s with %d stops%n",
+                String.join(" ", command), runs, target, stops);
+
+        long[] firstResponse = new long[runs];
+        long[] firstSuccess = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            long[] result = launch(run);
+            firstResponse[run] = result[0];
+            firstSuccess[run] = result[1];
+            System.out.printf(Locale.ROOT, "run %d: first response %8.1f ms, first optimization %8.1f ms%n",
+                    run + 1, result[0] / 1e6, result[1] / 1e6);
+        }
+
+        report("first response", firstResponse);
+        report("first optimization", firstSuccess);
+    }
+
+    // Nanoseconds from launch to the first HTTP response of any status and to the first 200;
+    // -1 for whichever never happened within the timeout
+    private long[] launch(int run) throws IOException, InterruptedException {
+        File log = new File("target", "startup-probe-" + (run + 1) + ".log");
+        log.getParentFile().mkdirs();
+        String body = LoadGenerator.requestBody(run, stops);
+
+        long start = System.nanoTime();
+        Process server = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        long firstResponse = -1;
+        long firstSuccess = -1;
+        try {
+            long deadline = start + timeout.toNanos();
+            while (firstSuccess < 0 && System.nanoTime() < deadline && server.isAlive()) {
+                HttpRequest request = HttpRequest.newBuilder(target)
+                        .timeout(ATTEMPT_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                try {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    long elapsed = System.nanoTime() - start;
+                    if (firstResponse < 0) firstResponse = elapsed;
+                    if (status == 200) firstSuccess = elapsed;
+                } catch (IOException notListeningYet) {
+                    // Connection refused until the web server is up
+                }
+                if (firstSuccess < 0) {
+                    Thread.sleep(RETRY_INTERVAL.toMillis());
+                }
+            }
+        } finally {
+            server.destroy();
+            if (!server.waitFor(SHUTDOWN_GRACE.toSeconds(), TimeUnit.SECONDS)) {
+                server.destroyForcibly().waitFor();
+            }
+        }
+        if (firstSuccess < 0) {
+            System.out.printf(Locale.ROOT, "run %d: no successful optimization, see %s%n", run + 1, log);
+        }
+        return new long[]{firstResponse, firstSuccess};
+    }
+
+    private static void report(String label, long[] samples) {
+        long[] sorted = Arrays.stream(samples).filter(sample -> sample >= 0).sorted().toArray();
+        if (sorted.length == 0) {
+            System.out.printf(Locale.ROOT, "%-19s no samples%n", label);
+            return;
+        }
+        System.out.printf(Locale.ROOT, "%-19s min %8.1f ms  median %8.1f ms  max %8.1f ms  (%d/%d runs)%n",
+                label, sorted[0] / 1e6, sorted[sorted.length / 2] / 1e6, sorted[sorted.length - 1] / 1e6,
+                sorted.length, samples.length);
+    }
+}
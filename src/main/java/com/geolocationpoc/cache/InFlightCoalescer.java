@@ -0,0 +1,160 @@
+package com.geolocationpoc.cache;
+
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Concurrent callers with the same canonical request share one computation. A flight takes joiners
+// while it runs and for joinWindow after it succeeds, which also absorbs retries that land just
+// after an uncacheable result. A failed flight is dropped at once so that retries try again, and
+// the computation is cancelled only once every caller sharing it has gone.
+public class InFlightCoalescer {
+
+    private final RequestCanonicalizer canonicalizer;
+    private final boolean enabled;
+    private final Duration joinWindow;
+    private final Map<RequestFingerprint, Flight> flights = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter joiners;
+
+    public InFlightCoalescer(RequestCanonicalizer canonicalizer, MeterRegistry meters,
+                             boolean enabled, Duration joinWindow) {
+        this.canonicalizer = canonicalizer;
+        this.enabled = enabled;
+        this.joinWindow = joinWindow;
+        this.leaders = Counter.builder("route.coalesce.calls").tag("role", "leader").register(meters);
+        this.joiners = Counter.builder("route.coalesce.calls").tag("role", "joiner").register(meters);
+        Gauge.builder("route.coalesce.inflight", flights, Map::size).register(meters);
+    }
+
+    // The loader receives a listener for partial results, which are fanned out to every caller;
+    // callers that join late first get the partials published so far
+    public Mono<RouteResponse> coalesce(String scope, RouteRequest request,
+                                        Function<Consumer<RouteResponse>, Mono<RouteResponse>> loader,
+                                        Consumer<RouteResponse> onPartial) {
+        if (!enabled) {
+            return loader.apply(onPartial);
+        }
+
+        return Mono.deferContextual(context -> {
+            RequestFingerprint key = canonicalizer.fingerprint(scope, request);
+            while (true) {
+                Flight candidate = new Flight(key, loader);
+                Flight flight = flights.merge(key, candidate,
+                        (current, fresh) -> current.isJoinable() ? current : fresh);
+                Mono<RouteResponse> result = flight.join(onPartial, context);
+                if (result != null) {
+                    (flight == candidate ? leaders : joiners).increment();
+                    return result;
+                }
+            }
+        });
+    }
+
+    public CoalescingStatistics statistics() {
+        return new CoalescingStatistics((long) leaders.count(), (long) joiners.count(), flights.size());
+    }
+
+    public record CoalescingStatistics(long leaders, long joiners, int inFlight) {
+    }
+
+    private final class Flight {
+
+        private final RequestFingerprint key;
+        private final Function<Consumer<RouteResponse>, Mono<RouteResponse>> loader;
+        private final Sinks.One<RouteResponse> result = Sinks.one();
+        private final List<RouteResponse> partials = new ArrayList<>();
+        private final List<Consumer<RouteResponse>> listeners = new ArrayList<>();
+        private final Disposable.Swap upstream = Disposables.swap();
+        private boolean started;
+        private int callers;
+        private boolean closed;
+        private long settledAt = -1;
+
+        Flight(RequestFingerprint key, Function<Consumer<RouteResponse>, Mono<RouteResponse>> loader) {
+            this.key = key;
+            this.loader = loader;
+        }
+
+        synchronized boolean isJoinable() {
+            return !closed && (settledAt < 0 || System.nanoTime() - settledAt <= joinWindow.toNanos());
+        }
+
+        // Null when the flight closed between lookup and join, so the caller starts a new one.
+        // The shared computation runs with the leader's context, call priority included.
+        Mono<RouteResponse> join(Consumer<RouteResponse> onPartial, ContextView context) {
+            boolean start;
+            synchronized (this) {
+                if (!isJoinable()) return null;
+                partials.forEach(onPartial);
+                listeners.add(onPartial);
+                callers++;
+                start = !started;
+                started = true;
+            }
+            // Subscribed outside the lock; a swap disposed in the meantime disposes the subscription too
+            if (start) {
+                upstream.update(loader.apply(this::publish)
+                        .subscribe(this::succeed, this::fail, () -> succeed(null), Context.of(context)));
+            }
+            return result.asMono().doOnCancel(() -> leave(onPartial));
+        }
+
+        // Listeners run under the flight's lock so a joiner never sees a partial twice or misses one
+        private synchronized void publish(RouteResponse partial) {
+            partials.add(partial);
+            listeners.forEach(listener -> listener.accept(partial));
+        }
+
+        private void succeed(RouteResponse response) {
+            synchronized (this) {
+                if (settledAt >= 0 || closed) return;
+                settledAt = System.nanoTime();
+                listeners.clear();
+                partials.clear();
+            }
+            if (response != null) {
+                result.tryEmitValue(response);
+            } else {
+                result.tryEmitEmpty();
+            }
+            Mono.delay(joinWindow).subscribe(tick -> flights.remove(key, this));
+        }
+
+        private void fail(Throwable error) {
+            synchronized (this) {
+                if (closed) return;
+                closed = true;
+                listeners.clear();
+            }
+            flights.remove(key, this);
+            result.tryEmitError(error);
+        }
+
+        private void leave(Consumer<RouteResponse> onPartial) {
+            synchronized (this) {
+                listeners.remove(onPartial);
+                if (--callers > 0 || settledAt >= 0 || closed) return;
+                closed = true;
+            }
+            flights.remove(key, this);
+            upstream.dispose();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.geolocationpoc.cache;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+public class RequestCanonicalizer {
+
+    private static final Comparator<ServicePoint> SERVICE_ORDER =
+            Comparator.comparing(ServicePoint::id, Comparator.nullsFirst(Comparator.naturalOrder()));
+    private static final Comparator<Vehicle> VEHICLE_ORDER =
+            Comparator.comparing(Vehicle::id, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final double coordinatePrecision;
+    private final long timeBucketSeconds;
+
+    public RequestCanonicalizer(double coordinatePrecision, Duration timeBucket) {
+        this.coordinatePrecision = coordinatePrecision;
+        this.timeBucketSeconds = Math.max(1, timeBucket.toSeconds());
+    }
+
+    public RequestFingerprint fingerprint(String scope, RouteRequest request) {
+        Digest digest = new Digest();
+
+        List<Vehicle> vehicles = request.vehicles().stream().sorted(VEHICLE_ORDER).toList();
+        digest.putInt(vehicles.size());
+        for (Vehicle vehicle : vehicles) {
+            digest.putString(vehicle.id());
+            digest.putCoordinate(vehicle.startLocation());
+            digest.putCoordinate(vehicle.endLocation());
+            digest.putTime(vehicle.startTime());
+            digest.putTime(vehicle.endTime());
+            digest.putInteger(vehicle.capacityKg());
+        }
+
+        List<ServicePoint> services = request.services().stream().sorted(SERVICE_ORDER).toList();
+        digest.putInt(services.size());
+        for (ServicePoint service : services) {
+            digest.putString(service.id());
+            digest.putCoordinate(service.location());
+            digest.putInteger(service.durationSeconds());
+            digest.putInteger(service.demandKg());
+        }
+
+        digest.putTime(request.globalStartTime());
+        digest.putTime(request.globalEndTime());
+        digest.putString(Objects.toString(request.optimizerOrder(), null));
+
+        return new RequestFingerprint(scope.toLowerCase(Locale.ROOT), digest.hex());
+    }
+
+    private final class Digest {
+
+        private final MessageDigest sha;
+        private final ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES);
+
+        Digest() {
+            try {
+                this.sha = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        void putLong(long value) {
+            scratch.clear();
+            scratch.putLong(value);
+            sha.update(scratch.array(), 0, Long.BYTES);
+        }
+
+        void putInt(int value) {
+            putLong(value);
+        }
+
+        void putInteger(Integer value) {
+            putLong(value != null ? value : Long.MIN_VALUE);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putLong(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putLong(bytes.length);
+            sha.update(bytes);
+        }
+
+        void putCoordinate(Coordinate coordinate) {
+            if (coordinate == null) {
+                putLong(Long.MIN_VALUE);
+                return;
+            }
+            putLong(Math.round(coordinate.lat() / coordinatePrecision));
+            putLong(Math.round(coordinate.lng() / coordinatePrecision));
+        }
+
+        void putTime(String value) {
+            Long epochSeconds = parseEpochSeconds(value);
+            if (epochSeconds == null) {
+                putString(value);
+                return;
+            }
+            putLong(Math.floorDiv(epochSeconds, timeBucketSeconds));
+        }
+
+        String hex() {
+            return HexFormat.of().formatHex(sha.digest());
+        }
+    }
+
+    private static Long parseEpochSeconds(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return OffsetDateTime.parse(value).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value).toEpochSecond(ZoneOffset.UTC);
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.geolocationpoc.cache;
+
+public record RequestFingerprint(String scope, String digest) {
+}
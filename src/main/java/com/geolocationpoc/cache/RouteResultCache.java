@@ -0,0 +1,74 @@
+package com.geolocationpoc.cache;
+
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public class RouteResultCache {
+
+    private final RequestCanonicalizer canonicalizer;
+    private final Cache<RequestFingerprint, RouteResponse> cache;
+    private final boolean enabled;
+
+    public RouteResultCache(RequestCanonicalizer canonicalizer, boolean enabled, long maximumSize, Duration ttl) {
+        this.canonicalizer = canonicalizer;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Loaded outside the cache so a slow provider call never holds a map bin lock
+    public Mono<RouteResponse> get(String scope, RouteRequest request, Supplier<Mono<RouteResponse>> loader) {
+        return get(scope, request, loader, response -> true);
+    }
+
+    public Mono<RouteResponse> get(String scope, RouteRequest request, Supplier<Mono<RouteResponse>> loader,
+                                   Predicate<RouteResponse> cacheable) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        return Mono.defer(() -> {
+            RequestFingerprint key = canonicalizer.fingerprint(scope, request);
+            RouteResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return loader.get().doOnNext(response -> {
+                if (cacheable.test(response)) {
+                    cache.put(key, response);
+                }
+            });
+        });
+    }
+
+    public void put(String scope, RouteRequest request, RouteResponse response) {
+        if (enabled && response != null) {
+            cache.put(canonicalizer.fingerprint(scope, request), response);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStatistics statistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(
+                stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize()
+        );
+    }
+
+    public record CacheStatistics(long hits, long misses, long evictions, long size) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.geolocationpoc.client;
+
+import com.geolocationpoc.service.execution.ProviderSchedulers;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class GoogleAccessTokenManager {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleAccessTokenManager.class);
+    private static final String SCOPE = "https://www.googleapis.com/auth/cloud-platform";
+    private static final Duration DEFAULT_TOKEN_LIFETIME = Duration.ofHours(1);
+    private static final Duration ENVIRONMENT_TOKEN_LIFETIME = Duration.ofMinutes(5);
+    private static final Duration MIN_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final Duration refreshMargin;
+    private final String staticToken;
+    private final AtomicReference<CompletableFuture<CachedToken>> inFlight = new AtomicReference<>();
+    private final Object credentialsLock = new Object();
+
+    private volatile CachedToken current;
+    private volatile GoogleCredentials credentials;
+    private volatile Disposable scheduledRefresh;
+
+    public GoogleAccessTokenManager(Duration refreshMargin) {
+        this(refreshMargin, (String) null);
+    }
+
+    // A configured static token bypasses credentials entirely, e.g. against a stand-in server
+    public GoogleAccessTokenManager(Duration refreshMargin, String staticToken) {
+        this.refreshMargin = refreshMargin;
+        this.staticToken = staticToken != null && !staticToken.isEmpty() ? staticToken : null;
+    }
+
+    // Credentials given up front instead of looked up on first use
+    GoogleAccessTokenManager(Duration refreshMargin, GoogleCredentials credentials) {
+        this(refreshMargin, (String) null);
+        this.credentials = credentials;
+    }
+
+    // Hot path is a volatile read; only an expired or missing token waits, and then on the shared refresh
+    public Mono<String> accessToken() {
+        if (staticToken != null) {
+            return Mono.just(staticToken);
+        }
+        CachedToken token = current;
+        if (token != null && token.isValidAt(Instant.now())) {
+            return Mono.just(token.value());
+        }
+        return Mono.fromFuture(refresh(), true).map(CachedToken::value);
+    }
+
+    public void close() {
+        Disposable refresh = scheduledRefresh;
+        if (refresh != null) {
+            refresh.dispose();
+        }
+    }
+
+    private CompletableFuture<CachedToken> refresh() {
+        while (true) {
+            CompletableFuture<CachedToken> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+
+            CompletableFuture<CachedToken> created = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, created)) {
+                ProviderSchedulers.virtualThreads().schedule(() -> {
+                    try {
+                        CachedToken token = fetch();
+                        current = token;
+                        scheduleProactiveRefresh(token.expiresAt().minus(refreshMargin));
+                        created.complete(token);
+                    } catch (Throwable e) {
+                        created.completeExceptionally(e);
+                    } finally {
+                        inFlight.compareAndSet(created, null);
+                    }
+                });
+                return created;
+            }
+        }
+    }
+
+    // The virtual-thread scheduler has no timer, so the wait runs on the parallel one; the fetch
+    // itself still moves to a virtual thread in refresh()
+    private void scheduleProactiveRefresh(Instant at) {
+        long delayMillis = Math.max(MIN_RETRY_DELAY.toMillis(), Duration.between(Instant.now(), at).toMillis());
+        scheduledRefresh = Schedulers.parallel().schedule(() -> {
+            // A caller-driven refresh may have replaced the token since this was scheduled
+            if (!needsRefresh(current)) return;
+            refresh().whenComplete((token, error) -> onBackgroundRefresh(error));
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void onBackgroundRefresh(Throwable error) {
+        if (error == null) return;
+
+        log.warn("Background Google token refresh failed: {}", error.getMessage());
+        CachedToken stale = current;
+        if (stale != null && stale.isValidAt(Instant.now())) {
+            Duration remaining = Duration.between(Instant.now(), stale.expiresAt());
+            Duration retryIn = remaining.dividedBy(2).compareTo(MAX_RETRY_DELAY) < 0
+                    ? remaining.dividedBy(2) : MAX_RETRY_DELAY;
+            scheduleProactiveRefresh(Instant.now().plus(retryIn));
+        }
+    }
+
+    private boolean needsRefresh(CachedToken token) {
+        return token == null || !Instant.now().isBefore(token.expiresAt().minus(refreshMargin));
+    }
+
+    private CachedToken fetch() {
+        try {
+            GoogleCredentials loaded = credentials();
+            loaded.refresh();
+            AccessToken accessToken = loaded.getAccessToken();
+            Instant expiresAt = accessToken.getExpirationTime() != null
+                    ? accessToken.getExpirationTime().toInstant()
+                    : Instant.now().plus(DEFAULT_TOKEN_LIFETIME);
+            log.debug("Obtained Google access token valid until {}", expiresAt);
+            return new CachedToken(accessToken.getTokenValue(), expiresAt);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to get access token from credentials: {}", e.getMessage());
+
+            // Fallback to the environment variable (development)
+            String envToken = System.getenv("GOOGLE_ACCESS_TOKEN");
+            if (envToken != null && !envToken.isEmpty()) {
+                log.info("Using token from GOOGLE_ACCESS_TOKEN environment variable");
+                return new CachedToken(envToken, Instant.now().plus(ENVIRONMENT_TOKEN_LIFETIME).plus(refreshMargin));
+            }
+
+            throw new RuntimeException("Failed to get Google access token. " +
+                    "Please check your GOOGLE_APPLICATION_CREDENTIALS or run 'gcloud auth application-default login'", e);
+        }
+    }
+
+    // Loaded on first use so missing credentials fail the first Google call, not application startup
+    private GoogleCredentials credentials() throws IOException {
+        GoogleCredentials loaded = credentials;
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (credentialsLock) {
+            if (credentials == null) {
+                credentials = initializeCredentials();
+            }
+            return credentials;
+        }
+    }
+
+    private GoogleCredentials initializeCredentials() throws IOException {
+        String credentialsPath = System.getenv("GOOGLE_APPLICATION_CREDENTIALS");
+        if (credentialsPath != null && !credentialsPath.isEmpty()) {
+            log.info("Using service account from: {}", credentialsPath);
+            try (FileInputStream serviceAccount = new FileInputStream(credentialsPath)) {
+                return GoogleCredentials.fromStream(serviceAccount).createScoped(SCOPE);
+            }
+        }
+
+        log.info("Trying Application Default Credentials...");
+        return GoogleCredentials.getApplicationDefault().createScoped(SCOPE);
+    }
+
+    private record CachedToken(String value, Instant expiresAt) {
+
+        boolean isValidAt(Instant instant) {
+            return instant.isBefore(expiresAt);
+        }
+    }
+}
@@ -1,162 +1,171 @@
 package com.geolocationpoc.client;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.geolocationpoc.dto.Coordinate;
 import com.geolocationpoc.dto.RouteRequest;
-import com.geolocationpoc.dto.ServicePoint;
-import com.geolocationpoc.dto.Vehicle;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
-import com.google.auth.oauth2.GoogleCredentials;
-
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 
 public class GoogleOptimizationClient {
 
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String PROVIDER = "Google";
+    private static final String DEFAULT_BASE_URL = "https://routeoptimization.googleapis.com";
+
     private final WebClient client;
     private final ObjectMapper mapper = new ObjectMapper();
     private final String projectId;
-    private final GoogleCredentials credentials;
+    private final GoogleAccessTokenManager tokenManager;
+    private final ProviderTelemetry telemetry;
+    private final int gzipRequestsAboveBytes;
 
     public GoogleOptimizationClient(WebClient.Builder builder, String projectId) {
+        this(builder, DEFAULT_BASE_URL, projectId, -1, new GoogleAccessTokenManager(Duration.ofMinutes(5)),
+                ProviderTelemetry.noop());
+    }
+
+    public GoogleOptimizationClient(WebClient.Builder builder, String baseUrl, String projectId,
+                                    int gzipRequestsAboveBytes, GoogleAccessTokenManager tokenManager,
+                                    ProviderTelemetry telemetry) {
+        this.gzipRequestsAboveBytes = gzipRequestsAboveBytes;
         this.client = builder
-                .baseUrl("https://routeoptimization.googleapis.com")
+                .baseUrl(baseUrl)
                 .build();
         this.projectId = projectId;
+        this.tokenManager = tokenManager;
+        this.telemetry = telemetry;
+    }
 
-        try {
-            this.credentials = initializeCredentials();
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to initialize Google credentials. " +
-                    "Make sure GOOGLE_APPLICATION_CREDENTIALS is set to the path of your service account JSON file.", e);
-        }
+    public JsonNode optimizeTours(RouteRequest request) {
+        return optimizeToursAsync(request).block();
     }
 
-    private GoogleCredentials initializeCredentials() throws IOException {
-        String credentialsPath = System.getenv("GOOGLE_APPLICATION_CREDENTIALS");
-        if (credentialsPath != null && !credentialsPath.isEmpty()) {
-            System.out.println("Using service account from: " + credentialsPath);
-            try (FileInputStream serviceAccount = new FileInputStream(credentialsPath)) {
-                return GoogleCredentials.fromStream(serviceAccount)
-                        .createScoped("https://www.googleapis.com/auth/cloud-platform");
+    public Mono<JsonNode> optimizeToursAsync(RouteRequest request) {
+        return optimizeToursRaw(request).map(buffer -> {
+            try (InputStream body = buffer.asInputStream(true)) {
+                return mapper.readTree(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        }
+        });
+    }
 
-        System.out.println("Trying Application Default Credentials...");
-        return GoogleCredentials.getApplicationDefault()
-                .createScoped("https://www.googleapis.com/auth/cloud-platform");
+    public Mono<DataBuffer> optimizeToursRaw(RouteRequest request) {
+        return optimizeToursRaw(CompactRouteRequest.of(request));
     }
 
-    public JsonNode optimizeTours(RouteRequest request) {
-        try {
-            ObjectNode body = buildOptimizationRequest(request);
-
-            return client.post()
-                    .uri("/v1/projects/{projectId}:optimizeTours", projectId)
-                    .header("Authorization", "Bearer " + getAccessToken())
-                    .header("Content-Type", "application/json")
-                    .bodyValue(body)
-                    .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .block(Duration.ofSeconds(30));
-
-        } catch (WebClientResponseException e) {
-            throw new RuntimeException("Google Optimization API error: " + e.getResponseBodyAsString(), e);
-        } catch (Exception e) {
-            throw new RuntimeException("Google Optimization API request failed", e);
-        }
+    // The aggregated response body, for callers that stream-parse it; the caller must release it
+    public Mono<DataBuffer> optimizeToursRaw(CompactRouteRequest request) {
+        // The network phase spans the whole exchange, so it includes the build phase nested inside it
+        return telemetry.observe(PROVIDER, ProviderTelemetry.PHASE_TOKEN, tokenManager.accessToken())
+                .flatMap(token -> telemetry.observe(PROVIDER, ProviderTelemetry.PHASE_NETWORK,
+                        DataBufferUtils.join(client.post()
+                                .uri("/v1/projects/{projectId}:optimizeTours", projectId)
+                                .header("Authorization", "Bearer " + token)
+                                .header("Content-Type", "application/json")
+                                .body(StreamingJsonBody.of(mapper.getFactory(),
+                                        estimateRequestSize(request), gzipRequestsAboveBytes,
+                                        generator -> telemetry.observeChecked(PROVIDER, ProviderTelemetry.PHASE_BUILD,
+                                                () -> writeOptimizationRequest(request, generator)),
+                                        size -> telemetry.recordPayload(PROVIDER,
+                                                ProviderTelemetry.DIRECTION_REQUEST, size)))
+                                .retrieve()
+                                .bodyToFlux(DataBuffer.class))))
+                .doOnNext(body -> telemetry.recordPayload(PROVIDER, ProviderTelemetry.DIRECTION_RESPONSE,
+                        body.readableByteCount()))
+                .timeout(TIMEOUT)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .onErrorMap(e -> e instanceof WebClientResponseException responseError
+                        ? new RuntimeException("Google Optimization API error: " + responseError.getResponseBodyAsString(), e)
+                        : new RuntimeException("Google Optimization API request failed", e));
+    }
+
+    public void writeOptimizationRequest(RouteRequest request, JsonGenerator generator) throws IOException {
+        writeOptimizationRequest(CompactRouteRequest.of(request), generator);
     }
 
-    private ObjectNode buildOptimizationRequest(RouteRequest request) {
-        ObjectNode root = mapper.createObjectNode();
-        ObjectNode model = mapper.createObjectNode();
+    public void writeOptimizationRequest(CompactRouteRequest request, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("model");
 
         // Build shipments (services as pickup+delivery pairs or just deliveries)
-        ArrayNode shipments = mapper.createArrayNode();
-        for (ServicePoint service : request.services()) {
-            ObjectNode shipment = mapper.createObjectNode();
+        generator.writeArrayFieldStart("shipments");
+        for (int s = 0; s < request.serviceCount(); s++) {
+            generator.writeStartObject();
 
             // For simplicity, treat each service as a delivery
-            ArrayNode deliveries = mapper.createArrayNode();
-            ObjectNode delivery = mapper.createObjectNode();
-            delivery.set("arrivalLocation", createLocationNode(service.location()));
-            delivery.put("duration", service.durationSeconds() + "s");
-
-            if (service.demandKg() > 0) {
-                ObjectNode loadDemand = mapper.createObjectNode();
-                loadDemand.put("amount", service.demandKg());
-                delivery.set("loadDemands", mapper.createObjectNode().set("weight", loadDemand));
+            generator.writeArrayFieldStart("deliveries");
+            generator.writeStartObject();
+            writeLocation(generator, "arrivalLocation", request.serviceLat(s), request.serviceLng(s));
+            generator.writeStringField("duration", request.serviceDuration(s) + "s");
+
+            if (request.serviceDemand(s) > 0) {
+                generator.writeObjectFieldStart("loadDemands");
+                generator.writeObjectFieldStart("weight");
+                generator.writeNumberField("amount", request.serviceDemand(s));
+                generator.writeEndObject();
+                generator.writeEndObject();
             }
 
-            deliveries.add(delivery);
-            shipment.set("deliveries", deliveries);
-            shipment.put("label", service.id());
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeStringField("label", request.serviceId(s));
 
-            shipments.add(shipment);
+            generator.writeEndObject();
         }
-        model.set("shipments", shipments);
+        generator.writeEndArray();
 
         // Build vehicles
-        ArrayNode vehicles = mapper.createArrayNode();
-        for (Vehicle vehicle : request.vehicles()) {
-            ObjectNode vehicleNode = mapper.createObjectNode();
-            vehicleNode.put("label", vehicle.id());
-            vehicleNode.set("startLocation", createLocationNode(vehicle.startLocation()));
-            vehicleNode.set("endLocation", createLocationNode(vehicle.endLocation()));
-
-            if (vehicle.capacityKg() > 0) {
-                ObjectNode loadLimit = mapper.createObjectNode();
-                loadLimit.put("maxLoad", vehicle.capacityKg());
-                vehicleNode.set("loadLimits", mapper.createObjectNode().set("weight", loadLimit));
+        generator.writeArrayFieldStart("vehicles");
+        for (int v = 0; v < request.vehicleCount(); v++) {
+            generator.writeStartObject();
+            generator.writeStringField("label", request.vehicleId(v));
+            writeLocation(generator, "startLocation", request.startLat(v), request.startLng(v));
+            writeLocation(generator, "endLocation", request.endLat(v), request.endLng(v));
+
+            if (request.capacity(v) > 0) {
+                generator.writeObjectFieldStart("loadLimits");
+                generator.writeObjectFieldStart("weight");
+                generator.writeNumberField("maxLoad", request.capacity(v));
+                generator.writeEndObject();
+                generator.writeEndObject();
             }
 
-            vehicles.add(vehicleNode);
+            generator.writeEndObject();
         }
-        model.set("vehicles", vehicles);
+        generator.writeEndArray();
 
         // Time windows
         if (request.globalStartTime() != null) {
-            model.put("globalStartTime", request.globalStartTime());
+            generator.writeStringField("globalStartTime", request.globalStartTime());
         }
         if (request.globalEndTime() != null) {
-            model.put("globalEndTime", request.globalEndTime());
+            generator.writeStringField("globalEndTime", request.globalEndTime());
         }
 
-        root.set("model", model);
-        return root;
+        generator.writeEndObject();
+        generator.writeEndObject();
     }
 
-    private ObjectNode createLocationNode(Coordinate coordinate) {
-        ObjectNode location = mapper.createObjectNode();
-        location.put("latitude", coordinate.lat());
-        location.put("longitude", coordinate.lng());
-        return location;
+    private void writeLocation(JsonGenerator generator, String field, double lat, double lng) throws IOException {
+        generator.writeObjectFieldStart(field);
+        generator.writeNumberField("latitude", lat);
+        generator.writeNumberField("longitude", lng);
+        generator.writeEndObject();
     }
 
-    private String getAccessToken() {
-        try {
-            credentials.refreshIfExpired();
-            String token = credentials.getAccessToken().getTokenValue();
-            System.out.println("Successfully obtained access token: " + token.substring(0, 20) + "...");
-            return token;
-        } catch (IOException e) {
-            System.err.println("Failed to get access token from credentials: " + e.getMessage());
-
-            // Fallback para variável de ambiente (desenvolvimento)
-            String envToken = System.getenv("GOOGLE_ACCESS_TOKEN");
-            if (envToken != null && !envToken.isEmpty()) {
-                System.out.println("Using token from GOOGLE_ACCESS_TOKEN environment variable");
-                return envToken;
-            }
-
-            throw new RuntimeException("Failed to get Google access token. " +
-                    "Please check your GOOGLE_APPLICATION_CREDENTIALS or run 'gcloud auth application-default login'", e);
-        }
+    private int estimateRequestSize(CompactRouteRequest request) {
+        return 256 + request.serviceCount() * 192 + request.vehicleCount() * 256;
     }
 }
@@ -0,0 +1,54 @@
+package com.geolocationpoc.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+public class HttpTransportFactory implements DisposableBean {
+
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
+    // One pool per upstream host so a slow vendor cannot exhaust connections meant for another
+    public ReactorClientHttpConnector connector(String name, HttpTransportSettings settings) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("provider-" + name)
+                .maxConnections(settings.maxConnections())
+                .pendingAcquireMaxCount(settings.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.pendingAcquireTimeout())
+                .maxIdleTime(settings.maxIdleTime())
+                .maxLifeTime(settings.maxLifeTime())
+                .evictInBackground(settings.evictInBackground())
+                .metrics(settings.metrics())
+                .build();
+        connectionProviders.add(connectionProvider);
+
+        HttpProtocol[] protocols = settings.http2()
+                ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                : new HttpProtocol[]{HttpProtocol.HTTP11};
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol(protocols)
+                .keepAlive(true)
+                .compress(settings.compressResponses())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.connectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(settings.responseTimeout())
+                .resolver(spec -> spec
+                        .cacheMaxTimeToLive(settings.dnsCacheMaxTimeToLive())
+                        .cacheNegativeTimeToLive(settings.dnsCacheNegativeTimeToLive()))
+                .metrics(settings.metrics(), Function.identity());
+
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Override
+    public void destroy() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+}
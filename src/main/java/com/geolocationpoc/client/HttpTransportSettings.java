@@ -0,0 +1,51 @@
+package com.geolocationpoc.client;
+
+import org.springframework.core.env.PropertyResolver;
+
+import java.time.Duration;
+
+public record HttpTransportSettings(
+        int maxConnections,
+        int pendingAcquireMaxCount,
+        Duration pendingAcquireTimeout,
+        Duration maxIdleTime,
+        Duration maxLifeTime,
+        Duration evictInBackground,
+        boolean http2,
+        boolean compressResponses,
+        int gzipRequestsAboveBytes,
+        Duration connectTimeout,
+        Duration responseTimeout,
+        Duration dnsCacheMaxTimeToLive,
+        Duration dnsCacheNegativeTimeToLive,
+        boolean metrics) {
+
+    // Reads http.<provider>.<setting>, falling back to http.default.<setting> and then the built-in default
+    public static HttpTransportSettings forProvider(PropertyResolver properties, String provider) {
+        Lookup lookup = new Lookup(properties, provider);
+        return new HttpTransportSettings(
+                lookup.get("maxConnections", Integer.class, 100),
+                lookup.get("pendingAcquireMaxCount", Integer.class, 1000),
+                lookup.get("pendingAcquireTimeout", Duration.class, Duration.ofSeconds(5)),
+                lookup.get("maxIdleTime", Duration.class, Duration.ofSeconds(30)),
+                lookup.get("maxLifeTime", Duration.class, Duration.ofMinutes(5)),
+                lookup.get("evictInBackground", Duration.class, Duration.ofSeconds(30)),
+                lookup.get("http2", Boolean.class, true),
+                lookup.get("compressResponses", Boolean.class, true),
+                lookup.get("gzipRequestsAboveBytes", Integer.class, -1),
+                lookup.get("connectTimeout", Duration.class, Duration.ofSeconds(3)),
+                lookup.get("responseTimeout", Duration.class, Duration.ofSeconds(30)),
+                lookup.get("dnsCacheMaxTimeToLive", Duration.class, Duration.ofMinutes(5)),
+                lookup.get("dnsCacheNegativeTimeToLive", Duration.class, Duration.ofSeconds(10)),
+                lookup.get("metrics", Boolean.class, true)
+        );
+    }
+
+    private record Lookup(PropertyResolver properties, String provider) {
+
+        <T> T get(String setting, Class<T> type, T fallback) {
+            T value = properties.getProperty("http." + provider + "." + setting, type);
+            return value != null ? value : properties.getProperty("http.default." + setting, type, fallback);
+        }
+    }
+}
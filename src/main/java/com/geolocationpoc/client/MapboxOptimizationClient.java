@@ -1,106 +1,244 @@
 package com.geolocationpoc.client;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.geolocationpoc.dto.Coordinate;
 import com.geolocationpoc.dto.RouteRequest;
-import com.geolocationpoc.dto.ServicePoint;
-import com.geolocationpoc.dto.Vehicle;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MapboxOptimizationClient {
 
+    private static final Logger log = LoggerFactory.getLogger(MapboxOptimizationClient.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration MAX_SOLVE_TIME = Duration.ofMinutes(10);
+    private static final Duration MIN_POLL_INTERVAL = Duration.ofMillis(250);
+    private static final Duration MAX_POLL_INTERVAL = Duration.ofSeconds(10);
+    private static final String PROVIDER = "Mapbox";
+    private static final String DEFAULT_BASE_URL = "https://api.mapbox.com";
+    private static final String JOBS_PATH = "/optimized-trips/v2";
+
     private final WebClient client;
     private final ObjectMapper mapper = new ObjectMapper();
     private final String accessToken;
+    private final int gzipRequestsAboveBytes;
+    private final ProviderTelemetry telemetry;
+    private final SolveTimeEstimator solveTimes = new SolveTimeEstimator();
+    private final AtomicInteger outstandingJobs = new AtomicInteger();
 
     public MapboxOptimizationClient(WebClient.Builder builder, String accessToken) {
+        this(builder, DEFAULT_BASE_URL, accessToken, -1, ProviderTelemetry.noop());
+    }
+
+    public MapboxOptimizationClient(WebClient.Builder builder, String baseUrl, String accessToken,
+                                    int gzipRequestsAboveBytes, ProviderTelemetry telemetry) {
+        this.gzipRequestsAboveBytes = gzipRequestsAboveBytes;
         this.client = builder
-                .baseUrl("https://api.mapbox.com")
+                .baseUrl(baseUrl)
                 .build();
         this.accessToken = accessToken;
+        this.telemetry = telemetry;
+        telemetry.registerOutstandingJobs(PROVIDER, outstandingJobs::get);
     }
 
     public JsonNode optimizeRoutes(RouteRequest request) {
+        return optimizeRoutesAsync(request).block();
+    }
+
+    public Mono<JsonNode> optimizeRoutesAsync(RouteRequest request) {
+        return optimizeRoutesRaw(request).map(buffer -> {
+            try (InputStream body = buffer.asInputStream(true)) {
+                return mapper.readTree(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public Mono<DataBuffer> optimizeRoutesRaw(RouteRequest request) {
+        return optimizeRoutesRaw(CompactRouteRequest.of(request));
+    }
+
+    // The aggregated solution body, for callers that stream-parse it; the caller must release it.
+    // v2 is submit-then-poll: the POST only queues the problem. Polls are timers on the shared
+    // parallel scheduler, so an outstanding job holds no thread, and cancelling the returned Mono
+    // (the caller's deadline, a lost race) stops polling at once.
+    public Mono<DataBuffer> optimizeRoutesRaw(CompactRouteRequest request) {
+        int stops = request.serviceCount();
+        return Mono.defer(() -> {
+                    long submittedAt = System.nanoTime();
+                    return submit(request).flatMap(jobId -> {
+                        outstandingJobs.incrementAndGet();
+                        Duration expected = solveTimes.expected(stops);
+                        return telemetry.observe(PROVIDER, ProviderTelemetry.PHASE_POLL,
+                                        poll(jobId, firstPollDelay(expected), retryPollDelay(expected)))
+                                .doOnNext(body -> solveTimes.record(stops, System.nanoTime() - submittedAt))
+                                .doOnCancel(() -> log.debug("Stopped polling Mapbox job {}", jobId))
+                                .doFinally(signal -> outstandingJobs.decrementAndGet());
+                    });
+                })
+                .doOnNext(body -> telemetry.recordPayload(PROVIDER, ProviderTelemetry.DIRECTION_RESPONSE,
+                        body.readableByteCount()))
+                .timeout(MAX_SOLVE_TIME)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .onErrorMap(e -> e instanceof WebClientResponseException responseError
+                        ? new RuntimeException("Mapbox Optimization API error: " + responseError.getResponseBodyAsString(), e)
+                        : new RuntimeException("Mapbox Optimization API request failed", e));
+    }
+
+    public int outstandingJobs() {
+        return outstandingJobs.get();
+    }
+
+    private Mono<String> submit(CompactRouteRequest request) {
+        Mono<String> exchange = Mono.defer(() -> client.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path(JOBS_PATH)
+                        .queryParam("access_token", accessToken)
+                        .build())
+                .header("Content-Type", "application/json")
+                .body(StreamingJsonBody.of(mapper.getFactory(),
+                        estimateRequestSize(request), gzipRequestsAboveBytes,
+                        generator -> telemetry.observeChecked(PROVIDER, ProviderTelemetry.PHASE_BUILD,
+                                () -> writeOptimizationRequest(request, generator)),
+                        size -> telemetry.recordPayload(PROVIDER, ProviderTelemetry.DIRECTION_REQUEST, size)))
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(this::jobId));
+        return telemetry.observe(PROVIDER, ProviderTelemetry.PHASE_NETWORK, exchange).timeout(REQUEST_TIMEOUT);
+    }
+
+    private String jobId(String submitted) {
         try {
-            ObjectNode body = buildOptimizationRequest(request);
-
-            return client.post()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/optimized-trips/v2")
-                            .queryParam("access_token", accessToken)
-                            .build())
-                    .header("Content-Type", "application/json")
-                    .bodyValue(body)
-                    .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .block(Duration.ofSeconds(30));
-
-        } catch (WebClientResponseException e) {
-            throw new RuntimeException("Mapbox Optimization API error: " + e.getResponseBodyAsString(), e);
-        } catch (Exception e) {
-            throw new RuntimeException("Mapbox Optimization API request failed", e);
+            String id = mapper.readTree(submitted).path("id").asText("");
+            if (id.isEmpty()) {
+                throw new IllegalStateException("Mapbox accepted the problem without a job id: " + submitted);
+            }
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    private ObjectNode buildOptimizationRequest(RouteRequest request) {
-        ObjectNode root = mapper.createObjectNode();
-        root.put("version", 1);
+    // Each empty fetch (still solving) schedules the next one a little further out
+    private Mono<DataBuffer> poll(String jobId, Duration delay, Duration nextDelay) {
+        return Mono.delay(delay)
+                .then(fetch(jobId))
+                .switchIfEmpty(Mono.defer(() -> poll(jobId, nextDelay, backOff(nextDelay))));
+    }
+
+    // 202 while the job is queued or solving, 200 with the solution once it is done
+    private Mono<DataBuffer> fetch(String jobId) {
+        return client.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(JOBS_PATH + "/{jobId}")
+                        .queryParam("access_token", accessToken)
+                        .build(jobId))
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.ACCEPTED.value()) {
+                        return response.releaseBody().then(Mono.<DataBuffer>empty());
+                    }
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class));
+                    }
+                    return response.createError();
+                })
+                .timeout(REQUEST_TIMEOUT);
+    }
+
+    // The first poll lands near the expected finish; after that, polls start short and back off
+    private static Duration firstPollDelay(Duration expected) {
+        return clamp(expected.multipliedBy(9).dividedBy(10));
+    }
+
+    private static Duration retryPollDelay(Duration expected) {
+        return clamp(expected.dividedBy(10));
+    }
+
+    private static Duration backOff(Duration delay) {
+        return clamp(delay.multipliedBy(3).dividedBy(2));
+    }
+
+    private static Duration clamp(Duration delay) {
+        if (delay.compareTo(MIN_POLL_INTERVAL) < 0) return MIN_POLL_INTERVAL;
+        return delay.compareTo(MAX_POLL_INTERVAL) > 0 ? MAX_POLL_INTERVAL : delay;
+    }
+
+    public void writeOptimizationRequest(RouteRequest request, JsonGenerator generator) throws IOException {
+        writeOptimizationRequest(CompactRouteRequest.of(request), generator);
+    }
+
+    public void writeOptimizationRequest(CompactRouteRequest request, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("version", 1);
 
         // Build vehicles
-        ArrayNode vehicles = mapper.createArrayNode();
-        for (Vehicle vehicle : request.vehicles()) {
-            ObjectNode vehicleNode = mapper.createObjectNode();
-            vehicleNode.put("id", vehicle.id());
+        generator.writeArrayFieldStart("vehicles");
+        for (int v = 0; v < request.vehicleCount(); v++) {
+            generator.writeStartObject();
+            generator.writeStringField("id", request.vehicleId(v));
 
             // Start location
-            ObjectNode startLoc = mapper.createObjectNode();
-            startLoc.put("name", "start-" + vehicle.id());
-            startLoc.put("coordinates", createCoordinateArray(vehicle.startLocation()));
-            vehicleNode.set("start", startLoc);
+            generator.writeObjectFieldStart("start");
+            generator.writeStringField("name", "start-" + request.vehicleId(v));
+            writeCoordinates(generator, request.startLat(v), request.startLng(v));
+            generator.writeEndObject();
 
             // End location
-            ObjectNode endLoc = mapper.createObjectNode();
-            endLoc.put("name", "end-" + vehicle.id());
-            endLoc.put("coordinates", createCoordinateArray(vehicle.endLocation()));
-            vehicleNode.set("end", endLoc);
+            generator.writeObjectFieldStart("end");
+            generator.writeStringField("name", "end-" + request.vehicleId(v));
+            writeCoordinates(generator, request.endLat(v), request.endLng(v));
+            generator.writeEndObject();
 
-            if (vehicle.capacityKg() > 0) {
-                vehicleNode.put("capacity", vehicle.capacityKg());
+            if (request.capacity(v) > 0) {
+                generator.writeNumberField("capacity", request.capacity(v));
             }
 
-            vehicles.add(vehicleNode);
+            generator.writeEndObject();
         }
-        root.set("vehicles", vehicles);
+        generator.writeEndArray();
 
         // Build services
-        ArrayNode services = mapper.createArrayNode();
-        for (ServicePoint service : request.services()) {
-            ObjectNode serviceNode = mapper.createObjectNode();
-            serviceNode.put("id", service.id());
-            serviceNode.put("coordinates", createCoordinateArray(service.location()));
-            serviceNode.put("duration", service.durationSeconds());
-
-            if (service.demandKg() > 0) {
-                serviceNode.put("size", service.demandKg());
+        generator.writeArrayFieldStart("services");
+        for (int s = 0; s < request.serviceCount(); s++) {
+            generator.writeStartObject();
+            generator.writeStringField("id", request.serviceId(s));
+            writeCoordinates(generator, request.serviceLat(s), request.serviceLng(s));
+            generator.writeNumberField("duration", request.serviceDuration(s));
+
+            if (request.serviceDemand(s) > 0) {
+                generator.writeNumberField("size", request.serviceDemand(s));
             }
 
-            services.add(serviceNode);
+            generator.writeEndObject();
         }
-        root.set("services", services);
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
 
-        return root;
+    private void writeCoordinates(JsonGenerator generator, double lat, double lng) throws IOException {
+        generator.writeArrayFieldStart("coordinates");
+        generator.writeNumber(lng); // Mapbox uses [lng, lat]
+        generator.writeNumber(lat);
+        generator.writeEndArray();
     }
 
-    private ArrayNode createCoordinateArray(Coordinate coordinate) {
-        ArrayNode coords = mapper.createArrayNode();
-        coords.add(coordinate.lng()); // Mapbox uses [lng, lat]
-        coords.add(coordinate.lat());
-        return coords;
+    private int estimateRequestSize(CompactRouteRequest request) {
+        return 128 + request.serviceCount() * 128 + request.vehicleCount() * 256;
     }
 }
@@ -0,0 +1,38 @@
+package com.geolocationpoc.client;
+
+import java.time.Duration;
+
+// Smoothed solve times per problem-size class (powers of two of the stop count). A class with no
+// observations borrows from the nearest observed one, scaled linearly by size.
+class SolveTimeEstimator {
+
+    private static final int CLASSES = 24;
+    private static final double SMOOTHING = 0.2;
+    private static final long BASE_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final long NANOS_PER_STOP = Duration.ofMillis(2).toNanos();
+
+    private final double[] nanos = new double[CLASSES];
+
+    synchronized Duration expected(int stops) {
+        int sizeClass = sizeClass(stops);
+        for (int distance = 0; distance < CLASSES; distance++) {
+            for (int candidate : new int[]{sizeClass - distance, sizeClass + distance}) {
+                if (candidate >= 0 && candidate < CLASSES && nanos[candidate] > 0) {
+                    return Duration.ofNanos((long) (nanos[candidate] * Math.pow(2, sizeClass - candidate)));
+                }
+            }
+        }
+        return Duration.ofNanos(BASE_NANOS + stops * NANOS_PER_STOP);
+    }
+
+    synchronized void record(int stops, long elapsedNanos) {
+        int sizeClass = sizeClass(stops);
+        nanos[sizeClass] = nanos[sizeClass] > 0
+                ? nanos[sizeClass] + (elapsedNanos - nanos[sizeClass]) * SMOOTHING
+                : elapsedNanos;
+    }
+
+    private static int sizeClass(int stops) {
+        return Math.min(CLASSES - 1, 32 - Integer.numberOfLeadingZeros(Math.max(1, stops)));
+    }
+}
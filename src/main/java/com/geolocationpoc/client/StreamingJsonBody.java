@@ -0,0 +1,53 @@
+package com.geolocationpoc.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.web.reactive.function.BodyInserter;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.IntConsumer;
+import java.util.zip.GZIPOutputStream;
+
+final class StreamingJsonBody {
+
+    @FunctionalInterface
+    interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private StreamingJsonBody() {
+    }
+
+    // Serializes straight into a buffer from the connection's allocator, with no intermediate tree.
+    // Bodies estimated at or above gzipAboveBytes are gzip-encoded; a negative threshold disables it.
+    // bodySize receives the encoded length as it goes on the wire.
+    static BodyInserter<Object, ReactiveHttpOutputMessage> of(JsonFactory jsonFactory, int estimatedSize,
+                                                             int gzipAboveBytes, JsonWriter writer,
+                                                             IntConsumer bodySize) {
+        boolean gzip = gzipAboveBytes >= 0 && estimatedSize >= gzipAboveBytes;
+        return (message, context) -> {
+            if (gzip) {
+                message.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return message.writeWith(Mono.fromCallable(() -> {
+                DataBuffer buffer = message.bufferFactory().allocateBuffer(gzip ? estimatedSize / 4 : estimatedSize);
+                try (OutputStream out = gzip ? new GZIPOutputStream(buffer.asOutputStream(), 8192)
+                        : buffer.asOutputStream();
+                     JsonGenerator generator = jsonFactory.createGenerator(out)) {
+                    writer.write(generator);
+                } catch (IOException | RuntimeException e) {
+                    DataBufferUtils.release(buffer);
+                    throw e;
+                }
+                bodySize.accept(buffer.readableByteCount());
+                return buffer;
+            }));
+        };
+    }
+}
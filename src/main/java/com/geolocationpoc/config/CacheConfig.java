@@ -0,0 +1,52 @@
+package com.geolocationpoc.config;
+
+import com.geolocationpoc.cache.InFlightCoalescer;
+import com.geolocationpoc.cache.RequestCanonicalizer;
+import com.geolocationpoc.cache.RouteResultCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${route.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${route.cache.maximumSize:10000}")
+    private long maximumSize;
+
+    @Value("${route.cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${route.cache.coordinatePrecision:0.0001}")
+    private double coordinatePrecision;
+
+    @Value("${route.cache.timeBucket:15m}")
+    private Duration timeBucket;
+
+    @Value("${route.coalesce.enabled:true}")
+    private boolean coalesceEnabled;
+
+    @Value("${route.coalesce.joinWindow:2s}")
+    private Duration coalesceJoinWindow;
+
+    @Bean
+    public RequestCanonicalizer requestCanonicalizer() {
+        return new RequestCanonicalizer(coordinatePrecision, timeBucket);
+    }
+
+    @Bean
+    public RouteResultCache routeResultCache(RequestCanonicalizer canonicalizer) {
+        return new RouteResultCache(canonicalizer, enabled, maximumSize, ttl);
+    }
+
+    @Bean
+    public InFlightCoalescer inFlightCoalescer(RequestCanonicalizer canonicalizer, MeterRegistry meters) {
+        return new InFlightCoalescer(canonicalizer, meters, coalesceEnabled, coalesceJoinWindow);
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.geolocationpoc.config;
+
+import com.geolocationpoc.service.execution.BulkheadRegistry;
+import com.geolocationpoc.service.execution.LimiterSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class ExecutionConfig {
+
+    @Value("${provider.bulkhead.maxConcurrent:64}")
+    private int maxConcurrent;
+
+    @Value("${provider.bulkhead.maxQueue:256}")
+    private int maxQueue;
+
+    @Value("${provider.limiter.minConcurrent:1}")
+    private int minConcurrent;
+
+    @Value("${provider.limiter.ratePerSecond:0}")
+    private double ratePerSecond;
+
+    @Value("${provider.limiter.burst:1}")
+    private int burst;
+
+    @Value("${provider.limiter.backoffRatio:0.7}")
+    private double backoffRatio;
+
+    @Value("${provider.limiter.latencyTolerance:3.0}")
+    private double latencyTolerance;
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(Environment environment, MeterRegistry meters) {
+        return new BulkheadRegistry(environment, meters, maxConcurrent, maxQueue,
+                new LimiterSettings(minConcurrent, ratePerSecond, burst, backoffRatio, latencyTolerance));
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.geolocationpoc.config;
+
+import com.geolocationpoc.dto.BatchItem;
+import com.geolocationpoc.dto.BatchResult;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.JobEvent;
+import com.geolocationpoc.dto.JobView;
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.ProviderResult;
+import com.geolocationpoc.dto.RefinementReport;
+import com.geolocationpoc.dto.ReoptimizeRequest;
+import com.geolocationpoc.dto.ReoptimizeResponse;
+import com.geolocationpoc.dto.RouteMetrics;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.SelectionReport;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+// AOT only sees the DTOs that appear in controller signatures. Jobs persist requests and results as
+// JSON and batches stream them as NDJSON, so a native image needs binding hints for all of them.
+@Configuration
+@RegisterReflectionForBinding({
+        BatchItem.class, BatchResult.class, Coordinate.class, JobEvent.class, JobView.class,
+        OptimizedStop.class, ProviderResult.class, RefinementReport.class, ReoptimizeRequest.class,
+        ReoptimizeResponse.class, RouteMetrics.class, RouteRequest.class, RouteResponse.class,
+        SelectionReport.class, ServicePoint.class, Vehicle.class
+})
+public class NativeHintsConfig {
+}
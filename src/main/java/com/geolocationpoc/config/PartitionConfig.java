@@ -0,0 +1,22 @@
+package com.geolocationpoc.config;
+
+import com.geolocationpoc.partition.GeoPartitioner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PartitionConfig {
+
+    @Value("${partition.maxServicesPerCluster:250}")
+    private int maxServicesPerCluster;
+
+    @Value("${partition.maxIterations:20}")
+    private int maxIterations;
+
+    @Bean
+    public GeoPartitioner geoPartitioner() {
+        return new GeoPartitioner(maxServicesPerCluster, maxIterations);
+    }
+
+}
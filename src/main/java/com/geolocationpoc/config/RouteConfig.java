@@ -1,29 +1,136 @@
 package com.geolocationpoc.config;
 
+import com.geolocationpoc.client.GoogleAccessTokenManager;
 import com.geolocationpoc.client.GoogleOptimizationClient;
+import com.geolocationpoc.client.HttpTransportFactory;
+import com.geolocationpoc.client.HttpTransportSettings;
 import com.geolocationpoc.client.MapboxOptimizationClient;
+import com.geolocationpoc.matrix.TravelCostLearner;
+import com.geolocationpoc.matrix.TravelCostStore;
+import com.geolocationpoc.matrix.TravelMatrixEngine;
+import com.geolocationpoc.solver.LocalRouteSolver;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
 @Configuration
 public class RouteConfig {
 
     @Value("${google.projectId}")
     private String googleProjectId;
 
+    @Value("${google.baseUrl:https://routeoptimization.googleapis.com}")
+    private String googleBaseUrl;
+
+    @Value("${google.token.refreshMargin:5m}")
+    private Duration googleTokenRefreshMargin;
+
+    @Value("${google.accessToken:}")
+    private String googleStaticAccessToken;
+
+    @Value("${mapbox.baseUrl:https://api.mapbox.com}")
+    private String mapboxBaseUrl;
+
     @Value("${mapbox.token}")
     private String mapboxToken;
 
+    @Value("${matrix.circuityFactor:1.3}")
+    private double matrixCircuityFactor;
+
+    @Value("${matrix.averageSpeedKmh:40}")
+    private double matrixAverageSpeedKmh;
+
+    @Value("${matrix.vectorized:true}")
+    private boolean matrixVectorized;
+
+    @Value("${matrix.parallelThreshold:512}")
+    private int matrixParallelThreshold;
+
+    @Value("${matrix.maxNodes:5500}")
+    private int matrixMaxNodes;
+
+    @Value("${matrix.measured.enabled:false}")
+    private boolean measuredEnabled;
+
+    @Value("${matrix.measured.path:./data/travel-costs.bin}")
+    private Path measuredPath;
+
+    @Value("${matrix.measured.capacity:1048576}")
+    private int measuredCapacity;
+
+    @Value("${matrix.measured.coordinatePrecision:0.00001}")
+    private double measuredCoordinatePrecision;
+
+    @Value("${local.timeLimitMillis:50}")
+    private long localTimeLimitMillis;
+
+    // Provider clients and credentials are built on the first call rather than at startup
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public GoogleAccessTokenManager googleAccessTokenManager() {
+        return new GoogleAccessTokenManager(googleTokenRefreshMargin, googleStaticAccessToken);
+    }
+
+    @Bean
+    @Lazy
+    public GoogleOptimizationClient googleApiClient(WebClient.Builder builder, HttpTransportFactory transports,
+                                                    Environment environment, GoogleAccessTokenManager tokenManager,
+                                                    ProviderTelemetry telemetry) {
+        HttpTransportSettings settings = HttpTransportSettings.forProvider(environment, "google");
+        return new GoogleOptimizationClient(
+                builder.clientConnector(transports.connector("google", settings)),
+                googleBaseUrl, googleProjectId, settings.gzipRequestsAboveBytes(), tokenManager, telemetry);
+    }
+
+    @Bean
+    @Lazy
+    public MapboxOptimizationClient mapboxApiClient(WebClient.Builder builder, HttpTransportFactory transports,
+                                                    Environment environment, ProviderTelemetry telemetry) {
+        HttpTransportSettings settings = HttpTransportSettings.forProvider(environment, "mapbox");
+        return new MapboxOptimizationClient(
+                builder.clientConnector(transports.connector("mapbox", settings)),
+                mapboxBaseUrl, mapboxToken, settings.gzipRequestsAboveBytes(), telemetry);
+    }
+
+    // Opt-in, because opening the store maps the whole file at its configured capacity (32 bytes a
+    // slot, so 32 MB by default) wherever matrix.measured.path points
+    @Bean(destroyMethod = "close")
+    public TravelCostStore travelCostStore(MeterRegistry meters) {
+        TravelCostStore store = measuredEnabled
+                ? TravelCostStore.open(measuredPath, measuredCapacity, measuredCoordinatePrecision)
+                : TravelCostStore.none();
+        Gauge.builder("route.travelcost.lookups", store, s -> s.statistics().hits())
+                .tag("result", "hit").register(meters);
+        Gauge.builder("route.travelcost.lookups", store, s -> s.statistics().misses())
+                .tag("result", "miss").register(meters);
+        Gauge.builder("route.travelcost.evictions", store, s -> s.statistics().evictions()).register(meters);
+        return store;
+    }
+
+    @Bean
+    public TravelCostLearner travelCostLearner(TravelCostStore store) {
+        return new TravelCostLearner(store);
+    }
+
     @Bean
-    public GoogleOptimizationClient googleApiClient(WebClient.Builder builder) {
-        return new GoogleOptimizationClient(builder, googleProjectId);
+    public TravelMatrixEngine travelMatrixEngine(TravelCostStore measured) {
+        return new TravelMatrixEngine(matrixCircuityFactor, matrixAverageSpeedKmh,
+                matrixVectorized, matrixParallelThreshold, ForkJoinPool.commonPool(), measured, matrixMaxNodes);
     }
 
     @Bean
-    public MapboxOptimizationClient mapboxApiClient(WebClient.Builder builder) {
-        return new MapboxOptimizationClient(builder, mapboxToken);
+    public LocalRouteSolver localRouteSolver(TravelMatrixEngine matrixEngine) {
+        return new LocalRouteSolver(matrixEngine, localTimeLimitMillis);
     }
 
 }
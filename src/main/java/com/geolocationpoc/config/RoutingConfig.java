@@ -0,0 +1,47 @@
+package com.geolocationpoc.config;
+
+import com.geolocationpoc.service.routing.ProviderRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class RoutingConfig {
+
+    @Value("${router.breaker.windowSize:50}")
+    private int breakerWindowSize;
+
+    @Value("${router.breaker.minimumCalls:10}")
+    private int breakerMinimumCalls;
+
+    @Value("${router.breaker.failureRateThreshold:0.5}")
+    private double breakerFailureRateThreshold;
+
+    @Value("${router.breaker.openDuration:30s}")
+    private Duration breakerOpenDuration;
+
+    @Value("${router.breaker.halfOpenTrials:2}")
+    private int breakerHalfOpenTrials;
+
+    @Value("${router.minimumSamples:20}")
+    private int minimumSamples;
+
+    @Value("${router.fanOutMargin:0.15}")
+    private double fanOutMargin;
+
+    @Value("${router.explorationRate:0.05}")
+    private double explorationRate;
+
+    @Value("${router.referenceLatency:2s}")
+    private Duration referenceLatency;
+
+    @Bean
+    public ProviderRouter providerRouter() {
+        return new ProviderRouter(breakerWindowSize, breakerMinimumCalls, breakerFailureRateThreshold,
+                breakerOpenDuration, breakerHalfOpenTrials, minimumSamples,
+                fanOutMargin, explorationRate, referenceLatency);
+    }
+
+}
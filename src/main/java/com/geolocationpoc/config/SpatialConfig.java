@@ -0,0 +1,19 @@
+package com.geolocationpoc.config;
+
+import com.geolocationpoc.spatial.StopConsolidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SpatialConfig {
+
+    @Value("${spatial.mergeRadiusMeters:5}")
+    private double mergeRadiusMeters;
+
+    @Bean
+    public StopConsolidator stopConsolidator() {
+        return new StopConsolidator(mergeRadiusMeters);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.geolocationpoc.config;
+
+import com.geolocationpoc.standin.StandInContract;
+import com.geolocationpoc.standin.StandInProviderServer;
+import com.geolocationpoc.standin.StandInSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@Profile("standin")
+public class StandInConfig {
+
+    @Bean(destroyMethod = "stop")
+    public StandInProviderServer googleStandIn(Environment environment) {
+        return StandInProviderServer.start(StandInContract.GOOGLE,
+                StandInSettings.forProvider(environment, "google", 18081));
+    }
+
+    @Bean(destroyMethod = "stop")
+    public StandInProviderServer mapboxStandIn(Environment environment) {
+        return StandInProviderServer.start(StandInContract.MAPBOX,
+                StandInSettings.forProvider(environment, "mapbox", 18082));
+    }
+
+}
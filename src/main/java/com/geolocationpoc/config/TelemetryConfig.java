@@ -0,0 +1,17 @@
+package com.geolocationpoc.config;
+
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TelemetryConfig {
+
+    @Bean
+    public ProviderTelemetry providerTelemetry(MeterRegistry meters, ObservationRegistry observations) {
+        return new ProviderTelemetry(meters, observations);
+    }
+
+}
@@ -1,13 +1,15 @@
 package com.geolocationpoc.config;
 
+import com.geolocationpoc.client.HttpTransportFactory;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
 public class WebConfig {
 
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    @Bean
+    public HttpTransportFactory httpTransportFactory() {
+        return new HttpTransportFactory();
     }
 
 }
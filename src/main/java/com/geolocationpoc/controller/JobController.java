@@ -0,0 +1,57 @@
+package com.geolocationpoc.controller;
+
+import com.geolocationpoc.dto.JobEvent;
+import com.geolocationpoc.dto.JobView;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.service.JobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/routes/jobs")
+public class JobController {
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<JobView> submit(
+            @RequestBody RouteRequest request,
+            @RequestHeader(value = "X-Latency-Budget-Ms", required = false) Long latencyBudgetMs,
+            @RequestParam(defaultValue = "false") boolean hedge) {
+
+        Duration latencyBudget = latencyBudgetMs != null ? Duration.ofMillis(latencyBudgetMs) : null;
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.submit(request, latencyBudget, hedge));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<JobView> poll(@PathVariable String jobId) {
+        return jobService.find(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<JobEvent>> events(@PathVariable String jobId) {
+        return jobService.events(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found: " + jobId))
+                .map(event -> ServerSentEvent.builder(event).event(event.type()).build());
+    }
+}
@@ -1,18 +1,38 @@
 package com.geolocationpoc.controller;
 
+import com.geolocationpoc.cache.InFlightCoalescer;
+import com.geolocationpoc.cache.RouteResultCache;
+import com.geolocationpoc.dto.BatchResult;
 import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.ReoptimizeRequest;
+import com.geolocationpoc.dto.ReoptimizeResponse;
 import com.geolocationpoc.dto.RouteRequest;
 import com.geolocationpoc.dto.RouteResponse;
 import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.service.BatchRouteService;
 import com.geolocationpoc.service.CompositeRouteService;
+import com.geolocationpoc.service.JobService;
+import com.geolocationpoc.service.PartitionedRouteService;
+import com.geolocationpoc.service.ReoptimizationService;
+import com.geolocationpoc.service.execution.ProviderBulkhead;
+import com.geolocationpoc.service.routing.ProviderSnapshot;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -20,33 +40,92 @@ import java.util.List;
 public class RouteController {
 
     private final CompositeRouteService compositeService;
+    private final PartitionedRouteService partitionedService;
+    private final BatchRouteService batchService;
+    private final ReoptimizationService reoptimizationService;
+    private final JobService jobService;
 
-    public RouteController(CompositeRouteService compositeService) {
+    public RouteController(CompositeRouteService compositeService, PartitionedRouteService partitionedService,
+                           BatchRouteService batchService, ReoptimizationService reoptimizationService,
+                           JobService jobService) {
         this.compositeService = compositeService;
+        this.partitionedService = partitionedService;
+        this.batchService = batchService;
+        this.reoptimizationService = reoptimizationService;
+        this.jobService = jobService;
     }
 
     @PostMapping("/optimize")
-    public RouteResponse optimizeRoute(@RequestBody RouteRequest request) {
-        return compositeService.optimizeBestRoute(request);
+    public Mono<RouteResponse> optimizeRoute(
+            @RequestBody RouteRequest request,
+            @RequestHeader(value = "X-Latency-Budget-Ms", required = false) Long latencyBudgetMs,
+            @RequestParam(defaultValue = "false") boolean hedge) {
+
+        Duration latencyBudget = latencyBudgetMs != null ? Duration.ofMillis(latencyBudgetMs) : null;
+        return partitionedService.optimizeBestRouteAsync(request, latencyBudget, hedge);
+    }
+
+    // Body is NDJSON (or a JSON array) of {correlationId, request}; results stream back as NDJSON
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchResult> optimizeBatch(HttpServletRequest servletRequest) throws IOException {
+        return batchService.optimize(servletRequest.getInputStream());
+    }
+
+    // Applies added/removed stops to a previous plan, named by job id or sent inline with its request
+    @PostMapping("/reoptimize")
+    public Mono<ReoptimizeResponse> reoptimize(@RequestBody ReoptimizeRequest delta) {
+        RouteRequest base = delta.request();
+        RouteResponse plan = delta.plan();
+        if (delta.jobId() != null) {
+            JobService.CompletedJob job = jobService.completed(delta.jobId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                            "Completed job not found: " + delta.jobId()));
+            base = job.request();
+            plan = job.result();
+        }
+        if (base == null || plan == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either jobId or request and plan are required");
+        }
+        return reoptimizationService.reoptimize(base, plan, delta.addedServices(), delta.removedServiceIds());
     }
 
     @PostMapping("/provider/{providerName}")
-    public RouteResponse optimizeWithProvider(
+    public Mono<RouteResponse> optimizeWithProvider(
             @PathVariable String providerName,
             @RequestBody RouteRequest request) {
 
-        return compositeService.optimizeWithProvider(providerName, request);
+        return compositeService.optimizeWithProviderAsync(providerName, request);
+    }
+
+    @GetMapping("/cache/stats")
+    public RouteResultCache.CacheStatistics cacheStatistics() {
+        return compositeService.cacheStatistics();
+    }
+
+    @GetMapping("/coalescing/stats")
+    public InFlightCoalescer.CoalescingStatistics coalescingStatistics() {
+        return compositeService.coalescingStatistics();
+    }
+
+    @GetMapping("/providers/bulkheads")
+    public List<ProviderBulkhead.BulkheadStatistics> bulkheadStatistics() {
+        return compositeService.bulkheadStatistics();
+    }
+
+    @GetMapping("/providers/stats")
+    public List<ProviderSnapshot> providerStatistics() {
+        return compositeService.providerStatistics();
     }
 
     // Helper endpoint for simple delivery scenarios
     @PostMapping("/delivery")
-    public RouteResponse optimizeDelivery(@RequestBody SimpleDeliveryRequest request) {
+    public Mono<RouteResponse> optimizeDelivery(@RequestBody SimpleDeliveryRequest request) {
         List<ServicePoint> services = request.deliveryPoints().stream()
                 .map(point -> new ServicePoint(point.id(), point.location()))
                 .toList();
 
         RouteRequest routeRequest = RouteRequest.simple(request.startLocation(), services);
-        return compositeService.optimizeBestRoute(routeRequest);
+        return partitionedService.optimizeBestRouteAsync(routeRequest);
     }
 
     public record SimpleDeliveryRequest(
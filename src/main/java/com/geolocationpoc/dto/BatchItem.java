@@ -0,0 +1,6 @@
+package com.geolocationpoc.dto;
+
+public record BatchItem(
+        String correlationId,
+        RouteRequest request) {
+}
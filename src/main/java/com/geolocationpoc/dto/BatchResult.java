@@ -0,0 +1,16 @@
+package com.geolocationpoc.dto;
+
+public record BatchResult(
+        String correlationId,
+        RouteResponse response,
+        String error) {
+
+    public static BatchResult success(String correlationId, RouteResponse response) {
+        return new BatchResult(correlationId, response, null);
+    }
+
+    public static BatchResult failure(String correlationId, String error) {
+        return new BatchResult(correlationId, null, error);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.geolocationpoc.dto;
+
+public record JobEvent(
+        String type,
+        String jobId,
+        String status,
+        ProviderResult partialResult,
+        RouteResponse result,
+        String error) {
+
+    public static JobEvent status(String jobId, String status) {
+        return new JobEvent("status", jobId, status, null, null, null);
+    }
+
+    public static JobEvent partial(String jobId, ProviderResult partialResult) {
+        return new JobEvent("partial", jobId, "RUNNING", partialResult, null, null);
+    }
+
+    public static JobEvent completed(String jobId, RouteResponse result) {
+        return new JobEvent("completed", jobId, "COMPLETED", null, result, null);
+    }
+
+    public static JobEvent failed(String jobId, String error) {
+        return new JobEvent("failed", jobId, "FAILED", null, null, error);
+    }
+
+}
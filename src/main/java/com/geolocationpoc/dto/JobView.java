@@ -0,0 +1,13 @@
+package com.geolocationpoc.dto;
+
+import java.util.List;
+
+public record JobView(
+        String id,
+        String status,
+        String createdAt,
+        String updatedAt,
+        List<ProviderResult> partialResults,
+        RouteResponse result,
+        String error) {
+}
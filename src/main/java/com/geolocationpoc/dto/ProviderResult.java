@@ -0,0 +1,8 @@
+package com.geolocationpoc.dto;
+
+public record ProviderResult(
+        String provider,
+        Double totalDistanceMeters,
+        Long totalDurationSeconds,
+        String receivedAt) {
+}
@@ -0,0 +1,7 @@
+package com.geolocationpoc.dto;
+
+public record RefinementReport(
+        Integer improvedRoutes,
+        Double originalDistanceMeters,
+        Double savedDistanceMeters) {
+}
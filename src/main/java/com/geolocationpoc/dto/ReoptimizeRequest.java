@@ -0,0 +1,12 @@
+package com.geolocationpoc.dto;
+
+import java.util.List;
+
+// The base is either a completed job or a request together with the plan returned for it
+public record ReoptimizeRequest(
+        String jobId,
+        RouteRequest request,
+        RouteResponse plan,
+        List<ServicePoint> addedServices,
+        List<String> removedServiceIds) {
+}
@@ -0,0 +1,10 @@
+package com.geolocationpoc.dto;
+
+// Strategy is "repair" when the plan was patched locally and "full" when it was solved again;
+// the returned request already has the delta applied, so it is the base for the next change
+public record ReoptimizeResponse(
+        RouteRequest request,
+        RouteResponse plan,
+        String strategy,
+        Double costRatio) {
+}
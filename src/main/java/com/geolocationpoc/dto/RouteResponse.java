@@ -7,5 +7,23 @@ public record RouteResponse(
         Long totalDurationSeconds,
         List<OptimizedStop> stops,
         List<RouteMetrics> routeMetrics,
-        String provider) {
+        String provider,
+        SelectionReport selection,
+        RefinementReport refinement) {
+
+    public RouteResponse(Double totalDistanceMeters, Long totalDurationSeconds, List<OptimizedStop> stops,
+                         List<RouteMetrics> routeMetrics, String provider) {
+        this(totalDistanceMeters, totalDurationSeconds, stops, routeMetrics, provider, null, null);
+    }
+
+    public RouteResponse(Double totalDistanceMeters, Long totalDurationSeconds, List<OptimizedStop> stops,
+                         List<RouteMetrics> routeMetrics, String provider, SelectionReport selection) {
+        this(totalDistanceMeters, totalDurationSeconds, stops, routeMetrics, provider, selection, null);
+    }
+
+    public RouteResponse withSelection(SelectionReport selection) {
+        return new RouteResponse(totalDistanceMeters, totalDurationSeconds, stops, routeMetrics, provider, selection,
+                refinement);
+    }
+
 }
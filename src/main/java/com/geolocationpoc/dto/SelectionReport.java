@@ -0,0 +1,11 @@
+package com.geolocationpoc.dto;
+
+import java.util.List;
+
+public record SelectionReport(
+        List<String> completedProviders,
+        List<String> failedProviders,
+        List<String> cutOffProviders,
+        List<String> skippedProviders,
+        Long latencyBudgetMillis) {
+}
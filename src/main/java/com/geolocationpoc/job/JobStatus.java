@@ -0,0 +1,9 @@
+package com.geolocationpoc.job;
+
+public enum JobStatus {
+    PENDING, RUNNING, COMPLETED, FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,121 @@
+package com.geolocationpoc.job;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+// Request, partial results and final response are kept as JSON so the schema does not follow the DTOs
+@Entity
+@Table(name = "optimization_job", indexes = @Index(name = "idx_job_status", columnList = "status"))
+public class OptimizationJob {
+
+    @Id
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobStatus status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    private Long latencyBudgetMillis;
+
+    private boolean hedge;
+
+    @Lob
+    @Column(nullable = false)
+    private String requestJson;
+
+    @Lob
+    private String partialResultsJson;
+
+    @Lob
+    private String resultJson;
+
+    @Column(length = 2000)
+    private String error;
+
+    protected OptimizationJob() {
+    }
+
+    public OptimizationJob(String id, String requestJson, Long latencyBudgetMillis, boolean hedge, Instant createdAt) {
+        this.id = id;
+        this.requestJson = requestJson;
+        this.latencyBudgetMillis = latencyBudgetMillis;
+        this.hedge = hedge;
+        this.status = JobStatus.PENDING;
+        this.createdAt = createdAt;
+        this.updatedAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getLatencyBudgetMillis() {
+        return latencyBudgetMillis;
+    }
+
+    public boolean isHedge() {
+        return hedge;
+    }
+
+    public String getRequestJson() {
+        return requestJson;
+    }
+
+    public String getPartialResultsJson() {
+        return partialResultsJson;
+    }
+
+    public void setPartialResultsJson(String partialResultsJson) {
+        this.partialResultsJson = partialResultsJson;
+    }
+
+    public String getResultJson() {
+        return resultJson;
+    }
+
+    public void setResultJson(String resultJson) {
+        this.resultJson = resultJson;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.geolocationpoc.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OptimizationJobRepository extends JpaRepository<OptimizationJob, String> {
+
+    List<OptimizationJob> findByStatusIn(Collection<JobStatus> statuses);
+
+    // A bulk delete, so the stored JSON is never loaded just to be thrown away
+    @Modifying
+    @Transactional
+    @Query("delete from OptimizationJob job where job.status in :statuses and job.updatedAt < :cutoff")
+    int deleteByStatusInAndUpdatedAtBefore(Collection<JobStatus> statuses, Instant cutoff);
+}
@@ -0,0 +1,33 @@
+package com.geolocationpoc.matrix;
+
+final class ScalarHaversineKernel {
+
+    private ScalarHaversineKernel() {
+    }
+
+    static void computeRows(UnitVectors points, double metersPerChord, double[] distances, int fromRow, int toRow) {
+        int size = points.size();
+        for (int i = fromRow; i < toRow; i++) {
+            int row = i * size;
+            for (int j = 0; j < size; j++) {
+                distances[row + j] = distance(points, i, j, metersPerChord);
+            }
+        }
+    }
+
+    static double distance(UnitVectors points, int i, int j, double metersPerChord) {
+        double dx = points.x()[j] - points.x()[i];
+        double dy = points.y()[j] - points.y()[i];
+        double dz = points.z()[j] - points.z()[i];
+        double halfChord = Math.min(1.0, Math.sqrt(dx * dx + dy * dy + dz * dz) * 0.5);
+        return Math.asin(halfChord) * metersPerChord;
+    }
+
+    static double distance(double fromLat, double fromLng, double toLat, double toLng, double metersPerChord) {
+        double sinLat = Math.sin(Math.toRadians(toLat - fromLat) / 2);
+        double sinLng = Math.sin(Math.toRadians(toLng - fromLng) / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(fromLat)) * Math.cos(Math.toRadians(toLat)) * sinLng * sinLng;
+        return Math.asin(Math.min(1.0, Math.sqrt(a))) * metersPerChord;
+    }
+}
@@ -0,0 +1,64 @@
+package com.geolocationpoc.matrix;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RouteMetrics;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.Vehicle;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Records the legs a road-network provider measured: from each vehicle's start to its first stop,
+// then between consecutive stops. Legs without a reported travel time keep only their distance.
+public class TravelCostLearner {
+
+    private final TravelCostStore store;
+
+    public TravelCostLearner(TravelCostStore store) {
+        this.store = store;
+    }
+
+    public void learn(RouteRequest request, RouteResponse response) {
+        List<OptimizedStop> stops = response.stops();
+        List<RouteMetrics> routes = response.routeMetrics();
+        if (!store.isEnabled() || stops == null || routes == null || request.vehicles() == null) {
+            return;
+        }
+        // Stops are listed route by route; without matching counts they can't be attributed
+        int performed = 0;
+        for (RouteMetrics route : routes) {
+            performed += route.servicesPerformed() == null ? 0 : route.servicesPerformed();
+        }
+        if (performed != stops.size()) {
+            return;
+        }
+
+        Map<String, Coordinate> starts = new HashMap<>();
+        for (Vehicle vehicle : request.vehicles()) {
+            starts.put(vehicle.id(), vehicle.startLocation());
+        }
+        int next = 0;
+        for (RouteMetrics route : routes) {
+            Coordinate previous = starts.get(route.vehicleId());
+            int count = route.servicesPerformed() == null ? 0 : route.servicesPerformed();
+            for (int i = 0; i < count; i++, next++) {
+                OptimizedStop stop = stops.get(next);
+                if (isKnown(previous) && isKnown(stop.location()) && stop.distanceFromPrevious() != null) {
+                    Long travelSeconds = stop.travelTimeFromPrevious();
+                    store.put(store.key(previous.lat(), previous.lng()),
+                            store.key(stop.location().lat(), stop.location().lng()),
+                            stop.distanceFromPrevious(),
+                            travelSeconds != null && travelSeconds > 0 ? travelSeconds : Double.NaN);
+                }
+                previous = stop.location();
+            }
+        }
+    }
+
+    private static boolean isKnown(Coordinate coordinate) {
+        return coordinate != null && coordinate.lat() != null && coordinate.lng() != null;
+    }
+}
@@ -0,0 +1,241 @@
+package com.geolocationpoc.matrix;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+// Travel costs between quantized coordinate pairs, kept off-heap in a memory-mapped file so they
+// survive restarts and cost the collector nothing. The table is set-associative: a pair hashes to a
+// bucket of eight slots, a full bucket evicts by CLOCK, and slots are never emptied again, so there
+// are no tombstones. Writers lock one of a fixed set of stripes; readers take no lock. Each slot has
+// a sequence number that writers hold odd while rewriting it, and a reader that sees it move
+// treats the slot as a miss.
+public class TravelCostStore implements AutoCloseable {
+
+    public static final long MISSING = 0;
+
+    private static final Logger log = LoggerFactory.getLogger(TravelCostStore.class);
+    private static final long MAGIC = 0x5452564c434f5354L;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 32;
+    private static final int BUCKET_SLOTS = 8;
+    private static final int MAX_BUCKETS = 1 << 22;
+    private static final int STRIPES = 64;
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    // Slot layout: sequence, from key, to key, then meters and seconds packed as two floats
+    private static final int FROM = 8;
+    private static final int TO = 16;
+    private static final int COSTS = 24;
+
+    private final MappedByteBuffer table;
+    private final int bucketMask;
+    private final double precision;
+    private final byte[] referenced;
+    private final byte[] hands;
+    private final Object[] stripes = new Object[STRIPES];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private TravelCostStore(MappedByteBuffer table, int buckets, double precision) {
+        this.table = table;
+        this.bucketMask = buckets - 1;
+        this.precision = precision;
+        this.referenced = new byte[buckets * BUCKET_SLOTS];
+        this.hands = new byte[buckets];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    public static TravelCostStore none() {
+        return new TravelCostStore(null, 0, 1);
+    }
+
+    // Reopens the file as it was when its layout matches; otherwise starts it over empty
+    public static TravelCostStore open(Path file, int capacity, double precisionDegrees) {
+        if (180 / precisionDegrees >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Coordinate precision too fine: " + precisionDegrees);
+        }
+        int buckets = Math.min(MAX_BUCKETS,
+                Integer.highestOneBit(Math.max(1, (capacity + BUCKET_SLOTS - 1) / BUCKET_SLOTS - 1)) << 1);
+        int bytes = HEADER_BYTES + buckets * BUCKET_SLOTS * SLOT_BYTES;
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                boolean resized = channel.size() != bytes;
+                if (resized) {
+                    channel.truncate(0);
+                }
+                MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                table.order(ByteOrder.nativeOrder());
+                boolean warm = table.getLong(0) == MAGIC && table.getInt(8) == FORMAT_VERSION
+                        && table.getInt(12) == buckets && table.getDouble(16) == precisionDegrees;
+                if (!warm) {
+                    // A freshly extended file is already zero-filled
+                    for (int offset = 0; !resized && offset < bytes; offset += Long.BYTES) {
+                        table.putLong(offset, 0);
+                    }
+                    table.putInt(8, FORMAT_VERSION);
+                    table.putInt(12, buckets);
+                    table.putDouble(16, precisionDegrees);
+                    table.putLong(0, MAGIC);
+                }
+                log.info("Travel-cost store {} opened {} with {} slots", file, warm ? "warm" : "empty",
+                        buckets * BUCKET_SLOTS);
+                return new TravelCostStore(table, buckets, precisionDegrees);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return table != null;
+    }
+
+    public long key(double lat, double lng) {
+        return ((long) (int) Math.round(lat / precision) << 32) | ((int) Math.round(lng / precision) & 0xFFFFFFFFL);
+    }
+
+    // Packed costs, or MISSING; unpack with meters() and seconds()
+    public long get(long from, long to) {
+        if (table == null) {
+            return MISSING;
+        }
+        int base = bucket(from, to) * BUCKET_SLOTS;
+        for (int i = 0; i < BUCKET_SLOTS; i++) {
+            int slot = base + i;
+            int offset = offset(slot);
+            long sequence = (long) LONGS.getAcquire(table, offset);
+            // Buckets fill in slot order, so the first empty slot ends the search
+            if (sequence == 0) break;
+            if ((sequence & 1) != 0 || table.getLong(offset + FROM) != from || table.getLong(offset + TO) != to) {
+                continue;
+            }
+            long costs = table.getLong(offset + COSTS);
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getAcquire(table, offset) != sequence) break;
+            if (referenced[slot] == 0) {
+                referenced[slot] = 1;
+            }
+            hits.increment();
+            return costs;
+        }
+        misses.increment();
+        return MISSING;
+    }
+
+    // A NaN duration keeps the one already stored, for providers that report distances only
+    public void put(long from, long to, double meters, double seconds) {
+        if (table == null || from == to || !(meters > 0)) {
+            return;
+        }
+        int bucket = bucket(from, to);
+        synchronized (stripes[bucket & (STRIPES - 1)]) {
+            int base = bucket * BUCKET_SLOTS;
+            int target = -1;
+            for (int i = 0; i < BUCKET_SLOTS && target < 0; i++) {
+                int offset = offset(base + i);
+                if (table.getLong(offset) == 0) {
+                    target = base + i;
+                } else if (table.getLong(offset + FROM) == from && table.getLong(offset + TO) == to) {
+                    target = base + i;
+                    if (Double.isNaN(seconds)) {
+                        seconds = seconds(table.getLong(offset + COSTS));
+                    }
+                }
+            }
+            if (target < 0) {
+                target = victim(bucket);
+                referenced[target] = 0;
+                evictions.increment();
+            }
+            write(offset(target), from, to, pack(meters, seconds));
+            writes.increment();
+        }
+    }
+
+    public static double meters(long costs) {
+        return Float.intBitsToFloat((int) (costs >>> 32));
+    }
+
+    public static double seconds(long costs) {
+        return Float.intBitsToFloat((int) costs);
+    }
+
+    public CostStoreStatistics statistics() {
+        return new CostStoreStatistics(referenced.length, hits.sum(), misses.sum(), writes.sum(), evictions.sum());
+    }
+
+    @Override
+    public void close() {
+        if (table != null) {
+            table.force();
+        }
+    }
+
+    public record CostStoreStatistics(int capacity, long hits, long misses, long writes, long evictions) {
+    }
+
+    // A sequence left odd by a crash mid-write stays odd until the slot is rewritten
+    private void write(int offset, long from, long to, long costs) {
+        long sequence = table.getLong(offset);
+        long writing = (sequence & 1) == 0 ? sequence + 1 : sequence + 2;
+        LONGS.setOpaque(table, offset, writing);
+        VarHandle.storeStoreFence();
+        table.putLong(offset + FROM, from);
+        table.putLong(offset + TO, to);
+        table.putLong(offset + COSTS, costs);
+        LONGS.setRelease(table, offset, writing + 1);
+    }
+
+    // Second chance: the hand clears reference bits until it finds a slot nobody read since its last pass
+    private int victim(int bucket) {
+        int base = bucket * BUCKET_SLOTS;
+        while (true) {
+            int slot = base + hands[bucket];
+            hands[bucket] = (byte) ((hands[bucket] + 1) & (BUCKET_SLOTS - 1));
+            if (referenced[slot] == 0) {
+                return slot;
+            }
+            referenced[slot] = 0;
+        }
+    }
+
+    private int bucket(long from, long to) {
+        long hash = from * 0x9E3779B97F4A7C15L + to;
+        hash ^= hash >>> 32;
+        hash *= 0xD6E8FEB86659FD93L;
+        hash ^= hash >>> 32;
+        return (int) hash & bucketMask;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private static long pack(double meters, double seconds) {
+        return ((long) Float.floatToRawIntBits((float) meters) << 32)
+                | (Float.floatToRawIntBits((float) seconds) & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,69 @@
+package com.geolocationpoc.matrix;
+
+import java.util.Map;
+
+// Durations follow from distance at the configured speed, except for the legs whose measured
+// travel time was overlaid; those few are kept apart rather than in a second full matrix
+public class TravelMatrix {
+
+    private final int size;
+    private final int vehicleCount;
+    private final double[] distances;
+    private final double secondsPerMeter;
+    private final Map<Integer, Double> measuredSeconds;
+
+    TravelMatrix(int size, int vehicleCount, double[] distances, double secondsPerMeter,
+                 Map<Integer, Double> measuredSeconds) {
+        this.size = size;
+        this.vehicleCount = vehicleCount;
+        this.distances = distances;
+        this.secondsPerMeter = secondsPerMeter;
+        this.measuredSeconds = measuredSeconds;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int vehicleCount() {
+        return vehicleCount;
+    }
+
+    public int serviceCount() {
+        return size - 2 * vehicleCount;
+    }
+
+    // Node layout for request-built matrices: vehicle starts, vehicle ends, then services
+    public int startNode(int vehicle) {
+        return vehicle;
+    }
+
+    public int endNode(int vehicle) {
+        return vehicleCount + vehicle;
+    }
+
+    public int serviceNode(int service) {
+        return 2 * vehicleCount + service;
+    }
+
+    public int firstServiceNode() {
+        return 2 * vehicleCount;
+    }
+
+    public double distance(int from, int to) {
+        return distances[from * size + to];
+    }
+
+    public double duration(int from, int to) {
+        int cell = from * size + to;
+        if (!measuredSeconds.isEmpty()) {
+            Double seconds = measuredSeconds.get(cell);
+            if (seconds != null) return seconds;
+        }
+        return distances[cell] * secondsPerMeter;
+    }
+
+    public double[] distances() {
+        return distances;
+    }
+}
@@ -0,0 +1,184 @@
+package com.geolocationpoc.matrix;
+
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.model.CompactRouteRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class TravelMatrixEngine {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final int ROWS_PER_TASK = 64;
+    // Cells must stay addressable by int; the configured limit is normally far below this
+    private static final int MAX_ADDRESSABLE_NODES = 46_340;
+    // 5,000 stops plus their vehicle starts and ends, about 240 MB of distances at the limit
+    private static final int DEFAULT_MAX_NODES = 5500;
+    private static final boolean VECTOR_API_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private final double metersPerChord;
+    private final double secondsPerMeter;
+    private final boolean vectorized;
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+    private final TravelCostStore measured;
+    private final int maxNodes;
+
+    public TravelMatrixEngine(double circuityFactor, double averageSpeedKmh,
+                              boolean vectorized, int parallelThreshold, ForkJoinPool pool) {
+        this(circuityFactor, averageSpeedKmh, vectorized, parallelThreshold, pool, TravelCostStore.none(),
+                DEFAULT_MAX_NODES);
+    }
+
+    // Legs found in the measured store replace the great-circle estimate. The matrix is dense, so
+    // requests with more than maxNodes vehicle ends and stops are refused rather than allocated.
+    public TravelMatrixEngine(double circuityFactor, double averageSpeedKmh, boolean vectorized,
+                              int parallelThreshold, ForkJoinPool pool, TravelCostStore measured, int maxNodes) {
+        this.metersPerChord = 2 * EARTH_RADIUS_METERS * circuityFactor;
+        this.secondsPerMeter = 3.6 / averageSpeedKmh;
+        this.vectorized = vectorized && VECTOR_API_AVAILABLE;
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+        this.measured = measured;
+        this.maxNodes = Math.min(maxNodes, MAX_ADDRESSABLE_NODES);
+    }
+
+    public TravelMatrix build(RouteRequest request) {
+        return build(CompactRouteRequest.of(request));
+    }
+
+    // Rows are vehicle starts, then vehicle ends, then services in request order
+    public TravelMatrix build(CompactRouteRequest request) {
+        int vehicleCount = request.vehicleCount();
+        int size = 2 * vehicleCount + request.serviceCount();
+        double[] lat = new double[size];
+        double[] lng = new double[size];
+
+        for (int v = 0; v < vehicleCount; v++) {
+            lat[v] = request.startLat(v);
+            lng[v] = request.startLng(v);
+            lat[vehicleCount + v] = request.endLat(v);
+            lng[vehicleCount + v] = request.endLng(v);
+        }
+        for (int s = 0; s < request.serviceCount(); s++) {
+            lat[2 * vehicleCount + s] = request.serviceLat(s);
+            lng[2 * vehicleCount + s] = request.serviceLng(s);
+        }
+
+        return build(lat, lng, vehicleCount);
+    }
+
+    public TravelMatrix build(double[] lat, double[] lng) {
+        return build(lat, lng, 0);
+    }
+
+    public double distance(double fromLat, double fromLng, double toLat, double toLng) {
+        long costs = measured.get(measured.key(fromLat, fromLng), measured.key(toLat, toLng));
+        return costs != TravelCostStore.MISSING
+                ? TravelCostStore.meters(costs)
+                : ScalarHaversineKernel.distance(fromLat, fromLng, toLat, toLng, metersPerChord);
+    }
+
+    public double duration(double meters) {
+        return meters * secondsPerMeter;
+    }
+
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    public int maxNodes() {
+        return maxNodes;
+    }
+
+    private TravelMatrix build(double[] lat, double[] lng, int vehicleCount) {
+        int size = lat.length;
+        if (size > maxNodes) {
+            throw new IllegalArgumentException("A travel matrix over " + size + " nodes exceeds the limit of "
+                    + maxNodes);
+        }
+        UnitVectors points = UnitVectors.of(lat, lng);
+        double[] distances = new double[size * size];
+        long[] keys = measured.isEnabled() ? keys(lat, lng) : null;
+        Map<Integer, Double> measuredSeconds = keys != null ? new ConcurrentHashMap<>() : Map.of();
+
+        if (size >= parallelThreshold) {
+            pool.invoke(new RowTask(points, keys, distances, measuredSeconds, 0, size));
+        } else {
+            computeRows(points, keys, distances, measuredSeconds, 0, size);
+        }
+        return new TravelMatrix(size, vehicleCount, distances, secondsPerMeter, measuredSeconds);
+    }
+
+    private long[] keys(double[] lat, double[] lng) {
+        long[] keys = new long[lat.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = measured.key(lat[i], lng[i]);
+        }
+        return keys;
+    }
+
+    private void computeRows(UnitVectors points, long[] keys, double[] distances,
+                             Map<Integer, Double> measuredSeconds, int fromRow, int toRow) {
+        if (vectorized) {
+            VectorHaversineKernel.computeRows(points, metersPerChord, distances, fromRow, toRow);
+        } else {
+            ScalarHaversineKernel.computeRows(points, metersPerChord, distances, fromRow, toRow);
+        }
+        if (keys != null) {
+            overlayMeasured(keys, distances, measuredSeconds, fromRow, toRow);
+        }
+    }
+
+    // Providers that report distances only leave the duration to the configured speed
+    private void overlayMeasured(long[] keys, double[] distances, Map<Integer, Double> measuredSeconds,
+                                 int fromRow, int toRow) {
+        int size = keys.length;
+        for (int i = fromRow; i < toRow; i++) {
+            for (int j = 0; j < size; j++) {
+                if (keys[i] == keys[j]) continue;
+                long costs = measured.get(keys[i], keys[j]);
+                if (costs == TravelCostStore.MISSING) continue;
+                double seconds = TravelCostStore.seconds(costs);
+                distances[i * size + j] = TravelCostStore.meters(costs);
+                if (!Double.isNaN(seconds)) {
+                    measuredSeconds.put(i * size + j, seconds);
+                }
+            }
+        }
+    }
+
+    private final class RowTask extends RecursiveAction {
+
+        private final UnitVectors points;
+        private final long[] keys;
+        private final double[] distances;
+        private final Map<Integer, Double> measuredSeconds;
+        private final int fromRow;
+        private final int toRow;
+
+        RowTask(UnitVectors points, long[] keys, double[] distances, Map<Integer, Double> measuredSeconds,
+                int fromRow, int toRow) {
+            this.points = points;
+            this.keys = keys;
+            this.distances = distances;
+            this.measuredSeconds = measuredSeconds;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= ROWS_PER_TASK) {
+                computeRows(points, keys, distances, measuredSeconds, fromRow, toRow);
+                return;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new RowTask(points, keys, distances, measuredSeconds, fromRow, middle),
+                    new RowTask(points, keys, distances, measuredSeconds, middle, toRow));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.geolocationpoc.matrix;
+
+// Points on the unit sphere; the great-circle distance follows from the chord
+// length between them, which keeps trigonometry out of the pairwise loop
+record UnitVectors(double[] x, double[] y, double[] z) {
+
+    static UnitVectors of(double[] lat, double[] lng) {
+        int size = lat.length;
+        double[] x = new double[size];
+        double[] y = new double[size];
+        double[] z = new double[size];
+        for (int i = 0; i < size; i++) {
+            double phi = Math.toRadians(lat[i]);
+            double lambda = Math.toRadians(lng[i]);
+            double cosPhi = Math.cos(phi);
+            x[i] = cosPhi * Math.cos(lambda);
+            y[i] = cosPhi * Math.sin(lambda);
+            z[i] = Math.sin(phi);
+        }
+        return new UnitVectors(x, y, z);
+    }
+
+    int size() {
+        return x.length;
+    }
+}
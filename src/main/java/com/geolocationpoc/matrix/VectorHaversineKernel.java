@@ -0,0 +1,43 @@
+package com.geolocationpoc.matrix;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorHaversineKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorHaversineKernel() {
+    }
+
+    static void computeRows(UnitVectors points, double metersPerChord, double[] distances, int fromRow, int toRow) {
+        int size = points.size();
+        double[] x = points.x();
+        double[] y = points.y();
+        double[] z = points.z();
+        int upperBound = SPECIES.loopBound(size);
+
+        for (int i = fromRow; i < toRow; i++) {
+            DoubleVector xi = DoubleVector.broadcast(SPECIES, x[i]);
+            DoubleVector yi = DoubleVector.broadcast(SPECIES, y[i]);
+            DoubleVector zi = DoubleVector.broadcast(SPECIES, z[i]);
+            int row = i * size;
+
+            int j = 0;
+            for (; j < upperBound; j += SPECIES.length()) {
+                DoubleVector dx = DoubleVector.fromArray(SPECIES, x, j).sub(xi);
+                DoubleVector dy = DoubleVector.fromArray(SPECIES, y, j).sub(yi);
+                DoubleVector dz = DoubleVector.fromArray(SPECIES, z, j).sub(zi);
+                DoubleVector halfChord = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz))
+                        .lanewise(VectorOperators.SQRT)
+                        .mul(0.5)
+                        .min(1.0);
+                halfChord.lanewise(VectorOperators.ASIN).mul(metersPerChord).intoArray(distances, row + j);
+            }
+            for (; j < size; j++) {
+                distances[row + j] = ScalarHaversineKernel.distance(points, i, j, metersPerChord);
+            }
+        }
+    }
+}
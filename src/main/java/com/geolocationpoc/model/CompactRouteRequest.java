@@ -0,0 +1,166 @@
+package com.geolocationpoc.model;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+
+import java.util.List;
+
+// Struct-of-arrays view of a RouteRequest, built once and shared by request writers, response
+// mappers and solvers. Missing numbers read as 0: no service time, no demand, unlimited capacity.
+// A vehicle without an end location returns to its start.
+public final class CompactRouteRequest {
+
+    private final RouteRequest source;
+
+    private final String[] serviceIds;
+    private final double[] serviceLat;
+    private final double[] serviceLng;
+    private final int[] serviceDuration;
+    private final int[] serviceDemand;
+    private final IdIndex serviceIndex;
+
+    private final String[] vehicleIds;
+    private final double[] startLat;
+    private final double[] startLng;
+    private final double[] endLat;
+    private final double[] endLng;
+    private final int[] capacity;
+    private final String[] vehicleStartTimes;
+    private final IdIndex vehicleIndex;
+
+    private CompactRouteRequest(RouteRequest source) {
+        this.source = source;
+
+        List<ServicePoint> services = source.services();
+        int serviceCount = services.size();
+        serviceIds = new String[serviceCount];
+        serviceLat = new double[serviceCount];
+        serviceLng = new double[serviceCount];
+        serviceDuration = new int[serviceCount];
+        serviceDemand = new int[serviceCount];
+        for (int s = 0; s < serviceCount; s++) {
+            ServicePoint service = services.get(s);
+            serviceIds[s] = service.id();
+            serviceLat[s] = service.location().lat();
+            serviceLng[s] = service.location().lng();
+            serviceDuration[s] = service.durationSeconds() != null ? service.durationSeconds() : 0;
+            serviceDemand[s] = service.demandKg() != null ? service.demandKg() : 0;
+        }
+        serviceIndex = new IdIndex(serviceIds);
+
+        List<Vehicle> vehicles = source.vehicles();
+        int vehicleCount = vehicles.size();
+        vehicleIds = new String[vehicleCount];
+        startLat = new double[vehicleCount];
+        startLng = new double[vehicleCount];
+        endLat = new double[vehicleCount];
+        endLng = new double[vehicleCount];
+        capacity = new int[vehicleCount];
+        vehicleStartTimes = new String[vehicleCount];
+        for (int v = 0; v < vehicleCount; v++) {
+            Vehicle vehicle = vehicles.get(v);
+            Coordinate end = vehicle.endLocation() != null ? vehicle.endLocation() : vehicle.startLocation();
+            vehicleIds[v] = vehicle.id();
+            startLat[v] = vehicle.startLocation().lat();
+            startLng[v] = vehicle.startLocation().lng();
+            endLat[v] = end.lat();
+            endLng[v] = end.lng();
+            capacity[v] = vehicle.capacityKg() != null ? vehicle.capacityKg() : 0;
+            vehicleStartTimes[v] = vehicle.startTime();
+        }
+        vehicleIndex = new IdIndex(vehicleIds);
+    }
+
+    public static CompactRouteRequest of(RouteRequest request) {
+        return new CompactRouteRequest(request);
+    }
+
+    public RouteRequest source() {
+        return source;
+    }
+
+    public String globalStartTime() {
+        return source.globalStartTime();
+    }
+
+    public String globalEndTime() {
+        return source.globalEndTime();
+    }
+
+    public int serviceCount() {
+        return serviceIds.length;
+    }
+
+    public String serviceId(int service) {
+        return serviceIds[service];
+    }
+
+    public double serviceLat(int service) {
+        return serviceLat[service];
+    }
+
+    public double serviceLng(int service) {
+        return serviceLng[service];
+    }
+
+    public int serviceDuration(int service) {
+        return serviceDuration[service];
+    }
+
+    public int serviceDemand(int service) {
+        return serviceDemand[service];
+    }
+
+    // -1 when the id is not part of the request
+    public int serviceIndexOf(String id) {
+        return serviceIndex.indexOf(id);
+    }
+
+    public Coordinate serviceLocation(int service) {
+        return new Coordinate(serviceLat[service], serviceLng[service]);
+    }
+
+    // Provider responses name stops by the ids we sent; an unknown id keeps the (0, 0) placeholder
+    public Coordinate serviceLocation(String id) {
+        int service = serviceIndex.indexOf(id);
+        return service >= 0 ? serviceLocation(service) : new Coordinate(0D, 0D);
+    }
+
+    public int vehicleCount() {
+        return vehicleIds.length;
+    }
+
+    public String vehicleId(int vehicle) {
+        return vehicleIds[vehicle];
+    }
+
+    public double startLat(int vehicle) {
+        return startLat[vehicle];
+    }
+
+    public double startLng(int vehicle) {
+        return startLng[vehicle];
+    }
+
+    public double endLat(int vehicle) {
+        return endLat[vehicle];
+    }
+
+    public double endLng(int vehicle) {
+        return endLng[vehicle];
+    }
+
+    public int capacity(int vehicle) {
+        return capacity[vehicle];
+    }
+
+    public String vehicleStartTime(int vehicle) {
+        return vehicleStartTimes[vehicle];
+    }
+
+    public int vehicleIndexOf(String id) {
+        return vehicleIndex.indexOf(id);
+    }
+}
@@ -0,0 +1,45 @@
+package com.geolocationpoc.model;
+
+// Open-addressing string-to-index table; a duplicate id keeps its first index
+final class IdIndex {
+
+    private final String[] keys;
+    private final int[] values;
+    private final int mask;
+
+    IdIndex(String[] ids) {
+        int capacity = Integer.highestOneBit(Math.max(4, ids.length * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != null) {
+                put(ids[i], i);
+            }
+        }
+    }
+
+    int indexOf(String id) {
+        if (id == null) return -1;
+        for (int slot = spread(id.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            String key = keys[slot];
+            if (key == null) return -1;
+            if (key.equals(id)) return values[slot];
+        }
+    }
+
+    private void put(String id, int index) {
+        for (int slot = spread(id.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == null) {
+                keys[slot] = id;
+                values[slot] = index;
+                return;
+            }
+            if (keys[slot].equals(id)) return;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
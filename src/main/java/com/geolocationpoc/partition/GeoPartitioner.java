@@ -0,0 +1,267 @@
+package com.geolocationpoc.partition;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Splits a request into geographic clusters with their own vehicles. Clustering is k-means on
+// unit-sphere vectors with size-capped assignment, so no cluster drifts far past the target size.
+public class GeoPartitioner {
+
+    private static final double SIZE_SLACK = 1.25;
+
+    private final int maxServicesPerCluster;
+    private final int maxIterations;
+
+    public GeoPartitioner(int maxServicesPerCluster, int maxIterations) {
+        this.maxServicesPerCluster = maxServicesPerCluster;
+        this.maxIterations = maxIterations;
+    }
+
+    public List<RouteRequest> partition(RouteRequest request) {
+        List<ServicePoint> services = request.services();
+        List<Vehicle> vehicles = request.vehicles();
+        int clusterCount = Math.min(vehicles.size(),
+                (services.size() + maxServicesPerCluster - 1) / maxServicesPerCluster);
+        if (clusterCount <= 1) {
+            return List.of(request);
+        }
+
+        Points points = Points.of(services.stream().map(ServicePoint::location).toList());
+        int[] assignment = cluster(points, clusterCount);
+
+        List<List<ServicePoint>> clusterServices = new ArrayList<>();
+        for (int c = 0; c < clusterCount; c++) {
+            clusterServices.add(new ArrayList<>());
+        }
+        for (int i = 0; i < services.size(); i++) {
+            clusterServices.get(assignment[i]).add(services.get(i));
+        }
+        clusterServices.removeIf(List::isEmpty);
+
+        List<List<Vehicle>> clusterVehicles = assignVehicles(clusterServices, vehicles);
+
+        List<RouteRequest> parts = new ArrayList<>(clusterServices.size());
+        for (int c = 0; c < clusterServices.size(); c++) {
+            parts.add(new RouteRequest(clusterVehicles.get(c), clusterServices.get(c),
+                    request.globalStartTime(), request.globalEndTime(), request.optimizerOrder()));
+        }
+        return parts;
+    }
+
+    private int[] cluster(Points points, int clusterCount) {
+        int size = points.size();
+        int capacity = (int) Math.ceil(SIZE_SLACK * size / clusterCount);
+        Points centroids = seed(points, clusterCount);
+        int[] assignment = new int[size];
+        Arrays.fill(assignment, -1);
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            boolean changed = assign(points, centroids, capacity, assignment);
+            centroids = recenter(points, assignment, centroids);
+            if (!changed) break;
+        }
+        return assignment;
+    }
+
+    // Farthest-point seeding keeps partitions deterministic, so repeated jobs produce cacheable sub-requests
+    private Points seed(Points points, int clusterCount) {
+        Points centroids = new Points(new double[clusterCount], new double[clusterCount], new double[clusterCount]);
+        double[] nearest = new double[points.size()];
+        Arrays.fill(nearest, Double.MAX_VALUE);
+
+        int next = 0;
+        for (int c = 0; c < clusterCount; c++) {
+            centroids.set(c, points, next);
+            int farthest = 0;
+            for (int i = 0; i < points.size(); i++) {
+                nearest[i] = Math.min(nearest[i], points.squaredChord(i, centroids, c));
+                if (nearest[i] > nearest[farthest]) {
+                    farthest = i;
+                }
+            }
+            next = farthest;
+        }
+        return centroids;
+    }
+
+    // Points closest to some centroid claim seats first; the rest take the nearest cluster with room
+    private boolean assign(Points points, Points centroids, int capacity, int[] assignment) {
+        int clusterCount = centroids.size();
+        double[] best = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            double nearest = Double.MAX_VALUE;
+            for (int c = 0; c < clusterCount; c++) {
+                nearest = Math.min(nearest, points.squaredChord(i, centroids, c));
+            }
+            best[i] = nearest;
+        }
+        int[] order = IntStream.range(0, points.size())
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> best[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        int[] counts = new int[clusterCount];
+        boolean changed = false;
+        for (int i : order) {
+            int chosen = -1;
+            double chosenDistance = Double.MAX_VALUE;
+            for (int c = 0; c < clusterCount; c++) {
+                if (counts[c] >= capacity) continue;
+                double distance = points.squaredChord(i, centroids, c);
+                if (distance < chosenDistance) {
+                    chosenDistance = distance;
+                    chosen = c;
+                }
+            }
+            counts[chosen]++;
+            if (assignment[i] != chosen) {
+                assignment[i] = chosen;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private Points recenter(Points points, int[] assignment, Points previous) {
+        int clusterCount = previous.size();
+        Points centroids = new Points(new double[clusterCount], new double[clusterCount], new double[clusterCount]);
+        int[] counts = new int[clusterCount];
+        for (int i = 0; i < points.size(); i++) {
+            int c = assignment[i];
+            centroids.x()[c] += points.x()[i];
+            centroids.y()[c] += points.y()[i];
+            centroids.z()[c] += points.z()[i];
+            counts[c]++;
+        }
+        for (int c = 0; c < clusterCount; c++) {
+            if (counts[c] == 0) {
+                centroids.set(c, previous, c);
+            } else {
+                centroids.normalize(c);
+            }
+        }
+        return centroids;
+    }
+
+    // Every cluster gets its nearest vehicle first, busiest clusters choosing first; the remaining
+    // vehicles go where demand most exceeds assigned capacity, or to the nearest cluster once none does
+    private List<List<Vehicle>> assignVehicles(List<List<ServicePoint>> clusters, List<Vehicle> vehicles) {
+        int clusterCount = clusters.size();
+        Points centroids = new Points(new double[clusterCount], new double[clusterCount], new double[clusterCount]);
+        long[] shortfall = new long[clusterCount];
+        for (int c = 0; c < clusterCount; c++) {
+            Points members = Points.of(clusters.get(c).stream().map(ServicePoint::location).toList());
+            for (int i = 0; i < members.size(); i++) {
+                centroids.x()[c] += members.x()[i];
+                centroids.y()[c] += members.y()[i];
+                centroids.z()[c] += members.z()[i];
+            }
+            centroids.normalize(c);
+            shortfall[c] = clusters.get(c).stream()
+                    .mapToLong(service -> service.demandKg() != null ? service.demandKg() : 0)
+                    .sum();
+        }
+
+        Points starts = Points.of(vehicles.stream().map(Vehicle::startLocation).toList());
+        boolean[] used = new boolean[vehicles.size()];
+        List<List<Vehicle>> assigned = new ArrayList<>();
+        for (int c = 0; c < clusterCount; c++) {
+            assigned.add(new ArrayList<>());
+        }
+
+        int[] byDemand = IntStream.range(0, clusterCount)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer c) -> shortfall[c]).reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int c : byDemand) {
+            int nearest = -1;
+            for (int v = 0; v < vehicles.size(); v++) {
+                if (used[v]) continue;
+                if (nearest < 0 || starts.squaredChord(v, centroids, c) < starts.squaredChord(nearest, centroids, c)) {
+                    nearest = v;
+                }
+            }
+            used[nearest] = true;
+            assigned.get(c).add(vehicles.get(nearest));
+            shortfall[c] -= capacity(vehicles.get(nearest));
+        }
+
+        for (int v = 0; v < vehicles.size(); v++) {
+            if (used[v]) continue;
+            int target = 0;
+            for (int c = 1; c < clusterCount; c++) {
+                if (shortfall[c] > shortfall[target]) {
+                    target = c;
+                }
+            }
+            if (shortfall[target] <= 0) {
+                for (int c = 1; c < clusterCount; c++) {
+                    if (starts.squaredChord(v, centroids, c) < starts.squaredChord(v, centroids, target)) {
+                        target = c;
+                    }
+                }
+            }
+            assigned.get(target).add(vehicles.get(v));
+            shortfall[target] -= capacity(vehicles.get(v));
+        }
+        return assigned;
+    }
+
+    private static long capacity(Vehicle vehicle) {
+        Integer capacityKg = vehicle.capacityKg();
+        return capacityKg != null && capacityKg > 0 ? capacityKg : Integer.MAX_VALUE;
+    }
+
+    private record Points(double[] x, double[] y, double[] z) {
+
+        static Points of(List<Coordinate> coordinates) {
+            int size = coordinates.size();
+            Points points = new Points(new double[size], new double[size], new double[size]);
+            for (int i = 0; i < size; i++) {
+                double phi = Math.toRadians(coordinates.get(i).lat());
+                double lambda = Math.toRadians(coordinates.get(i).lng());
+                double cosPhi = Math.cos(phi);
+                points.x[i] = cosPhi * Math.cos(lambda);
+                points.y[i] = cosPhi * Math.sin(lambda);
+                points.z[i] = Math.sin(phi);
+            }
+            return points;
+        }
+
+        int size() {
+            return x.length;
+        }
+
+        double squaredChord(int i, Points other, int j) {
+            double dx = other.x[j] - x[i];
+            double dy = other.y[j] - y[i];
+            double dz = other.z[j] - z[i];
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        void set(int i, Points other, int j) {
+            x[i] = other.x[j];
+            y[i] = other.y[j];
+            z[i] = other.z[j];
+        }
+
+        void normalize(int i) {
+            double norm = Math.sqrt(x[i] * x[i] + y[i] * y[i] + z[i] * z[i]);
+            if (norm > 0) {
+                x[i] /= norm;
+                y[i] /= norm;
+                z[i] /= norm;
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.geolocationpoc.partition;
+
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RefinementReport;
+import com.geolocationpoc.dto.RouteMetrics;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.SelectionReport;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+// Partitions share no vehicles, so their routes concatenate and the totals simply add up
+public final class RouteStitcher {
+
+    private RouteStitcher() {
+    }
+
+    public static RouteResponse merge(List<RouteResponse> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+
+        double totalDistance = 0;
+        long totalDuration = 0;
+        List<OptimizedStop> stops = new ArrayList<>();
+        List<RouteMetrics> routeMetrics = new ArrayList<>();
+        Set<String> providers = new LinkedHashSet<>();
+
+        for (RouteResponse part : parts) {
+            totalDistance += part.totalDistanceMeters() != null ? part.totalDistanceMeters() : 0;
+            totalDuration += part.totalDurationSeconds() != null ? part.totalDurationSeconds() : 0;
+            if (part.stops() != null) stops.addAll(part.stops());
+            if (part.routeMetrics() != null) routeMetrics.addAll(part.routeMetrics());
+            providers.add(part.provider());
+        }
+
+        return new RouteResponse(totalDistance, totalDuration, stops, routeMetrics,
+                String.join("+", providers), mergeSelection(parts), mergeRefinement(parts));
+    }
+
+    private static RefinementReport mergeRefinement(List<RouteResponse> parts) {
+        int improvedRoutes = 0;
+        double originalDistance = 0;
+        double savedDistance = 0;
+        boolean refined = false;
+        for (RouteResponse part : parts) {
+            RefinementReport report = part.refinement();
+            if (report == null) {
+                originalDistance += part.totalDistanceMeters() != null ? part.totalDistanceMeters() : 0;
+                continue;
+            }
+            refined = true;
+            improvedRoutes += report.improvedRoutes();
+            originalDistance += report.originalDistanceMeters();
+            savedDistance += report.savedDistanceMeters();
+        }
+        return refined ? new RefinementReport(improvedRoutes, originalDistance, savedDistance) : null;
+    }
+
+    private static SelectionReport mergeSelection(List<RouteResponse> parts) {
+        List<SelectionReport> reports = parts.stream()
+                .map(RouteResponse::selection)
+                .filter(report -> report != null)
+                .toList();
+        if (reports.isEmpty()) {
+            return null;
+        }
+        return new SelectionReport(
+                union(reports, SelectionReport::completedProviders),
+                union(reports, SelectionReport::failedProviders),
+                union(reports, SelectionReport::cutOffProviders),
+                union(reports, SelectionReport::skippedProviders),
+                reports.get(0).latencyBudgetMillis()
+        );
+    }
+
+    private static List<String> union(List<SelectionReport> reports, Function<SelectionReport, List<String>> field) {
+        Set<String> names = new LinkedHashSet<>();
+        reports.forEach(report -> names.addAll(field.apply(report)));
+        return List.copyOf(names);
+    }
+}
@@ -0,0 +1,80 @@
+package com.geolocationpoc.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geolocationpoc.dto.BatchItem;
+import com.geolocationpoc.dto.BatchResult;
+import com.geolocationpoc.service.execution.CallPriority;
+import com.geolocationpoc.service.execution.ProviderSchedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+@Service
+public class BatchRouteService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchRouteService.class);
+
+    private final PartitionedRouteService routeService;
+    private final ObjectMapper mapper;
+    private final int concurrency;
+
+    public BatchRouteService(PartitionedRouteService routeService, ObjectMapper mapper,
+                             @Value("${batch.concurrency:32}") int concurrency) {
+        this.routeService = routeService;
+        this.mapper = mapper;
+        this.concurrency = concurrency;
+    }
+
+    // Items are read from the body only as fast as the concurrency limit frees slots, so a large
+    // batch is never buffered whole. Accepts newline-delimited items or a single JSON array.
+    // Results are emitted in completion order; the correlation id ties them back to the input.
+    public Flux<BatchResult> optimize(InputStream body) {
+        return Flux.using(
+                        () -> mapper.readerFor(BatchItem.class).<BatchItem>readValues(body),
+                        items -> Flux.<BatchItem>generate(sink -> {
+                            try {
+                                if (items.hasNextValue()) {
+                                    sink.next(items.nextValue());
+                                } else {
+                                    sink.complete();
+                                }
+                            } catch (IOException e) {
+                                sink.error(new UncheckedIOException("Malformed batch body", e));
+                            }
+                        }),
+                        this::closeQuietly)
+                .subscribeOn(ProviderSchedulers.virtualThreads())
+                // A malformed body ends the batch, but items already in flight still report
+                .flatMapDelayError(this::optimizeItem, concurrency, 1)
+                .onErrorResume(e -> Flux.just(BatchResult.failure(null, e.getMessage())));
+    }
+
+    private Mono<BatchResult> optimizeItem(BatchItem item) {
+        if (item.request() == null) {
+            return Mono.just(BatchResult.failure(item.correlationId(), "Missing request"));
+        }
+        return Mono.defer(() -> routeService.optimizeBestRouteAsync(item.request()))
+                .contextWrite(CallPriority.BATCH.asContext())
+                .map(response -> BatchResult.success(item.correlationId(), response))
+                .onErrorResume(e -> {
+                    log.warn("Batch item {} failed: {}", item.correlationId(), e.getMessage());
+                    return Mono.just(BatchResult.failure(item.correlationId(), e.getMessage()));
+                });
+    }
+
+    private void closeQuietly(MappingIterator<BatchItem> items) {
+        try {
+            items.close();
+        } catch (IOException e) {
+            log.debug("Failed to close batch body: {}", e.getMessage());
+        }
+    }
+}
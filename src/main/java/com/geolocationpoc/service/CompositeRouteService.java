@@ -1,57 +1,327 @@
 package com.geolocationpoc.service;
 
+import com.geolocationpoc.cache.InFlightCoalescer;
+import com.geolocationpoc.cache.RouteResultCache;
 import com.geolocationpoc.dto.RouteRequest;
 import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.SelectionReport;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.matrix.TravelCostLearner;
+import com.geolocationpoc.service.execution.BulkheadRegistry;
+import com.geolocationpoc.service.execution.ProviderBulkhead;
+import com.geolocationpoc.service.routing.CircuitOpenException;
+import com.geolocationpoc.service.routing.ProviderRouter;
+import com.geolocationpoc.service.routing.ProviderSnapshot;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 @Service
 public class CompositeRouteService {
 
+    private static final Logger log = LoggerFactory.getLogger(CompositeRouteService.class);
+    private static final String BEST_ROUTE_SCOPE = "best";
+
     private final List<RouteService> providers;
-    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final RouteResultCache cache;
+    private final InFlightCoalescer coalescer;
+    private final BulkheadRegistry bulkheads;
+    private final ProviderRouter router;
+    private final ProviderTelemetry telemetry;
+    private final TravelCostLearner travelCosts;
+    private final RouteRefiner refiner;
+    private final Duration providerDeadline;
+    private final Duration defaultHedgeDelay;
 
-    public CompositeRouteService(List<RouteService> providers) {
+    public CompositeRouteService(List<RouteService> providers, RouteResultCache cache, InFlightCoalescer coalescer,
+                                 BulkheadRegistry bulkheads, ProviderRouter router, ProviderTelemetry telemetry,
+                                 TravelCostLearner travelCosts, RouteRefiner refiner,
+                                 @Value("${provider.deadline:25s}") Duration providerDeadline,
+                                 @Value("${provider.hedge.defaultDelay:2s}") Duration defaultHedgeDelay) {
         this.providers = providers;
+        this.cache = cache;
+        this.coalescer = coalescer;
+        this.bulkheads = bulkheads;
+        this.router = router;
+        this.telemetry = telemetry;
+        this.travelCosts = travelCosts;
+        this.refiner = refiner;
+        this.providerDeadline = providerDeadline;
+        this.defaultHedgeDelay = defaultHedgeDelay;
     }
 
     public RouteResponse optimizeBestRoute(RouteRequest request) {
-        List<CompletableFuture<RouteResponse>> futures = providers.stream()
-                .map(provider -> CompletableFuture.supplyAsync(() -> {
-                    try {
-                        long startTime = System.currentTimeMillis();
-                        RouteResponse response = provider.optimizeRoute(request);
-                        long endTime = System.currentTimeMillis();
-
-                        System.out.printf("Provider %s took %dms%n",
-                                provider.providerName(), (endTime - startTime));
-
-                        return response;
-                    } catch (Exception e) {
-                        System.err.println("Provider " + provider.providerName() + " failed: " + e.getMessage());
-                        return null;
-                    }
-                }, executor))
-                .toList();
-
-        return futures.stream()
-                .map(CompletableFuture::join)
-                .filter(Objects::nonNull)
-                .min(Comparator.comparingDouble(RouteResponse::totalDistanceMeters))
-                .orElseThrow(() -> new RuntimeException("No optimized routes available"));
+        return optimizeBestRouteAsync(request).block();
     }
 
     public RouteResponse optimizeWithProvider(String providerName, RouteRequest request) {
+        return optimizeWithProviderAsync(providerName, request).block();
+    }
+
+    public Mono<RouteResponse> optimizeBestRouteAsync(RouteRequest request) {
+        return optimizeBestRouteAsync(request, null, false);
+    }
+
+    // With a budget, whatever finished by then competes and the rest is cancelled. Hedging starts
+    // only the historically fastest provider and fires the others once it runs past its p95.
+    public Mono<RouteResponse> optimizeBestRouteAsync(RouteRequest request, Duration latencyBudget, boolean hedge) {
+        return optimizeBestRouteAsync(request, latencyBudget, hedge, response -> {});
+    }
+
+    // The listener sees each provider's answer as it lands, before the race is decided. Budget and
+    // hedging decide which providers get to answer, so answers are cached per request, budget and
+    // hedging, and cache misses for the same three share one race.
+    public Mono<RouteResponse> optimizeBestRouteAsync(RouteRequest request, Duration latencyBudget, boolean hedge,
+                                                      Consumer<RouteResponse> onProviderResult) {
+        String raceScope = BEST_ROUTE_SCOPE + ":" + (latencyBudget != null ? latencyBudget.toMillis() : "none")
+                + (hedge ? ":hedged" : "");
+        return cache.get(raceScope, request,
+                () -> coalescer.coalesce(raceScope, request,
+                        listener -> race(request, latencyBudget, hedge, listener), onProviderResult),
+                response -> response.selection().cutOffProviders().isEmpty());
+    }
+
+    // The cache holds answers as the provider sent them, like the ones a race leaves behind, so
+    // refinement happens on the way out
+    public Mono<RouteResponse> optimizeWithProviderAsync(String providerName, RouteRequest request) {
+        RouteService service = findProvider(providerName);
+        return cache.get(service.providerName(), request,
+                        () -> coalescer.coalesce(service.providerName(), request,
+                                listener -> execute(service, request), response -> {}))
+                .flatMap(response -> refined(service, request, response));
+    }
+
+    public RouteResultCache.CacheStatistics cacheStatistics() {
+        return cache.statistics();
+    }
+
+    public InFlightCoalescer.CoalescingStatistics coalescingStatistics() {
+        return coalescer.statistics();
+    }
+
+    public List<ProviderBulkhead.BulkheadStatistics> bulkheadStatistics() {
+        return bulkheads.statistics();
+    }
+
+    public List<ProviderSnapshot> providerStatistics() {
+        return router.snapshots();
+    }
+
+    private RouteService findProvider(String providerName) {
         return providers.stream()
                 .filter(provider -> provider.providerName().equalsIgnoreCase(providerName))
                 .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Provider not found: " + providerName))
-                .optimizeRoute(request);
+                .orElseThrow(() -> new IllegalArgumentException("Provider not found: " + providerName));
+    }
+
+    private Mono<RouteResponse> race(RouteRequest request, Duration latencyBudget, boolean hedge,
+                                     Consumer<RouteResponse> onProviderResult) {
+        return Mono.defer(() -> {
+            Map<String, Outcome> outcomes = new ConcurrentHashMap<>();
+            List<RouteService> selected = router.route(providers).selected();
+            List<RouteService> measuring = selected.stream().filter(RouteService::measuresTravelCosts).toList();
+
+            List<Mono<Candidate>> calls = new ArrayList<>(hedge && measuring.size() > 1
+                    ? hedgedCalls(measuring, request, outcomes, onProviderResult)
+                    : measuring.stream()
+                            .map(provider -> trackedCall(provider, request, outcomes, onProviderResult))
+                            .toList());
+            selected.stream()
+                    .filter(provider -> !provider.measuresTravelCosts())
+                    .forEach(provider -> calls.add(trackedCall(provider, request, outcomes, onProviderResult)));
+
+            Flux<Candidate> results = Flux.merge(calls);
+            if (latencyBudget != null) {
+                results = results.take(latencyBudget);
+            }
+
+            return results.collectList().flatMap(candidates -> {
+                SelectionReport report = report(outcomes, latencyBudget);
+                List<Candidate> measured = candidates.stream().filter(Candidate::measured).toList();
+                Optional<Candidate> best = shortest(measured);
+                if (best.isPresent()) {
+                    String winner = best.get().response().provider();
+                    router.recordContest(winner, measured.stream().map(c -> c.response().provider()).toList());
+                    telemetry.recordWin(winner);
+                } else {
+                    // Estimated distances are not comparable with measured ones, so they only stand in
+                    // when no provider that measures answered in time
+                    best = shortest(candidates);
+                }
+                // Selection compared the totals as the providers reported them; only the answer handed
+                // out gets refined
+                return best.map(candidate -> refined(candidate.provider(), request, candidate.response())
+                                .map(response -> response.withSelection(report)))
+                        .orElseGet(() -> Mono.error(new RuntimeException("No optimized routes available")));
+            });
+        });
+    }
+
+    private static Optional<Candidate> shortest(List<Candidate> candidates) {
+        return candidates.stream().min(Comparator.comparingDouble(c -> c.response().totalDistanceMeters()));
+    }
+
+    private Mono<RouteResponse> refined(RouteService provider, RouteRequest request, RouteResponse response) {
+        return provider.benefitsFromRefinement() ? refiner.refine(request, response) : Mono.just(response);
+    }
+
+    private List<Mono<Candidate>> hedgedCalls(List<RouteService> selected, RouteRequest request,
+                                                  Map<String, Outcome> outcomes,
+                                                  Consumer<RouteResponse> onProviderResult) {
+        List<RouteService> ordered = new ArrayList<>(selected);
+        ordered.sort(Comparator.comparingLong(this::expectedLatency));
+        RouteService primary = ordered.get(0);
+        Duration hedgeDelay = hedgeDelay(primary);
+
+        Sinks.One<Boolean> primarySucceeded = Sinks.one();
+        List<Mono<Candidate>> calls = new ArrayList<>();
+        calls.add(trackedCall(primary, request, outcomes, onProviderResult)
+                .doOnSuccess(candidate -> primarySucceeded.tryEmitValue(candidate != null)));
+
+        for (RouteService backup : ordered.subList(1, ordered.size())) {
+            outcomes.put(backup.providerName(), Outcome.SKIPPED);
+            calls.add(primarySucceeded.asMono()
+                    .timeout(hedgeDelay, Mono.just(false))
+                    .filter(succeeded -> !succeeded)
+                    .flatMap(fire -> trackedCall(backup, request, outcomes, onProviderResult)));
+        }
+        return calls;
+    }
+
+    private Mono<Candidate> trackedCall(RouteService provider, RouteRequest request, Map<String, Outcome> outcomes,
+                                        Consumer<RouteResponse> onProviderResult) {
+        String name = provider.providerName();
+        return Mono.defer(() -> {
+                    outcomes.put(name, Outcome.RUNNING);
+                    return execute(provider, request)
+                            .flatMap(response -> {
+                                // Fewer stops always means less distance, so a partial answer never competes
+                                int missing = missingStops(request, response);
+                                return missing == 0 ? Mono.just(response) : Mono.error(new IllegalStateException(
+                                        "Answer leaves " + missing + " stops unassigned"));
+                            })
+                            .doOnNext(response -> {
+                                outcomes.put(name, Outcome.COMPLETED);
+                                cache.put(name, request, response);
+                                onProviderResult.accept(response);
+                            })
+                            .map(response -> new Candidate(provider, response))
+                            .doOnCancel(() -> outcomes.replace(name, Outcome.RUNNING, Outcome.CUT_OFF));
+                })
+                .onErrorResume(e -> {
+                    if (e instanceof CircuitOpenException) {
+                        outcomes.put(name, Outcome.SKIPPED);
+                    } else {
+                        log.warn("Provider {} failed: {}", name, e.getMessage());
+                        outcomes.put(name, Outcome.FAILED);
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    // The deadline covers time queued in the bulkhead; expiry cancels the in-flight HTTP exchange
+    // and, once the call holds a slot, lowers the provider's concurrency limit like any overload.
+    // Local bulkhead rejections say nothing about the provider's health, so they skip the breaker.
+    private Mono<RouteResponse> execute(RouteService provider, RouteRequest request) {
+        String name = provider.providerName();
+        return Mono.defer(() -> {
+            if (!router.tryAcquire(name)) {
+                CircuitOpenException rejection = new CircuitOpenException(name);
+                telemetry.recordError(name, rejection);
+                return Mono.error(rejection);
+            }
+
+            long startTime = System.currentTimeMillis();
+            return bulkheads.forProvider(name)
+                    .execute(() -> provider.optimizeRouteAsync(request), providerDeadline)
+                    .doOnNext(response -> {
+                        long elapsed = System.currentTimeMillis() - startTime;
+                        log.debug("Provider {} took {}ms", name, elapsed);
+                        router.recordSuccess(name, elapsed);
+                        telemetry.recordCall(name, elapsed, null);
+                        if (provider.measuresTravelCosts()) {
+                            travelCosts.learn(request, response);
+                        }
+                    })
+                    .doOnError(e -> {
+                        telemetry.recordCall(name, System.currentTimeMillis() - startTime, e);
+                        if (e instanceof RejectedExecutionException) {
+                            router.recordIgnored(name);
+                        } else {
+                            router.recordFailure(name);
+                        }
+                    })
+                    .doOnCancel(() -> router.recordCutOff(name, System.currentTimeMillis() - startTime));
+        });
+    }
+
+    private static int missingStops(RouteRequest request, RouteResponse response) {
+        Set<String> served = new HashSet<>();
+        if (response.stops() != null) {
+            response.stops().forEach(stop -> served.add(stop.serviceId()));
+        }
+        int missing = 0;
+        for (ServicePoint service : request.services()) {
+            if (!served.contains(service.id())) missing++;
+        }
+        return missing;
+    }
+
+    private SelectionReport report(Map<String, Outcome> outcomes, Duration latencyBudget) {
+        Map<Outcome, List<String>> byOutcome = new LinkedHashMap<>();
+        for (Outcome outcome : Outcome.values()) {
+            byOutcome.put(outcome, new ArrayList<>());
+        }
+        for (RouteService provider : providers) {
+            Outcome outcome = outcomes.getOrDefault(provider.providerName(), Outcome.SKIPPED);
+            // Still running when the merged stream finished means the budget cut it off
+            byOutcome.get(outcome == Outcome.RUNNING ? Outcome.CUT_OFF : outcome).add(provider.providerName());
+        }
+        return new SelectionReport(
+                byOutcome.get(Outcome.COMPLETED),
+                byOutcome.get(Outcome.FAILED),
+                byOutcome.get(Outcome.CUT_OFF),
+                byOutcome.get(Outcome.SKIPPED),
+                latencyBudget != null ? latencyBudget.toMillis() : null
+        );
+    }
+
+    private long expectedLatency(RouteService provider) {
+        long p95 = router.latencyPercentile(provider.providerName(), 0.95);
+        return p95 >= 0 ? p95 : Long.MAX_VALUE;
+    }
+
+    private Duration hedgeDelay(RouteService provider) {
+        long p95 = router.latencyPercentile(provider.providerName(), 0.95);
+        return p95 >= 0 ? Duration.ofMillis(p95) : defaultHedgeDelay;
+    }
+
+    private record Candidate(RouteService provider, RouteResponse response) {
+
+        boolean measured() {
+            return provider.measuresTravelCosts();
+        }
+    }
+
+    private enum Outcome {
+        RUNNING, COMPLETED, FAILED, CUT_OFF, SKIPPED
     }
 }
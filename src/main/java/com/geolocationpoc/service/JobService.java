@@ -0,0 +1,239 @@
+package com.geolocationpoc.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geolocationpoc.dto.JobEvent;
+import com.geolocationpoc.dto.JobView;
+import com.geolocationpoc.dto.ProviderResult;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.job.JobStatus;
+import com.geolocationpoc.job.OptimizationJob;
+import com.geolocationpoc.job.OptimizationJobRepository;
+import com.geolocationpoc.service.execution.CallPriority;
+import com.geolocationpoc.service.execution.ProviderSchedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+    private static final TypeReference<List<ProviderResult>> PARTIAL_RESULTS = new TypeReference<>() {};
+
+    private final PartitionedRouteService routeService;
+    private final OptimizationJobRepository repository;
+    private final ObjectMapper mapper;
+    private final Duration retention;
+    private final Map<String, RunningJob> running = new ConcurrentHashMap<>();
+
+    public JobService(PartitionedRouteService routeService, OptimizationJobRepository repository, ObjectMapper mapper,
+                      @Value("${jobs.retention:7d}") Duration retention) {
+        this.routeService = routeService;
+        this.repository = repository;
+        this.mapper = mapper;
+        this.retention = retention;
+    }
+
+    public JobView submit(RouteRequest request, Duration latencyBudget, boolean hedge) {
+        OptimizationJob job = new OptimizationJob(UUID.randomUUID().toString(), write(request),
+                latencyBudget != null ? latencyBudget.toMillis() : null, hedge, Instant.now());
+        repository.save(job);
+        start(job);
+        return view(job);
+    }
+
+    public Optional<JobView> find(String id) {
+        return repository.findById(id).map(this::view);
+    }
+
+    public Optional<CompletedJob> completed(String id) {
+        return repository.findById(id)
+                .filter(job -> job.getStatus() == JobStatus.COMPLETED)
+                .map(job -> new CompletedJob(read(job.getRequestJson(), RouteRequest.class),
+                        read(job.getResultJson(), RouteResponse.class)));
+    }
+
+    // Live jobs replay every event so far and then follow along; finished jobs yield their final event
+    public Optional<Flux<JobEvent>> events(String id) {
+        RunningJob live = running.get(id);
+        if (live != null) {
+            return Optional.of(live.events.asFlux());
+        }
+        return repository.findById(id).map(job -> Flux.just(switch (job.getStatus()) {
+            case COMPLETED -> JobEvent.completed(id, read(job.getResultJson(), RouteResponse.class));
+            case FAILED -> JobEvent.failed(id, job.getError());
+            default -> JobEvent.status(id, job.getStatus().name());
+        }));
+    }
+
+    // Jobs cut short by a restart are run again from their stored request
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        List<OptimizationJob> unfinished = repository.findByStatusIn(List.of(JobStatus.PENDING, JobStatus.RUNNING));
+        if (!unfinished.isEmpty()) {
+            log.info("Resuming {} unfinished optimization jobs", unfinished.size());
+        }
+        unfinished.forEach(this::start);
+    }
+
+    // Finished jobs are kept for the retention period after their last update; a zero retention keeps them forever
+    @Scheduled(fixedDelayString = "${jobs.purgeInterval:1h}", initialDelayString = "${jobs.purgeInterval:1h}")
+    public void purgeFinished() {
+        if (retention.isZero() || retention.isNegative()) {
+            return;
+        }
+        int purged = repository.deleteByStatusInAndUpdatedAtBefore(List.of(JobStatus.COMPLETED, JobStatus.FAILED),
+                Instant.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} optimization jobs finished more than {} ago", purged, retention);
+        }
+    }
+
+    private void start(OptimizationJob job) {
+        RunningJob live = new RunningJob(job.getId());
+        if (running.putIfAbsent(job.getId(), live) != null) {
+            return;
+        }
+        live.emit(JobEvent.status(job.getId(), JobStatus.PENDING.name()));
+        ProviderSchedulers.virtualThreads().schedule(() -> run(job, live));
+    }
+
+    private void run(OptimizationJob job, RunningJob live) {
+        String id = job.getId();
+        try {
+            update(live, entity -> {
+                entity.setStatus(JobStatus.RUNNING);
+                entity.setPartialResultsJson(null);
+            });
+            live.emit(JobEvent.status(id, JobStatus.RUNNING.name()));
+
+            RouteRequest request = read(job.getRequestJson(), RouteRequest.class);
+            Duration latencyBudget = job.getLatencyBudgetMillis() != null
+                    ? Duration.ofMillis(job.getLatencyBudgetMillis()) : null;
+            RouteResponse result = routeService
+                    .optimizeBestRouteAsync(request, latencyBudget, job.isHedge(),
+                            response -> onPartial(live, response))
+                    .contextWrite(CallPriority.BATCH.asContext())
+                    .block();
+
+            update(live, entity -> {
+                entity.setStatus(JobStatus.COMPLETED);
+                entity.setResultJson(write(result));
+                entity.setPartialResultsJson(write(live.partials));
+            });
+            live.emit(JobEvent.completed(id, result));
+        } catch (RuntimeException e) {
+            log.warn("Optimization job {} failed: {}", id, e.getMessage());
+            update(live, entity -> {
+                entity.setStatus(JobStatus.FAILED);
+                entity.setError(truncate(e.getMessage()));
+            });
+            live.emit(JobEvent.failed(id, e.getMessage()));
+        } finally {
+            // Late subscribers read the stored outcome, so the live stream must be gone before it ends
+            running.remove(id, live);
+            live.complete();
+        }
+    }
+
+    // Called on the provider's completion thread, so the database write is handed to a virtual thread
+    private void onPartial(RunningJob live, RouteResponse response) {
+        ProviderResult result = new ProviderResult(response.provider(), response.totalDistanceMeters(),
+                response.totalDurationSeconds(), Instant.now().toString());
+        live.partials.add(result);
+        live.emit(JobEvent.partial(live.id, result));
+        ProviderSchedulers.virtualThreads().schedule(() ->
+                update(live, entity -> entity.setPartialResultsJson(write(live.partials))));
+    }
+
+    private void update(RunningJob live, Consumer<OptimizationJob> change) {
+        synchronized (live.persistLock) {
+            repository.findById(live.id).ifPresent(entity -> {
+                change.accept(entity);
+                entity.setUpdatedAt(Instant.now());
+                repository.save(entity);
+            });
+        }
+    }
+
+    private JobView view(OptimizationJob job) {
+        return new JobView(
+                job.getId(),
+                job.getStatus().name(),
+                job.getCreatedAt().toString(),
+                job.getUpdatedAt().toString(),
+                job.getPartialResultsJson() != null ? read(job.getPartialResultsJson(), PARTIAL_RESULTS) : List.of(),
+                job.getResultJson() != null ? read(job.getResultJson(), RouteResponse.class) : null,
+                job.getError()
+        );
+    }
+
+    private String write(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize job data", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return mapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read job data", e);
+        }
+    }
+
+    private <T> T read(String json, TypeReference<T> type) {
+        try {
+            return mapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read job data", e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 2000 ? message.substring(0, 2000) : message;
+    }
+
+    public record CompletedJob(RouteRequest request, RouteResponse result) {}
+
+    private static final class RunningJob {
+
+        final String id;
+        final List<ProviderResult> partials = new CopyOnWriteArrayList<>();
+        final Sinks.Many<JobEvent> events = Sinks.many().replay().all();
+        final Object persistLock = new Object();
+
+        RunningJob(String id) {
+            this.id = id;
+        }
+
+        synchronized void emit(JobEvent event) {
+            events.tryEmitNext(event);
+        }
+
+        synchronized void complete() {
+            events.tryEmitComplete();
+        }
+    }
+}
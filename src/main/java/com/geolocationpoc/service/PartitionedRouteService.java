@@ -0,0 +1,87 @@
+package com.geolocationpoc.service;
+
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.partition.GeoPartitioner;
+import com.geolocationpoc.partition.RouteStitcher;
+import com.geolocationpoc.spatial.StopConsolidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+@Service
+public class PartitionedRouteService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedRouteService.class);
+
+    private final CompositeRouteService compositeService;
+    private final GeoPartitioner partitioner;
+    private final StopConsolidator consolidator;
+    private final int partitionThreshold;
+    private final int concurrency;
+
+    public PartitionedRouteService(CompositeRouteService compositeService, GeoPartitioner partitioner,
+                                   StopConsolidator consolidator,
+                                   @Value("${partition.threshold:500}") int partitionThreshold,
+                                   @Value("${partition.concurrency:16}") int concurrency) {
+        this.compositeService = compositeService;
+        this.partitioner = partitioner;
+        this.consolidator = consolidator;
+        this.partitionThreshold = partitionThreshold;
+        this.concurrency = concurrency;
+    }
+
+    public Mono<RouteResponse> optimizeBestRouteAsync(RouteRequest request) {
+        return optimizeBestRouteAsync(request, null, false);
+    }
+
+    // Each cluster races the providers on its own, so wall-clock time tracks the slowest cluster.
+    // A cluster that fails fails the whole job: dropping its services would return an incomplete plan.
+    public Mono<RouteResponse> optimizeBestRouteAsync(RouteRequest request, Duration latencyBudget, boolean hedge) {
+        return optimizeBestRouteAsync(request, latencyBudget, hedge, response -> {});
+    }
+
+    // Co-located stops are merged before partitioning and split apart again in every response,
+    // partial ones included, so callers only ever see the stops they sent
+    public Mono<RouteResponse> optimizeBestRouteAsync(RouteRequest request, Duration latencyBudget, boolean hedge,
+                                                      Consumer<RouteResponse> onProviderResult) {
+        return Mono.fromCallable(() -> consolidator.consolidate(request))
+                .flatMap(consolidation -> {
+                    if (consolidation.mergedStops() > 0) {
+                        log.debug("Merged {} co-located stops out of {}", consolidation.mergedStops(),
+                                request.services().size());
+                    }
+                    return dispatch(consolidation.request(), latencyBudget, hedge,
+                            response -> onProviderResult.accept(consolidation.expand(response)))
+                            .map(consolidation::expand);
+                });
+    }
+
+    private Mono<RouteResponse> dispatch(RouteRequest request, Duration latencyBudget, boolean hedge,
+                                         Consumer<RouteResponse> onProviderResult) {
+        if (request.services().size() <= partitionThreshold) {
+            return compositeService.optimizeBestRouteAsync(request, latencyBudget, hedge, onProviderResult);
+        }
+
+        return Mono.fromCallable(() -> partitioner.partition(request))
+                .flatMap(parts -> {
+                    if (parts.size() == 1) {
+                        return compositeService.optimizeBestRouteAsync(parts.get(0), latencyBudget, hedge,
+                                onProviderResult);
+                    }
+                    log.debug("Split {} services into {} partitions", request.services().size(), parts.size());
+                    return Flux.fromIterable(parts)
+                            .flatMapSequential(part ->
+                                    compositeService.optimizeBestRouteAsync(part, latencyBudget, hedge,
+                                            onProviderResult), concurrency)
+                            .collectList()
+                            .map(RouteStitcher::merge);
+                });
+    }
+}
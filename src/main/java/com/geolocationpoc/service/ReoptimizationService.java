@@ -0,0 +1,82 @@
+package com.geolocationpoc.service;
+
+import com.geolocationpoc.dto.ReoptimizeResponse;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.solver.LocalRouteSolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class ReoptimizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReoptimizationService.class);
+
+    private final LocalRouteSolver solver;
+    private final PartitionedRouteService routeService;
+    private final long timeLimitMillis;
+    private final double maxCostRatio;
+
+    public ReoptimizationService(LocalRouteSolver solver, PartitionedRouteService routeService,
+                                 @Value("${reoptimize.timeLimitMillis:20}") long timeLimitMillis,
+                                 @Value("${reoptimize.maxCostRatio:1.15}") double maxCostRatio) {
+        this.solver = solver;
+        this.routeService = routeService;
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxCostRatio = maxCostRatio;
+    }
+
+    // Patches the plan locally and only goes back to the providers when the patch leaves stops
+    // unassigned, kept nothing of the old plan, or serves its stops at too high a cost per stop
+    // compared with the old plan
+    public Mono<ReoptimizeResponse> reoptimize(RouteRequest base, RouteResponse plan,
+                                               List<ServicePoint> added, List<String> removed) {
+        RouteRequest updated = applyDelta(base, added, removed);
+
+        // CPU-bound, so it runs on the parallel scheduler rather than the elastic I/O pool
+        return Mono.fromCallable(() -> solver.repair(CompactRouteRequest.of(updated), plan, timeLimitMillis))
+                .subscribeOn(Schedulers.parallel())
+                .flatMap(repair -> {
+                    if (repair.unassignedStops() == 0 && repair.keptStops() > 0
+                            && repair.costRatio() <= maxCostRatio) {
+                        return Mono.just(new ReoptimizeResponse(updated, repair.response(), "repair",
+                                repair.costRatio()));
+                    }
+                    log.info("Repair rejected (kept {}, unassigned {}, cost ratio {}), solving {} services again",
+                            repair.keptStops(), repair.unassignedStops(), String.format("%.3f", repair.costRatio()),
+                            updated.services().size());
+                    return routeService.optimizeBestRouteAsync(updated)
+                            .map(response -> new ReoptimizeResponse(updated, response, "full", repair.costRatio()));
+                });
+    }
+
+    // Removals apply first; an added service with an existing id replaces the old one
+    private static RouteRequest applyDelta(RouteRequest base, List<ServicePoint> added, List<String> removed) {
+        Set<String> removedIds = removed != null ? new HashSet<>(removed) : Set.of();
+        List<ServicePoint> additions = added != null ? added : List.of();
+        Set<String> addedIds = new HashSet<>();
+        additions.forEach(service -> addedIds.add(service.id()));
+
+        List<ServicePoint> services = new ArrayList<>(base.services().size() + additions.size());
+        for (ServicePoint service : base.services()) {
+            if (!removedIds.contains(service.id()) && !addedIds.contains(service.id())) {
+                services.add(service);
+            }
+        }
+        services.addAll(additions);
+
+        return new RouteRequest(base.vehicles(), services, base.globalStartTime(), base.globalEndTime(),
+                base.optimizerOrder());
+    }
+}
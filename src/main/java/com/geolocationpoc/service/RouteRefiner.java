@@ -0,0 +1,50 @@
+package com.geolocationpoc.service;
+
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.solver.LocalRouteSolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ForkJoinPool;
+
+// Optional stage for the answer that is handed out: every route is re-sequenced locally, so a cheaper
+// provider mode often comes out level with an expensive one. A failed refinement is never worse than
+// none, so it falls back to the answer as received.
+@Service
+public class RouteRefiner {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteRefiner.class);
+
+    private final LocalRouteSolver solver;
+    private final boolean enabled;
+    private final long timeLimitMillis;
+
+    public RouteRefiner(LocalRouteSolver solver,
+                        @Value("${refine.enabled:true}") boolean enabled,
+                        @Value("${refine.timeLimitMillis:20}") long timeLimitMillis) {
+        this.solver = solver;
+        this.enabled = enabled;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    public Mono<RouteResponse> refine(RouteRequest request, RouteResponse response) {
+        if (!enabled) {
+            return Mono.just(response);
+        }
+        // CPU-bound, so it runs on the parallel scheduler rather than the elastic I/O pool
+        return Mono.fromCallable(() -> solver.refine(CompactRouteRequest.of(request), response, timeLimitMillis,
+                        ForkJoinPool.commonPool()))
+                .subscribeOn(Schedulers.parallel())
+                .onErrorResume(e -> {
+                    log.warn("Refining the {} answer failed, keeping it as is: {}",
+                            response.provider(), e.getMessage());
+                    return Mono.just(response);
+                });
+    }
+}
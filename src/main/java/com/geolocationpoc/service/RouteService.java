@@ -2,8 +2,24 @@ package com.geolocationpoc.service;
 
 import com.geolocationpoc.dto.RouteRequest;
 import com.geolocationpoc.dto.RouteResponse;
+import reactor.core.publisher.Mono;
 
 public interface RouteService {
     RouteResponse optimizeRoute(RouteRequest request);
     String providerName();
+
+    // Must not block the subscribing thread: HTTP providers stay on the WebClient event loop and
+    // CPU-bound work moves to the parallel scheduler
+    Mono<RouteResponse> optimizeRouteAsync(RouteRequest request);
+
+    // Whether the travel costs in this provider's answers come from a road network rather than
+    // from our own estimates. Only measured answers are compared on distance and remembered.
+    default boolean measuresTravelCosts() {
+        return true;
+    }
+
+    // Whether re-sequencing this provider's routes locally can still shorten them
+    default boolean benefitsFromRefinement() {
+        return true;
+    }
 }
@@ -0,0 +1,61 @@
+package com.geolocationpoc.service.execution;
+
+// Additive increase, multiplicative decrease. Each success within the latency tolerance adds
+// 1/limit, so the limit grows by about one per round of calls. An overload signal (429, 5xx,
+// timeout or a call slower than tolerance times the baseline) cuts it by the backoff ratio, at
+// most once per baseline round trip so one burst of failures counts once. The baseline is the
+// fastest recent call, drifting up slowly so a provider that got slower for good is not
+// punished forever.
+final class AimdLimit {
+
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private double limit;
+    private double baselineNanos = -1;
+    private long lastDecrease;
+    private long decreases;
+
+    AimdLimit(int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        this.minLimit = Math.max(1, Math.min(minLimit, maxLimit));
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = maxLimit;
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized long decreases() {
+        return decreases;
+    }
+
+    synchronized void onSuccess(long elapsedNanos) {
+        boolean slow = latencyTolerance > 0 && baselineNanos > 0 && elapsedNanos > baselineNanos * latencyTolerance;
+        baselineNanos = baselineNanos < 0 || elapsedNanos < baselineNanos
+                ? elapsedNanos
+                : baselineNanos + (elapsedNanos - baselineNanos) * BASELINE_DRIFT;
+        if (slow) {
+            decrease();
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    synchronized void onOverload() {
+        decrease();
+    }
+
+    private void decrease() {
+        long now = System.nanoTime();
+        if (decreases > 0 && baselineNanos > 0 && now - lastDecrease < baselineNanos) return;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        lastDecrease = now;
+        decreases++;
+    }
+}
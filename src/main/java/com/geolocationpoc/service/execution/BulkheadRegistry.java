@@ -0,0 +1,83 @@
+package com.geolocationpoc.service.execution;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.PropertyResolver;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class BulkheadRegistry {
+
+    private final Map<String, ProviderBulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final PropertyResolver properties;
+    private final MeterRegistry meters;
+    private final int defaultMaxConcurrent;
+    private final int defaultMaxQueue;
+    private final LimiterSettings defaultLimiter;
+
+    public BulkheadRegistry(PropertyResolver properties, MeterRegistry meters,
+                            int defaultMaxConcurrent, int defaultMaxQueue) {
+        this(properties, meters, defaultMaxConcurrent, defaultMaxQueue, LimiterSettings.unlimited());
+    }
+
+    public BulkheadRegistry(PropertyResolver properties, MeterRegistry meters,
+                            int defaultMaxConcurrent, int defaultMaxQueue, LimiterSettings defaultLimiter) {
+        this.properties = properties;
+        this.meters = meters;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.defaultMaxQueue = defaultMaxQueue;
+        this.defaultLimiter = defaultLimiter;
+    }
+
+    public ProviderBulkhead forProvider(String providerName) {
+        return bulkheads.computeIfAbsent(providerName.toLowerCase(Locale.ROOT), key -> register(
+                new ProviderBulkhead(
+                        providerName,
+                        properties.getProperty("provider." + key + ".bulkhead.maxConcurrent", Integer.class,
+                                defaultMaxConcurrent),
+                        properties.getProperty("provider." + key + ".bulkhead.maxQueue", Integer.class,
+                                defaultMaxQueue),
+                        limiterSettings(key))));
+    }
+
+    private LimiterSettings limiterSettings(String key) {
+        String prefix = "provider." + key + ".limiter.";
+        return new LimiterSettings(
+                properties.getProperty(prefix + "minConcurrent", Integer.class, defaultLimiter.minConcurrent()),
+                properties.getProperty(prefix + "ratePerSecond", Double.class, defaultLimiter.ratePerSecond()),
+                properties.getProperty(prefix + "burst", Integer.class, defaultLimiter.burst()),
+                properties.getProperty(prefix + "backoffRatio", Double.class, defaultLimiter.backoffRatio()),
+                properties.getProperty(prefix + "latencyTolerance", Double.class, defaultLimiter.latencyTolerance()));
+    }
+
+    private ProviderBulkhead register(ProviderBulkhead bulkhead) {
+        String provider = bulkhead.statistics().provider();
+        Gauge.builder("route.bulkhead.queued", bulkhead, b -> b.statistics().queued())
+                .tag("provider", provider)
+                .register(meters);
+        Gauge.builder("route.bulkhead.inflight", bulkhead, b -> b.statistics().inFlight())
+                .tag("provider", provider)
+                .register(meters);
+        Gauge.builder("route.bulkhead.rejected", bulkhead, b -> b.statistics().rejected())
+                .tag("provider", provider)
+                .register(meters);
+        Gauge.builder("route.bulkhead.limit", bulkhead, b -> b.statistics().concurrencyLimit())
+                .tag("provider", provider)
+                .register(meters);
+        Gauge.builder("route.bulkhead.throttled", bulkhead, b -> b.statistics().throttled())
+                .tag("provider", provider)
+                .register(meters);
+        return bulkhead;
+    }
+
+    public List<ProviderBulkhead.BulkheadStatistics> statistics() {
+        return bulkheads.values().stream()
+                .map(ProviderBulkhead::statistics)
+                .sorted(Comparator.comparing(ProviderBulkhead.BulkheadStatistics::provider))
+                .toList();
+    }
+}
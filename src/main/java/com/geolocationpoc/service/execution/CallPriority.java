@@ -0,0 +1,18 @@
+package com.geolocationpoc.service.execution;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+// Carried in the Reactor context so it reaches the bulkhead through every layer in between;
+// callers that set nothing are interactive
+public enum CallPriority {
+    INTERACTIVE, BATCH;
+
+    public Context asContext() {
+        return Context.of(CallPriority.class, this);
+    }
+
+    static CallPriority of(ContextView context) {
+        return context.getOrDefault(CallPriority.class, INTERACTIVE);
+    }
+}
@@ -0,0 +1,14 @@
+package com.geolocationpoc.service.execution;
+
+// A rate of zero or less leaves the quota unenforced; a latency tolerance of zero or less ignores latency
+public record LimiterSettings(
+        int minConcurrent,
+        double ratePerSecond,
+        int burst,
+        double backoffRatio,
+        double latencyTolerance) {
+
+    public static LimiterSettings unlimited() {
+        return new LimiterSettings(1, 0, 1, 0.7, 0);
+    }
+}
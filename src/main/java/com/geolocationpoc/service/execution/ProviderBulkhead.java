@@ -0,0 +1,221 @@
+package com.geolocationpoc.service.execution;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// A call needs a concurrency slot under the adaptive limit and, when a quota is configured, a
+// token from the provider's bucket. Callers that get neither wait in per-priority queues, and
+// interactive callers are always served before batch ones.
+public class ProviderBulkhead {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CANCELLED = 2;
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final String provider;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final AimdLimit limit;
+    private final TokenBucket quota;
+    private final double ratePerSecond;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicBoolean refillTimerArmed = new AtomicBoolean();
+    private final Map<CallPriority, Queue<Waiter>> waiters = new EnumMap<>(CallPriority.class);
+
+    public ProviderBulkhead(String provider, int maxConcurrent, int maxQueue) {
+        this(provider, maxConcurrent, maxQueue, LimiterSettings.unlimited());
+    }
+
+    public ProviderBulkhead(String provider, int maxConcurrent, int maxQueue, LimiterSettings settings) {
+        this.provider = provider;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.limit = new AimdLimit(settings.minConcurrent(), maxConcurrent,
+                settings.backoffRatio(), settings.latencyTolerance());
+        this.ratePerSecond = settings.ratePerSecond();
+        this.quota = ratePerSecond > 0 ? new TokenBucket(ratePerSecond, settings.burst()) : null;
+        for (CallPriority priority : CallPriority.values()) {
+            waiters.put(priority, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return execute(call, null);
+    }
+
+    // The deadline covers queueing and the call together. It is enforced inside the measured
+    // section, so a provider that runs past it lowers the limit like any other overload, while a
+    // caller that gives up still waiting in the queue does not.
+    public <T> Mono<T> execute(Supplier<Mono<T>> call, Duration deadline) {
+        return Mono.deferContextual(context -> {
+            long deadlineAt = deadline != null ? System.nanoTime() + deadline.toNanos() : Long.MAX_VALUE;
+
+            // Queued callers go first, otherwise a steady stream of arrivals could starve them
+            if (queued.get() == 0 && tryAcquire()) {
+                return measured(call, deadlineAt).doFinally(signal -> release());
+            }
+
+            if (queued.incrementAndGet() > maxQueue) {
+                queued.decrementAndGet();
+                rejected.incrementAndGet();
+                return Mono.error(new RejectedExecutionException(
+                        "Bulkhead full for provider " + provider + " (" + inFlight.get() + " in flight, "
+                                + maxQueue + " queued)"));
+            }
+
+            Waiter waiter = new Waiter();
+            Queue<Waiter> queue = waiters.get(CallPriority.of(context));
+            queue.add(waiter);
+            drain();
+
+            Mono<Void> turn = deadline != null ? waiter.turn.asMono().timeout(deadline) : waiter.turn.asMono();
+            return turn
+                    .then(measured(call, deadlineAt))
+                    .doFinally(signal -> {
+                        if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+                            queued.decrementAndGet();
+                            queue.remove(waiter);
+                        } else if (waiter.state.get() == GRANTED) {
+                            release();
+                        }
+                    });
+        });
+    }
+
+    public BulkheadStatistics statistics() {
+        return new BulkheadStatistics(provider, inFlight.get(), queued.get(), maxConcurrent, maxQueue, rejected.get(),
+                limit.limit(), ratePerSecond, throttled.get());
+    }
+
+    // Only calls that got a permit are measured, so queueing time never counts as provider latency
+    private <T> Mono<T> measured(Supplier<Mono<T>> call, long deadlineAt) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Mono<T> result = Mono.defer(call);
+            if (deadlineAt != Long.MAX_VALUE) {
+                result = result.timeout(Duration.ofNanos(Math.max(0, deadlineAt - start)));
+            }
+            return result
+                    .doOnSuccess(value -> limit.onSuccess(System.nanoTime() - start))
+                    .doOnError(this::onError);
+        });
+    }
+
+    private void onError(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof WebClientResponseException response) {
+                if (response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    throttled.incrementAndGet();
+                    if (quota != null) {
+                        quota.pause(retryAfter(response).toNanos());
+                    }
+                    limit.onOverload();
+                } else if (response.getStatusCode().is5xxServerError()) {
+                    limit.onOverload();
+                }
+                return;
+            }
+            if (current instanceof TimeoutException) {
+                limit.onOverload();
+                return;
+            }
+        }
+    }
+
+    private static Duration retryAfter(WebClientResponseException response) {
+        String value = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        try {
+            return value != null ? Duration.ofSeconds(Long.parseLong(value.trim())) : DEFAULT_RETRY_AFTER;
+        } catch (NumberFormatException e) {
+            return DEFAULT_RETRY_AFTER;
+        }
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.limit()) return false;
+            if (inFlight.compareAndSet(current, current + 1)) break;
+        }
+        if (quota == null || quota.tryTake()) return true;
+        inFlight.decrementAndGet();
+        armRefillTimer();
+        return false;
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    // Hands free permits to queued callers, interactive first; a permit taken for a caller that
+    // cancelled meanwhile is given back
+    private void drain() {
+        while (queued.get() > 0 && tryAcquire()) {
+            Waiter waiter = nextWaiter();
+            if (waiter != null && waiter.state.compareAndSet(WAITING, GRANTED)) {
+                queued.decrementAndGet();
+                waiter.turn.tryEmitEmpty();
+            } else {
+                inFlight.decrementAndGet();
+                if (quota != null) quota.giveBack();
+                if (waiter == null) return;
+            }
+        }
+    }
+
+    private Waiter nextWaiter() {
+        for (CallPriority priority : CallPriority.values()) {
+            Waiter waiter = waiters.get(priority).poll();
+            if (waiter != null) return waiter;
+        }
+        return null;
+    }
+
+    // Nothing else wakes the queue when it is only waiting for the bucket to refill
+    private void armRefillTimer() {
+        if (!refillTimerArmed.compareAndSet(false, true)) return;
+        Schedulers.parallel().schedule(() -> {
+            refillTimerArmed.set(false);
+            drain();
+        }, Math.max(1, quota.nanosUntilNext()), TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Waiter {
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        final Sinks.Empty<Void> turn = Sinks.empty();
+    }
+
+    public record BulkheadStatistics(
+            String provider,
+            int inFlight,
+            int queued,
+            int maxConcurrent,
+            int maxQueue,
+            long rejected,
+            int concurrencyLimit,
+            double ratePerSecond,
+            long throttled) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.geolocationpoc.service.execution;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+public final class ProviderSchedulers {
+
+    // One virtual thread per blocking call; cancelling the subscription interrupts it. Carries the
+    // work that really blocks: Google credential fetches, job runs with their database writes and
+    // reading NDJSON batch bodies.
+    private static final Scheduler VIRTUAL_THREADS = Schedulers.fromExecutorService(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("provider-", 0).factory()),
+            "provider-virtual");
+
+    private ProviderSchedulers() {
+    }
+
+    public static Scheduler virtualThreads() {
+        return VIRTUAL_THREADS;
+    }
+}
@@ -0,0 +1,52 @@
+package com.geolocationpoc.service.execution;
+
+// Refills continuously at the quota rate up to the burst size
+final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+        this.pausedUntil = refilledAt;
+    }
+
+    synchronized boolean tryTake() {
+        refill();
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    synchronized void giveBack() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    synchronized long nanosUntilNext() {
+        refill();
+        long now = System.nanoTime();
+        long paused = Math.max(0, pausedUntil - now);
+        return tokens >= 1 ? paused : Math.max(paused, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    // After a 429 the provider's own window is exhausted, so refilling restarts from empty
+    synchronized void pause(long nanos) {
+        refill();
+        tokens = 0;
+        pausedUntil = Math.max(pausedUntil, System.nanoTime() + nanos);
+        refilledAt = pausedUntil;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        if (now <= refilledAt) return;
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
@@ -1,96 +1,187 @@
 package com.geolocationpoc.service.implementations;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.geolocationpoc.client.GoogleOptimizationClient;
-import com.geolocationpoc.dto.Coordinate;
 import com.geolocationpoc.dto.OptimizedStop;
 import com.geolocationpoc.dto.RouteMetrics;
 import com.geolocationpoc.dto.RouteRequest;
 import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.model.CompactRouteRequest;
 import com.geolocationpoc.service.RouteService;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Service("googleOptimization")
 public class GoogleOptimizationAdapter implements RouteService {
 
-    private final GoogleOptimizationClient client;
+    private final ObjectProvider<GoogleOptimizationClient> client;
+    private final ProviderTelemetry telemetry;
+    private final JsonFactory jsonFactory = new JsonFactory();
 
-    public GoogleOptimizationAdapter(GoogleOptimizationClient client) {
+    public GoogleOptimizationAdapter(ObjectProvider<GoogleOptimizationClient> client, ProviderTelemetry telemetry) {
         this.client = client;
+        this.telemetry = telemetry;
     }
 
     @Override
     public RouteResponse optimizeRoute(RouteRequest request) {
-        try {
-            JsonNode response = client.optimizeTours(request);
-            return parseGoogleResponse(response);
+        return optimizeRouteAsync(request).block();
+    }
+
+    @Override
+    public Mono<RouteResponse> optimizeRouteAsync(RouteRequest request) {
+        CompactRouteRequest compact = CompactRouteRequest.of(request);
+        return client.getObject().optimizeToursRaw(compact)
+                .map(body -> telemetry.observe(providerName(), ProviderTelemetry.PHASE_PARSE,
+                        () -> parseGoogleResponse(body, compact)))
+                .onErrorMap(e -> new RuntimeException("Failed to optimize route with Google", e));
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to optimize route with Google", e);
+    private RouteResponse parseGoogleResponse(DataBuffer body, CompactRouteRequest request) {
+        try (InputStream in = body.asInputStream(true);
+             JsonParser parser = jsonFactory.createParser(in)) {
+            return parseGoogleResponse(parser, request);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    private RouteResponse parseGoogleResponse(JsonNode response) {
+    // Walks the token stream once; only the fields we map are materialized
+    RouteResponse parseGoogleResponse(JsonParser parser, CompactRouteRequest request) throws IOException {
         List<OptimizedStop> allStops = new ArrayList<>();
         List<RouteMetrics> routeMetrics = new ArrayList<>();
         double totalDistance = 0;
         long totalDuration = 0;
 
-        JsonNode routes = response.path("routes");
-        for (JsonNode route : routes) {
-            String vehicleId = route.path("vehicleLabel").asText("vehicle-1");
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object in Google response");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"routes".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
 
-            // Parse visits and transitions
-            JsonNode visits = route.path("visits");
-            JsonNode transitions = route.path("transitions");
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                GoogleRoute route = readRoute(parser);
 
-            for (int i = 0; i < visits.size(); i++) {
-                JsonNode visit = visits.get(i);
-                JsonNode transition = i < transitions.size() ? transitions.get(i) : null;
+                for (int i = 0; i < route.visitCount; i++) {
+                    boolean hasTransition = i < route.transitionCount;
+                    double distanceFromPrev = hasTransition ? route.transitionDistances[i] : 0;
+                    long travelTimeFromPrev = hasTransition ? route.transitionDurations[i] : 0;
+
+                    String label = route.visitLabels.get(i);
+                    allStops.add(new OptimizedStop(
+                            label, request.serviceLocation(label),
+                            route.visitStartTimes.get(i), route.visitStartTimes.get(i),
+                            0, distanceFromPrev, travelTimeFromPrev
+                    ));
+                }
 
-                String serviceId = visit.path("shipmentLabel").asText();
-                String arrivalTime = visit.path("startTime").asText();
+                routeMetrics.add(new RouteMetrics(
+                        route.vehicleId, route.distance, route.duration, route.performedShipmentCount,
+                        route.vehicleStartTime, route.vehicleEndTime
+                ));
 
-                // Extract location from original request or response
-                Coordinate location = new Coordinate(0D, 0D); // Would need to map back from shipment
+                totalDistance += route.distance;
+                totalDuration += route.duration;
+            }
+        }
 
-                double distanceFromPrev = 0;
-                long travelTimeFromPrev = 0;
+        return new RouteResponse(totalDistance, totalDuration, allStops, routeMetrics, "Google");
+    }
 
-                if (transition != null) {
-                    distanceFromPrev = transition.path("travelDistanceMeters").asDouble();
-                    String travelDur = transition.path("travelDuration").asText();
-                    travelTimeFromPrev = parseDurationString(travelDur);
-                }
+    private GoogleRoute readRoute(JsonParser parser) throws IOException {
+        GoogleRoute route = new GoogleRoute();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "vehicleLabel" -> route.vehicleId = parser.getValueAsString(route.vehicleId);
+                case "vehicleStartTime" -> route.vehicleStartTime = parser.getValueAsString("");
+                case "vehicleEndTime" -> route.vehicleEndTime = parser.getValueAsString("");
+                case "visits" -> readVisits(parser, route, value);
+                case "transitions" -> readTransitions(parser, route, value);
+                case "metrics" -> readMetrics(parser, route, value);
+                default -> parser.skipChildren();
+            }
+        }
+        return route;
+    }
 
-                OptimizedStop stop = new OptimizedStop(
-                        serviceId, location, arrivalTime, arrivalTime,
-                        0, distanceFromPrev, travelTimeFromPrev
-                );
-                allStops.add(stop);
+    private void readVisits(JsonParser parser, GoogleRoute route, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String label = "";
+            String startTime = "";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "shipmentLabel" -> label = parser.getValueAsString("");
+                    case "startTime" -> startTime = parser.getValueAsString("");
+                    default -> parser.skipChildren();
+                }
             }
+            route.visitLabels.add(label);
+            route.visitStartTimes.add(startTime);
+            route.visitCount++;
+        }
+    }
 
-            // Parse route metrics
-            JsonNode metrics = route.path("metrics");
-            double routeDistance = metrics.path("travelDistanceMeters").asDouble();
-            long routeDuration = parseDurationString(metrics.path("travelDuration").asText());
-
-            RouteMetrics routeMetric = new RouteMetrics(
-                    vehicleId, routeDistance, routeDuration,
-                    metrics.path("performedShipmentCount").asInt(),
-                    route.path("vehicleStartTime").asText(),
-                    route.path("vehicleEndTime").asText()
-            );
-            routeMetrics.add(routeMetric);
-
-            totalDistance += routeDistance;
-            totalDuration += routeDuration;
+    private void readTransitions(JsonParser parser, GoogleRoute route, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
         }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            double distance = 0;
+            long duration = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "travelDistanceMeters" -> distance = parser.getValueAsDouble();
+                    case "travelDuration" -> duration = parseDurationString(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+            route.addTransition(distance, duration);
+        }
+    }
 
-        return new RouteResponse(totalDistance, totalDuration, allStops, routeMetrics, "Google");
+    private void readMetrics(JsonParser parser, GoogleRoute route, JsonToken value) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "travelDistanceMeters" -> route.distance = parser.getValueAsDouble();
+                case "travelDuration" -> route.duration = parseDurationString(parser.getValueAsString());
+                case "performedShipmentCount" -> route.performedShipmentCount = parser.getValueAsInt();
+                default -> parser.skipChildren();
+            }
+        }
     }
 
     private long parseDurationString(String duration) {
@@ -105,4 +196,29 @@ public class GoogleOptimizationAdapter implements RouteService {
     public String providerName() {
         return "Google";
     }
+
+    private static final class GoogleRoute {
+        String vehicleId = "vehicle-1";
+        String vehicleStartTime = "";
+        String vehicleEndTime = "";
+        final List<String> visitLabels = new ArrayList<>();
+        final List<String> visitStartTimes = new ArrayList<>();
+        int visitCount;
+        double[] transitionDistances = new double[16];
+        long[] transitionDurations = new long[16];
+        int transitionCount;
+        double distance;
+        long duration;
+        int performedShipmentCount;
+
+        void addTransition(double distance, long duration) {
+            if (transitionCount == transitionDistances.length) {
+                transitionDistances = Arrays.copyOf(transitionDistances, transitionCount * 2);
+                transitionDurations = Arrays.copyOf(transitionDurations, transitionCount * 2);
+            }
+            transitionDistances[transitionCount] = distance;
+            transitionDurations[transitionCount] = duration;
+            transitionCount++;
+        }
+    }
 }
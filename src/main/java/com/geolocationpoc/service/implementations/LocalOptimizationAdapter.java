@@ -0,0 +1,52 @@
+package com.geolocationpoc.service.implementations;
+
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.service.RouteService;
+import com.geolocationpoc.solver.LocalRouteSolver;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service("local")
+public class LocalOptimizationAdapter implements RouteService {
+
+    private final LocalRouteSolver solver;
+
+    public LocalOptimizationAdapter(LocalRouteSolver solver) {
+        this.solver = solver;
+    }
+
+    @Override
+    public RouteResponse optimizeRoute(RouteRequest request) {
+        try {
+            return solver.solve(request);
+
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to optimize route locally", e);
+        }
+    }
+
+    // CPU-bound, so it runs on the parallel scheduler rather than the elastic I/O pool
+    @Override
+    public Mono<RouteResponse> optimizeRouteAsync(RouteRequest request) {
+        return Mono.fromCallable(() -> optimizeRoute(request))
+                .subscribeOn(Schedulers.parallel());
+    }
+
+    @Override
+    public boolean measuresTravelCosts() {
+        return false;
+    }
+
+    // Its routes are already at a 2-opt/Or-opt optimum under the same matrix the refiner uses
+    @Override
+    public boolean benefitsFromRefinement() {
+        return false;
+    }
+
+    @Override
+    public String providerName() {
+        return "Local";
+    }
+}
@@ -1,98 +1,150 @@
 package com.geolocationpoc.service.implementations;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.geolocationpoc.client.MapboxOptimizationClient;
-import com.geolocationpoc.dto.Coordinate;
 import com.geolocationpoc.dto.OptimizedStop;
 import com.geolocationpoc.dto.RouteMetrics;
 import com.geolocationpoc.dto.RouteRequest;
 import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.model.CompactRouteRequest;
 import com.geolocationpoc.service.RouteService;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 
 @Service("mapbox")
 public class MapboxOptimizationAdapter implements RouteService {
 
-    private final MapboxOptimizationClient client;
+    private final ObjectProvider<MapboxOptimizationClient> client;
+    private final ProviderTelemetry telemetry;
+    private final JsonFactory jsonFactory = new JsonFactory();
 
-    public MapboxOptimizationAdapter(MapboxOptimizationClient client) {
+    public MapboxOptimizationAdapter(ObjectProvider<MapboxOptimizationClient> client, ProviderTelemetry telemetry) {
         this.client = client;
+        this.telemetry = telemetry;
     }
 
     @Override
     public RouteResponse optimizeRoute(RouteRequest request) {
-        try {
-            JsonNode response = client.optimizeRoutes(request);
-            return parseMapboxResponse(response);
+        return optimizeRouteAsync(request).block();
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to optimize route with Mapbox", e);
+    @Override
+    public Mono<RouteResponse> optimizeRouteAsync(RouteRequest request) {
+        CompactRouteRequest compact = CompactRouteRequest.of(request);
+        return client.getObject().optimizeRoutesRaw(compact)
+                .map(body -> telemetry.observe(providerName(), ProviderTelemetry.PHASE_PARSE,
+                        () -> parseMapboxResponse(body, compact)))
+                .onErrorMap(e -> new RuntimeException("Failed to optimize route with Mapbox", e));
+    }
+
+    private RouteResponse parseMapboxResponse(DataBuffer body, CompactRouteRequest request) {
+        try (InputStream in = body.asInputStream(true);
+             JsonParser parser = jsonFactory.createParser(in)) {
+            return parseMapboxResponse(parser, request);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    private RouteResponse parseMapboxResponse(JsonNode response) {
+    // Walks the token stream once; only the fields we map are materialized
+    RouteResponse parseMapboxResponse(JsonParser parser, CompactRouteRequest request) throws IOException {
         List<OptimizedStop> allStops = new ArrayList<>();
         List<RouteMetrics> routeMetrics = new ArrayList<>();
         double totalDistance = 0;
         long totalDuration = 0;
 
-        JsonNode routes = response.path("routes");
-        for (JsonNode route : routes) {
-            String vehicleId = route.path("vehicle").asText();
-            JsonNode stops = route.path("stops");
-
-            double routeDistance = 0;
-            long routeDuration = 0;
-            int serviceCount = 0;
-            String startTime = null, endTime = null;
-
-            OptimizedStop previousStop = null;
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object in Mapbox response");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"routes".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
 
-            for (JsonNode stop : stops) {
-                String type = stop.path("type").asText();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                RouteMetrics routeMetric = readRoute(parser, request, allStops);
+                routeMetrics.add(routeMetric);
+                totalDistance += routeMetric.distanceMeters();
+            }
+        }
 
-                if (!"start".equals(type) && !"end".equals(type)) {
-                    String serviceId = stop.path("location").asText();
-                    String arrivalTime = stop.path("eta").asText();
-                    int waitTime = stop.path("wait").asInt();
-                    double odometer = stop.path("odometer").asDouble();
+        return new RouteResponse(totalDistance, totalDuration, allStops, routeMetrics, "Mapbox");
+    }
 
-                    // Extract coordinates (would need reverse lookup)
-                    Coordinate location = new Coordinate(0D, 0D);
+    private RouteMetrics readRoute(JsonParser parser, CompactRouteRequest request,
+                                   List<OptimizedStop> allStops) throws IOException {
+        String vehicleId = "";
+        double routeDistance = 0;
+        long routeDuration = 0;
+        int serviceCount = 0;
+        String startTime = null, endTime = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("vehicle".equals(field)) {
+                vehicleId = parser.getValueAsString("");
+                continue;
+            }
+            if (!"stops".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
 
-                    double distanceFromPrev = previousStop != null ?
-                            odometer - previousStop.distanceFromPrevious() : 0;
+            double previousOdometer = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                MapboxStop stop = readStop(parser);
 
-                    OptimizedStop optimizedStop = new OptimizedStop(
-                            serviceId, location, arrivalTime, arrivalTime,
-                            waitTime, distanceFromPrev, 0L
-                    );
-                    allStops.add(optimizedStop);
+                if (!"start".equals(stop.type) && !"end".equals(stop.type)) {
+                    allStops.add(new OptimizedStop(
+                            stop.location, request.serviceLocation(stop.location), stop.eta, stop.eta,
+                            stop.wait, stop.odometer - previousOdometer, 0L
+                    ));
                     serviceCount++;
-                    previousStop = optimizedStop;
                 }
+                previousOdometer = stop.odometer;
 
-                if ("start".equals(type)) {
-                    startTime = stop.path("eta").asText();
-                } else if ("end".equals(type)) {
-                    endTime = stop.path("eta").asText();
-                    routeDistance = stop.path("odometer").asDouble();
+                if ("start".equals(stop.type)) {
+                    startTime = stop.eta;
+                } else if ("end".equals(stop.type)) {
+                    endTime = stop.eta;
+                    routeDistance = stop.odometer;
                 }
             }
+        }
 
-            RouteMetrics routeMetric = new RouteMetrics(
-                    vehicleId, routeDistance, routeDuration,
-                    serviceCount, startTime, endTime
-            );
-            routeMetrics.add(routeMetric);
+        return new RouteMetrics(vehicleId, routeDistance, routeDuration, serviceCount, startTime, endTime);
+    }
 
-            totalDistance += routeDistance;
+    private MapboxStop readStop(JsonParser parser) throws IOException {
+        MapboxStop stop = new MapboxStop();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "type" -> stop.type = parser.getValueAsString("");
+                case "location" -> stop.location = parser.getValueAsString("");
+                case "eta" -> stop.eta = parser.getValueAsString("");
+                case "wait" -> stop.wait = parser.getValueAsInt();
+                case "odometer" -> stop.odometer = parser.getValueAsDouble();
+                default -> parser.skipChildren();
+            }
         }
-
-        return new RouteResponse(totalDistance, totalDuration, allStops, routeMetrics, "Mapbox");
+        return stop;
     }
 
     @Override
@@ -100,4 +152,11 @@ public class MapboxOptimizationAdapter implements RouteService {
         return "Mapbox";
     }
 
+    private static final class MapboxStop {
+        String type = "";
+        String location = "";
+        String eta = "";
+        int wait;
+        double odometer;
+    }
 }
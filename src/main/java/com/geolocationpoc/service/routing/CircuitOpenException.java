@@ -0,0 +1,8 @@
+package com.geolocationpoc.service.routing;
+
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String provider) {
+        super("Circuit breaker open for provider " + provider);
+    }
+}
@@ -0,0 +1,154 @@
+package com.geolocationpoc.service.routing;
+
+import com.geolocationpoc.service.RouteService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ProviderRouter {
+
+    private static final int LATENCY_WINDOW_SIZE = 256;
+    private static final double WIN_DECAY = 0.05;
+
+    private final Map<String, ProviderStats> stats = new ConcurrentHashMap<>();
+    private final int breakerWindowSize;
+    private final int breakerMinimumCalls;
+    private final double breakerFailureRateThreshold;
+    private final Duration breakerOpenDuration;
+    private final int breakerHalfOpenTrials;
+    private final int minimumSamples;
+    private final double fanOutMargin;
+    private final double explorationRate;
+    private final double referenceLatencyMillis;
+
+    public ProviderRouter(int breakerWindowSize, int breakerMinimumCalls, double breakerFailureRateThreshold,
+                          Duration breakerOpenDuration, int breakerHalfOpenTrials, int minimumSamples,
+                          double fanOutMargin, double explorationRate, Duration referenceLatency) {
+        this.breakerWindowSize = breakerWindowSize;
+        this.breakerMinimumCalls = breakerMinimumCalls;
+        this.breakerFailureRateThreshold = breakerFailureRateThreshold;
+        this.breakerOpenDuration = breakerOpenDuration;
+        this.breakerHalfOpenTrials = breakerHalfOpenTrials;
+        this.minimumSamples = minimumSamples;
+        this.fanOutMargin = fanOutMargin;
+        this.explorationRate = explorationRate;
+        this.referenceLatencyMillis = referenceLatency.toMillis();
+    }
+
+    // Calls only the best-scoring provider unless the scores are close, data is thin, or this
+    // request is drawn for exploration; the last keeps win rates of routed-away providers fresh.
+    // Providers that only estimate travel costs never win a contest, so they are not ranked and
+    // instead come along on every request as a fallback.
+    public RoutingDecision route(List<RouteService> providers) {
+        List<RouteService> available = providers.stream()
+                .filter(provider -> stats(provider.providerName()).circuitBreaker().isCallPermitted())
+                .toList();
+        List<RouteService> measuring = available.stream().filter(RouteService::measuresTravelCosts).toList();
+        List<RouteService> estimating = available.stream()
+                .filter(provider -> !provider.measuresTravelCosts())
+                .toList();
+
+        List<RouteService> selected = rank(measuring);
+        List<RouteService> withFallbacks = new ArrayList<>(selected);
+        withFallbacks.addAll(estimating);
+        return new RoutingDecision(withFallbacks, selected.size() > 1);
+    }
+
+    private List<RouteService> rank(List<RouteService> measuring) {
+        if (measuring.size() <= 1) {
+            return measuring;
+        }
+
+        boolean exploring = ThreadLocalRandom.current().nextDouble() < explorationRate;
+        boolean warmingUp = measuring.stream().anyMatch(provider -> {
+            ProviderStats providerStats = stats(provider.providerName());
+            return providerStats.successes() + providerStats.failures() + providerStats.cutOffs() < minimumSamples;
+        });
+        if (exploring || warmingUp) {
+            return measuring;
+        }
+
+        List<RouteService> ranked = new ArrayList<>(measuring);
+        ranked.sort(Comparator.comparingDouble((RouteService provider) -> score(provider.providerName())).reversed());
+        double topScore = score(ranked.get(0).providerName());
+
+        return ranked.stream()
+                .filter(provider -> score(provider.providerName()) >= topScore * (1 - fanOutMargin))
+                .toList();
+    }
+
+    public boolean tryAcquire(String provider) {
+        return stats(provider).circuitBreaker().tryAcquire();
+    }
+
+    public void recordSuccess(String provider, long latencyMillis) {
+        stats(provider).recordSuccess(latencyMillis);
+    }
+
+    public void recordFailure(String provider) {
+        stats(provider).recordFailure();
+    }
+
+    public void recordIgnored(String provider) {
+        stats(provider).circuitBreaker().onIgnored();
+    }
+
+    public void recordCutOff(String provider, long elapsedMillis) {
+        stats(provider).recordCutOff(elapsedMillis);
+    }
+
+    public void recordContest(String winner, Collection<String> contenders) {
+        if (contenders.size() < 2) return;
+        for (String contender : contenders) {
+            stats(contender).recordContest(contender.equalsIgnoreCase(winner));
+        }
+    }
+
+    public long latencyPercentile(String provider, double quantile) {
+        return stats(provider).latencies().percentile(quantile);
+    }
+
+    public List<ProviderSnapshot> snapshots() {
+        return stats.values().stream()
+                .map(providerStats -> new ProviderSnapshot(
+                        providerStats.provider(),
+                        providerStats.circuitBreaker().state(),
+                        providerStats.latencies().percentile(0.50),
+                        providerStats.latencies().percentile(0.95),
+                        providerStats.latencies().percentile(0.99),
+                        providerStats.circuitBreaker().failureRate(),
+                        providerStats.successes(),
+                        providerStats.failures(),
+                        providerStats.cutOffs(),
+                        providerStats.wins(),
+                        providerStats.contests(),
+                        providerStats.recentWinRate(),
+                        score(providerStats.provider())))
+                .sorted(Comparator.comparing(ProviderSnapshot::provider))
+                .toList();
+    }
+
+    // Higher is better: recent share of wins, discounted by failures and by p95 latency
+    private double score(String provider) {
+        ProviderStats providerStats = stats(provider);
+        long p95 = providerStats.latencies().percentile(0.95);
+        double latencyPenalty = 1 + Math.max(0, p95) / referenceLatencyMillis;
+        return providerStats.recentWinRate() * (1 - providerStats.circuitBreaker().failureRate()) / latencyPenalty;
+    }
+
+    private ProviderStats stats(String provider) {
+        return stats.computeIfAbsent(provider.toLowerCase(Locale.ROOT), key -> new ProviderStats(
+                provider,
+                new LatencyWindow(LATENCY_WINDOW_SIZE),
+                new CircuitBreaker(breakerWindowSize, breakerMinimumCalls, breakerFailureRateThreshold,
+                        breakerOpenDuration, breakerHalfOpenTrials),
+                WIN_DECAY));
+    }
+}
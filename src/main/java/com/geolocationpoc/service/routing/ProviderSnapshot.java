@@ -0,0 +1,17 @@
+package com.geolocationpoc.service.routing;
+
+public record ProviderSnapshot(
+        String provider,
+        CircuitBreaker.State circuitState,
+        long p50LatencyMillis,
+        long p95LatencyMillis,
+        long p99LatencyMillis,
+        double failureRate,
+        long successes,
+        long failures,
+        long cutOffs,
+        long wins,
+        long contests,
+        double recentWinRate,
+        double score) {
+}
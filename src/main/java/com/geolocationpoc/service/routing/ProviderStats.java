@@ -0,0 +1,88 @@
+package com.geolocationpoc.service.routing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ProviderStats {
+
+    private final String provider;
+    private final LatencyWindow latencies;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong cutOffs = new AtomicLong();
+    private final AtomicLong wins = new AtomicLong();
+    private final AtomicLong contests = new AtomicLong();
+    private final double winDecay;
+    private double recentWinRate = 0.5;
+
+    public ProviderStats(String provider, LatencyWindow latencies, CircuitBreaker circuitBreaker, double winDecay) {
+        this.provider = provider;
+        this.latencies = latencies;
+        this.circuitBreaker = circuitBreaker;
+        this.winDecay = winDecay;
+    }
+
+    public String provider() {
+        return provider;
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public LatencyWindow latencies() {
+        return latencies;
+    }
+
+    void recordSuccess(long latencyMillis) {
+        successes.incrementAndGet();
+        latencies.record(latencyMillis);
+        circuitBreaker.onSuccess();
+    }
+
+    void recordFailure() {
+        failures.incrementAndGet();
+        circuitBreaker.onFailure();
+    }
+
+    // A call cancelled at the latency budget is a censored sample: it would have taken at least
+    // this long, so it counts toward the latency window but not against the breaker
+    void recordCutOff(long elapsedMillis) {
+        cutOffs.incrementAndGet();
+        latencies.record(elapsedMillis);
+        circuitBreaker.onIgnored();
+    }
+
+    synchronized void recordContest(boolean won) {
+        contests.incrementAndGet();
+        if (won) {
+            wins.incrementAndGet();
+        }
+        recentWinRate = winDecay * (won ? 1 : 0) + (1 - winDecay) * recentWinRate;
+    }
+
+    public long wins() {
+        return wins.get();
+    }
+
+    public long contests() {
+        return contests.get();
+    }
+
+    // Exponentially weighted, so a provider that stopped winning loses its lead quickly
+    public synchronized double recentWinRate() {
+        return recentWinRate;
+    }
+
+    public long successes() {
+        return successes.get();
+    }
+
+    public long failures() {
+        return failures.get();
+    }
+
+    public long cutOffs() {
+        return cutOffs.get();
+    }
+}
@@ -0,0 +1,8 @@
+package com.geolocationpoc.service.routing;
+
+import com.geolocationpoc.service.RouteService;
+
+import java.util.List;
+
+public record RoutingDecision(List<RouteService> selected, boolean fannedOut) {
+}
@@ -0,0 +1,566 @@
+package com.geolocationpoc.solver;
+
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RefinementReport;
+import com.geolocationpoc.dto.RouteMetrics;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.matrix.TravelMatrix;
+import com.geolocationpoc.matrix.TravelMatrixEngine;
+import com.geolocationpoc.model.CompactRouteRequest;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class LocalRouteSolver {
+
+    private static final double EPSILON = 1e-6;
+    private static final int MAX_SEGMENT_LENGTH = 3;
+
+    private final TravelMatrixEngine matrixEngine;
+    private final long timeLimitNanos;
+
+    public LocalRouteSolver(TravelMatrixEngine matrixEngine, long timeLimitMillis) {
+        this.matrixEngine = matrixEngine;
+        this.timeLimitNanos = timeLimitMillis * 1_000_000L;
+    }
+
+    public RouteResponse solve(RouteRequest request) {
+        return solve(CompactRouteRequest.of(request));
+    }
+
+    public RouteResponse solve(CompactRouteRequest request) {
+        long deadline = System.nanoTime() + timeLimitNanos;
+        Problem problem = new Problem(request);
+
+        VehicleRoute[] routes = emptyRoutes(problem);
+        int unassigned = insertCheapest(problem, routes, unplacedByRemoteness(problem, new boolean[problem.size]));
+        // A plan that leaves stops out would look shorter than a complete one, so there is none
+        if (unassigned > 0) {
+            throw new IllegalStateException(unassigned + " of " + request.serviceCount()
+                    + " stops fit on no vehicle");
+        }
+        improve(problem, routes, deadline);
+
+        return toResponse(problem, routes, "Local");
+    }
+
+    // Keeps each vehicle's stops from a previous plan in order, drops the ones no longer requested,
+    // inserts the new ones and repairs until the time limit. The cost ratio sets the result against
+    // the old plan's cost per stop: about 1 or below when the new stops fit in as cheaply as the old
+    // ones did, well above when they landed far from every route.
+    public Repair repair(CompactRouteRequest request, RouteResponse plan, long timeLimitMillis) {
+        long deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+        Problem problem = new Problem(request);
+
+        VehicleRoute[] routes = emptyRoutes(problem);
+        boolean[] placed = new boolean[problem.size];
+        int kept = seed(problem, plan, routes, placed);
+        double keptCost = totalCost(problem, routes);
+        int unplaced = insertCheapest(problem, routes, unplacedByRemoteness(problem, placed));
+        improve(problem, routes, deadline);
+
+        int served = request.serviceCount() - unplaced;
+        double expectedCost = kept > 0 ? keptCost / kept * served : 0;
+        double costRatio = expectedCost > 0 ? totalCost(problem, routes) / expectedCost : 1.0;
+        return new Repair(toResponse(problem, routes, "Local-Repair"), kept, served - kept, unplaced, costRatio);
+    }
+
+    // Re-sequences each route of a plan from any provider with 2-opt and Or-opt, one fork-join task
+    // per route, until the time limit. Stops never change vehicle, so every route keeps its load.
+    // Routes that got no shorter come back exactly as the provider sent them; shorter ones are
+    // re-timed from the provider's own figures, scaled by how much the new order saves under our
+    // matrix. A plan that cannot be seeded as it stands is returned untouched.
+    public RouteResponse refine(CompactRouteRequest request, RouteResponse plan, long timeLimitMillis,
+                                ForkJoinPool pool) {
+        long deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+        Problem problem = new Problem(request);
+        VehicleRoute[] routes = emptyRoutes(problem);
+        int kept = seed(problem, plan, routes, new boolean[problem.size]);
+        if (plan.stops() == null || plan.stops().isEmpty() || kept != plan.stops().size()) {
+            return plan;
+        }
+
+        double[] costBefore = new double[routes.length];
+        double[] secondsBefore = new double[routes.length];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (VehicleRoute route : routes) {
+            costBefore[route.vehicle] = routeCost(problem, route);
+            secondsBefore[route.vehicle] = routeSeconds(problem, route);
+            if (route.size < 2) continue;
+            // At least one pass each, even when building the matrix used up the budget
+            tasks.add(() -> {
+                boolean improved;
+                do {
+                    improved = twoOpt(problem, route) | orOpt(problem, route);
+                } while (improved && System.nanoTime() < deadline);
+                return null;
+            });
+        }
+        pool.invokeAll(tasks);
+
+        List<OptimizedStop> stops = new ArrayList<>(plan.stops().size());
+        List<RouteMetrics> metrics = new ArrayList<>(plan.routeMetrics().size());
+        boolean[] seen = new boolean[routes.length];
+        int improvedRoutes = 0;
+        double savedDistance = 0;
+        long savedSeconds = 0;
+        int offset = 0;
+        for (RouteMetrics original : plan.routeMetrics()) {
+            int count = original.servicesPerformed() != null ? original.servicesPerformed() : 0;
+            int vehicle = request.vehicleIndexOf(original.vehicleId());
+            if (vehicle >= 0 && seen[vehicle]) return plan;
+            if (vehicle < 0 || routeCost(problem, routes[vehicle]) >= costBefore[vehicle] - EPSILON) {
+                stops.addAll(plan.stops().subList(offset, offset + count));
+                metrics.add(original);
+            } else {
+                RouteMetrics refined = retime(problem, routes[vehicle], original,
+                        costBefore[vehicle], secondsBefore[vehicle], stops);
+                metrics.add(refined);
+                improvedRoutes++;
+                savedDistance += (original.distanceMeters() != null ? original.distanceMeters() : costBefore[vehicle])
+                        - refined.distanceMeters();
+                if (original.durationSeconds() != null) {
+                    savedSeconds += original.durationSeconds() - refined.durationSeconds();
+                }
+            }
+            if (vehicle >= 0) seen[vehicle] = true;
+            offset += count;
+        }
+
+        double originalDistance = plan.totalDistanceMeters() != null ? plan.totalDistanceMeters() : 0;
+        RefinementReport report = new RefinementReport(improvedRoutes, originalDistance, savedDistance);
+        if (improvedRoutes == 0) {
+            return new RouteResponse(plan.totalDistanceMeters(), plan.totalDurationSeconds(), plan.stops(),
+                    plan.routeMetrics(), plan.provider(), plan.selection(), report);
+        }
+        Long totalDuration = plan.totalDurationSeconds() != null ? plan.totalDurationSeconds() - savedSeconds : null;
+        return new RouteResponse(originalDistance - savedDistance, totalDuration, stops, metrics, plan.provider(),
+                plan.selection(), report);
+    }
+
+    // Provider figures stand in for ours where it reported them; a route without a reported
+    // duration keeps none, though its stop times still follow our estimates
+    private RouteMetrics retime(Problem problem, VehicleRoute route, RouteMetrics original,
+                                double costBefore, double secondsBefore, List<OptimizedStop> stops) {
+        boolean knownDistance = original.distanceMeters() != null && original.distanceMeters() > 0 && costBefore > 0;
+        boolean knownDuration = original.durationSeconds() != null && original.durationSeconds() > 0
+                && secondsBefore > 0;
+        double distanceScale = knownDistance ? original.distanceMeters() / costBefore : 1;
+        double durationScale = knownDuration ? original.durationSeconds() / secondsBefore : 1;
+
+        CompactRouteRequest request = problem.request;
+        OffsetDateTime startTime = parseTime(original.startTime());
+        long elapsed = 0;
+        double routeDistance = 0;
+        long routeDuration = 0;
+        int previous = route.startNode;
+        for (int position = 0; position <= route.size; position++) {
+            int node = route.nodeAt(position);
+            double distance = problem.cost(previous, node) * distanceScale;
+            long travelSeconds = Math.round(problem.matrix.duration(previous, node) * durationScale);
+            routeDistance += distance;
+            routeDuration += travelSeconds;
+            elapsed += travelSeconds;
+
+            if (position < route.size) {
+                int service = node - problem.firstService;
+                String arrival = formatTime(startTime, elapsed);
+                elapsed += problem.serviceSeconds[node];
+                stops.add(new OptimizedStop(
+                        request.serviceId(service), request.serviceLocation(service), arrival,
+                        formatTime(startTime, elapsed), 0, distance, travelSeconds
+                ));
+            }
+            previous = node;
+        }
+
+        Long duration = knownDuration || original.durationSeconds() == null
+                ? Long.valueOf(routeDuration) : original.durationSeconds();
+        return new RouteMetrics(original.vehicleId(), routeDistance, duration, route.size,
+                original.startTime(), formatTime(startTime, elapsed));
+    }
+
+    // Stops are grouped per vehicle by each route's servicesPerformed, the order every adapter emits;
+    // a plan whose counts do not add up is not trusted and keeps nothing
+    private int seed(Problem problem, RouteResponse plan, VehicleRoute[] routes, boolean[] placed) {
+        List<OptimizedStop> stops = plan.stops() != null ? plan.stops() : List.of();
+        List<RouteMetrics> metrics = plan.routeMetrics() != null ? plan.routeMetrics() : List.of();
+        int expected = metrics.stream()
+                .mapToInt(route -> route.servicesPerformed() != null ? route.servicesPerformed() : 0)
+                .sum();
+        if (expected != stops.size()) return 0;
+
+        int kept = 0;
+        int offset = 0;
+        for (RouteMetrics route : metrics) {
+            int count = route.servicesPerformed() != null ? route.servicesPerformed() : 0;
+            int vehicle = problem.request.vehicleIndexOf(route.vehicleId());
+            for (int i = offset; vehicle >= 0 && i < offset + count; i++) {
+                int service = problem.request.serviceIndexOf(stops.get(i).serviceId());
+                if (service < 0) continue;
+                int node = problem.matrix.serviceNode(service);
+                VehicleRoute target = routes[vehicle];
+                if (placed[node] || !target.fits(problem.demand[node])) continue;
+                target.insert(target.size, node, problem.demand[node]);
+                placed[node] = true;
+                kept++;
+            }
+            offset += count;
+        }
+        return kept;
+    }
+
+    private VehicleRoute[] emptyRoutes(Problem problem) {
+        VehicleRoute[] routes = new VehicleRoute[problem.vehicleCount];
+        for (int v = 0; v < problem.vehicleCount; v++) {
+            routes[v] = new VehicleRoute(v, v, problem.vehicleCount + v, problem.capacity[v]);
+        }
+        return routes;
+    }
+
+    // Stops farthest from any vehicle start come first, so they are not left with only bad positions
+    private int[] unplacedByRemoteness(Problem problem, boolean[] placed) {
+        double[] remoteness = new double[problem.size];
+        for (int node = problem.firstService; node < problem.size; node++) {
+            double nearest = Double.MAX_VALUE;
+            for (int v = 0; v < problem.vehicleCount; v++) {
+                nearest = Math.min(nearest, problem.cost(v, node));
+            }
+            remoteness[node] = nearest;
+        }
+
+        return IntStream.range(problem.firstService, problem.size)
+                .filter(node -> !placed[node])
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer node) -> remoteness[node]).reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // Returns how many stops fit on no vehicle
+    private int insertCheapest(Problem problem, VehicleRoute[] routes, int[] order) {
+        int unplaced = 0;
+        for (int node : order) {
+            int demand = problem.demand[node];
+            VehicleRoute bestRoute = null;
+            int bestPosition = -1;
+            double bestDelta = Double.MAX_VALUE;
+
+            for (VehicleRoute route : routes) {
+                if (!route.fits(demand)) continue;
+                for (int position = 0; position <= route.size; position++) {
+                    int before = route.nodeBefore(position);
+                    int after = route.nodeAt(position);
+                    double delta = problem.cost(before, node) + problem.cost(node, after)
+                            - problem.cost(before, after);
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestRoute = route;
+                        bestPosition = position;
+                    }
+                }
+            }
+
+            if (bestRoute != null) {
+                bestRoute.insert(bestPosition, node, demand);
+            } else {
+                unplaced++;
+            }
+        }
+        return unplaced;
+    }
+
+    private double totalCost(Problem problem, VehicleRoute[] routes) {
+        double total = 0;
+        for (VehicleRoute route : routes) {
+            total += routeCost(problem, route);
+        }
+        return total;
+    }
+
+    private double routeCost(Problem problem, VehicleRoute route) {
+        if (route.size == 0) return 0;
+        double total = 0;
+        int previous = route.startNode;
+        for (int position = 0; position <= route.size; position++) {
+            int node = route.nodeAt(position);
+            total += problem.cost(previous, node);
+            previous = node;
+        }
+        return total;
+    }
+
+    private double routeSeconds(Problem problem, VehicleRoute route) {
+        if (route.size == 0) return 0;
+        double total = 0;
+        int previous = route.startNode;
+        for (int position = 0; position <= route.size; position++) {
+            int node = route.nodeAt(position);
+            total += problem.matrix.duration(previous, node);
+            previous = node;
+        }
+        return total;
+    }
+
+    private void improve(Problem problem, VehicleRoute[] routes, long deadline) {
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = false;
+            for (VehicleRoute route : routes) {
+                improved |= twoOpt(problem, route);
+                improved |= orOpt(problem, route);
+            }
+            improved |= relocate(problem, routes, deadline);
+        }
+    }
+
+    // Learned costs make the matrix asymmetric, so reversing a segment also changes the cost of
+    // every leg inside it. Prefix sums over the route in both directions price that in O(1).
+    private boolean twoOpt(Problem problem, VehicleRoute route) {
+        boolean improved = false;
+        double[] forward = new double[route.size];
+        double[] backward = new double[route.size];
+        legPrefixSums(problem, route, forward, backward);
+        for (int i = 0; i < route.size - 1; i++) {
+            for (int j = i + 1; j < route.size; j++) {
+                int a = route.nodeBefore(i);
+                int b = route.stops[i];
+                int c = route.stops[j];
+                int d = route.nodeAt(j + 1);
+                double delta = problem.cost(a, c) + problem.cost(b, d)
+                        - problem.cost(a, b) - problem.cost(c, d)
+                        + (backward[j] - backward[i]) - (forward[j] - forward[i]);
+                if (delta < -EPSILON) {
+                    route.reverse(i, j);
+                    legPrefixSums(problem, route, forward, backward);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    // forward[k] is the cost from the first stop to stop k along the route, backward[k] the same
+    // legs travelled the other way
+    private static void legPrefixSums(Problem problem, VehicleRoute route, double[] forward, double[] backward) {
+        for (int k = 1; k < route.size; k++) {
+            forward[k] = forward[k - 1] + problem.cost(route.stops[k - 1], route.stops[k]);
+            backward[k] = backward[k - 1] + problem.cost(route.stops[k], route.stops[k - 1]);
+        }
+    }
+
+    private boolean orOpt(Problem problem, VehicleRoute route) {
+        boolean improved = false;
+        for (int length = 1; length <= MAX_SEGMENT_LENGTH; length++) {
+            for (int i = 0; i + length <= route.size; i++) {
+                int a = route.nodeBefore(i);
+                int first = route.stops[i];
+                int last = route.stops[i + length - 1];
+                int b = route.nodeAt(i + length);
+                double removalGain = problem.cost(a, first) + problem.cost(last, b) - problem.cost(a, b);
+
+                int bestPosition = -1;
+                double bestDelta = -EPSILON;
+                for (int position = 0; position <= route.size; position++) {
+                    if (position >= i && position <= i + length) continue;
+                    int before = route.nodeBefore(position);
+                    int after = route.nodeAt(position);
+                    double delta = problem.cost(before, first) + problem.cost(last, after)
+                            - problem.cost(before, after) - removalGain;
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestPosition = position;
+                    }
+                }
+
+                if (bestPosition >= 0) {
+                    moveSegment(route, i, length, bestPosition);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    private void moveSegment(VehicleRoute route, int from, int length, int position) {
+        int[] segment = Arrays.copyOfRange(route.stops, from, from + length);
+        System.arraycopy(route.stops, from + length, route.stops, from, route.size - from - length);
+        route.size -= length;
+
+        int target = position > from ? position - length : position;
+        System.arraycopy(route.stops, target, route.stops, target + length, route.size - target);
+        System.arraycopy(segment, 0, route.stops, target, length);
+        route.size += length;
+    }
+
+    private boolean relocate(Problem problem, VehicleRoute[] routes, long deadline) {
+        boolean improved = false;
+        for (VehicleRoute source : routes) {
+            if (System.nanoTime() >= deadline) break;
+            for (int i = 0; i < source.size; i++) {
+                int node = source.stops[i];
+                int demand = problem.demand[node];
+                int a = source.nodeBefore(i);
+                int b = source.nodeAt(i + 1);
+                double removalGain = problem.cost(a, node) + problem.cost(node, b) - problem.cost(a, b);
+
+                VehicleRoute bestRoute = null;
+                int bestPosition = -1;
+                double bestDelta = -EPSILON;
+                for (VehicleRoute target : routes) {
+                    if (target == source || !target.fits(demand)) continue;
+                    for (int position = 0; position <= target.size; position++) {
+                        int before = target.nodeBefore(position);
+                        int after = target.nodeAt(position);
+                        double delta = problem.cost(before, node) + problem.cost(node, after)
+                                - problem.cost(before, after) - removalGain;
+                        if (delta < bestDelta) {
+                            bestDelta = delta;
+                            bestRoute = target;
+                            bestPosition = position;
+                        }
+                    }
+                }
+
+                if (bestRoute != null) {
+                    source.remove(i, demand);
+                    bestRoute.insert(bestPosition, node, demand);
+                    improved = true;
+                    i--;
+                }
+            }
+        }
+        return improved;
+    }
+
+    private RouteResponse toResponse(Problem problem, VehicleRoute[] routes, String provider) {
+        List<OptimizedStop> allStops = new ArrayList<>();
+        List<RouteMetrics> routeMetrics = new ArrayList<>();
+        double totalDistance = 0;
+        long totalDuration = 0;
+
+        for (VehicleRoute route : routes) {
+            if (route.size == 0) continue;
+
+            CompactRouteRequest request = problem.request;
+            String vehicleStart = request.vehicleStartTime(route.vehicle);
+            OffsetDateTime startTime = parseTime(vehicleStart != null ? vehicleStart : request.globalStartTime());
+            long elapsed = 0;
+            double routeDistance = 0;
+            long routeDuration = 0;
+
+            int previous = route.startNode;
+            for (int position = 0; position < route.size; position++) {
+                int node = route.stops[position];
+                int service = node - problem.firstService;
+                double distance = problem.cost(previous, node);
+                long travelSeconds = problem.travelSeconds(previous, node);
+
+                elapsed += travelSeconds;
+                String arrival = formatTime(startTime, elapsed);
+                elapsed += problem.serviceSeconds[node];
+                String departure = formatTime(startTime, elapsed);
+
+                allStops.add(new OptimizedStop(
+                        request.serviceId(service), request.serviceLocation(service), arrival, departure,
+                        0, distance, travelSeconds
+                ));
+
+                routeDistance += distance;
+                routeDuration += travelSeconds;
+                previous = node;
+            }
+
+            double closingDistance = problem.cost(previous, route.endNode);
+            long closingSeconds = problem.travelSeconds(previous, route.endNode);
+            routeDistance += closingDistance;
+            routeDuration += closingSeconds;
+            elapsed += closingSeconds;
+
+            routeMetrics.add(new RouteMetrics(
+                    request.vehicleId(route.vehicle), routeDistance, routeDuration, route.size,
+                    formatTime(startTime, 0), formatTime(startTime, elapsed)
+            ));
+
+            totalDistance += routeDistance;
+            totalDuration += routeDuration;
+        }
+
+        return new RouteResponse(totalDistance, totalDuration, allStops, routeMetrics, provider);
+    }
+
+    private static OffsetDateTime parseTime(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return OffsetDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value).atOffset(ZoneOffset.UTC);
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static String formatTime(OffsetDateTime base, long offsetSeconds) {
+        return base != null ? base.plusSeconds(offsetSeconds).toString() : null;
+    }
+
+    private final class Problem {
+
+        final CompactRouteRequest request;
+        final int vehicleCount;
+        final int firstService;
+        final int size;
+        final int[] capacity;
+        final int[] demand;
+        final int[] serviceSeconds;
+        final TravelMatrix matrix;
+
+        Problem(CompactRouteRequest request) {
+            this.request = request;
+            this.matrix = matrixEngine.build(request);
+            this.vehicleCount = matrix.vehicleCount();
+            this.firstService = matrix.firstServiceNode();
+            this.size = matrix.size();
+            this.capacity = new int[vehicleCount];
+            this.demand = new int[size];
+            this.serviceSeconds = new int[size];
+
+            for (int v = 0; v < vehicleCount; v++) {
+                capacity[v] = request.capacity(v) > 0 ? request.capacity(v) : Integer.MAX_VALUE;
+            }
+            for (int s = 0; s < request.serviceCount(); s++) {
+                int node = matrix.serviceNode(s);
+                demand[node] = request.serviceDemand(s);
+                serviceSeconds[node] = request.serviceDuration(s);
+            }
+        }
+
+        double cost(int from, int to) {
+            return matrix.distance(from, to);
+        }
+
+        long travelSeconds(int from, int to) {
+            return Math.round(matrix.duration(from, to));
+        }
+    }
+
+    public record Repair(
+            RouteResponse response,
+            int keptStops,
+            int insertedStops,
+            int unassignedStops,
+            double costRatio
+    ) {}
+}
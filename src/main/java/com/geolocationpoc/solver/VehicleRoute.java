@@ -0,0 +1,60 @@
+package com.geolocationpoc.solver;
+
+import java.util.Arrays;
+
+class VehicleRoute {
+
+    final int vehicle;
+    final int startNode;
+    final int endNode;
+    final int capacity;
+
+    int[] stops = new int[8];
+    int size;
+    int load;
+
+    VehicleRoute(int vehicle, int startNode, int endNode, int capacity) {
+        this.vehicle = vehicle;
+        this.startNode = startNode;
+        this.endNode = endNode;
+        this.capacity = capacity;
+    }
+
+    int nodeBefore(int position) {
+        return position == 0 ? startNode : stops[position - 1];
+    }
+
+    int nodeAt(int position) {
+        return position == size ? endNode : stops[position];
+    }
+
+    boolean fits(int demand) {
+        return load + demand <= capacity;
+    }
+
+    void insert(int position, int node, int demand) {
+        if (size == stops.length) {
+            stops = Arrays.copyOf(stops, size * 2);
+        }
+        System.arraycopy(stops, position, stops, position + 1, size - position);
+        stops[position] = node;
+        size++;
+        load += demand;
+    }
+
+    int remove(int position, int demand) {
+        int node = stops[position];
+        System.arraycopy(stops, position + 1, stops, position, size - position - 1);
+        size--;
+        load -= demand;
+        return node;
+    }
+
+    void reverse(int from, int to) {
+        while (from < to) {
+            int tmp = stops[from];
+            stops[from++] = stops[to];
+            stops[to--] = tmp;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.geolocationpoc.spatial;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+// Uniform lat/lng grid stored as sorted cells over a point permutation. Cells are sized at the
+// highest latitude present, so every cell is at least cellMeters wide and a ring search can stop
+// as soon as the next ring is farther away than the current k-th neighbor.
+public class GridIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_METERS;
+    private static final double MIN_COS_LAT = 0.01;
+
+    private final double[] lat;
+    private final double[] lng;
+    private final double cellMeters;
+    private final double cellLat;
+    private final double cellLng;
+
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] points;
+    private int minRow = Integer.MAX_VALUE, maxRow = Integer.MIN_VALUE;
+    private int minCol = Integer.MAX_VALUE, maxCol = Integer.MIN_VALUE;
+
+    public GridIndex(double[] lat, double[] lng, double cellMeters) {
+        this.lat = lat;
+        this.lng = lng;
+        this.cellMeters = cellMeters;
+
+        double maxAbsLat = 0;
+        for (double value : lat) {
+            maxAbsLat = Math.max(maxAbsLat, Math.abs(value));
+        }
+        this.cellLat = cellMeters / METERS_PER_DEGREE;
+        this.cellLng = cellMeters / (METERS_PER_DEGREE * Math.max(MIN_COS_LAT, Math.cos(Math.toRadians(maxAbsLat))));
+
+        int size = lat.length;
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            int row = row(lat[i]);
+            int col = col(lng[i]);
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+            keys[i] = key(row, col);
+        }
+        this.points = IntStream.range(0, size)
+                .boxed()
+                .sorted((a, b) -> Long.compare(keys[a], keys[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        long[] distinct = new long[size];
+        int[] starts = new int[size + 1];
+        int cells = 0;
+        for (int i = 0; i < size; i++) {
+            long cellKey = keys[points[i]];
+            if (cells == 0 || distinct[cells - 1] != cellKey) {
+                distinct[cells] = cellKey;
+                starts[cells++] = i;
+            }
+        }
+        starts[cells] = size;
+        this.cellKeys = Arrays.copyOf(distinct, cells);
+        this.cellStart = Arrays.copyOf(starts, cells + 1);
+    }
+
+    public int size() {
+        return lat.length;
+    }
+
+    // Indices of the points within radiusMeters, in no particular order
+    public int[] withinRadius(double queryLat, double queryLng, double radiusMeters) {
+        int reach = (int) Math.ceil(radiusMeters / cellMeters);
+        int centerRow = row(queryLat);
+        int centerCol = col(queryLng);
+        int[] found = new int[8];
+        int count = 0;
+        for (int row = centerRow - reach; row <= centerRow + reach; row++) {
+            for (int col = centerCol - reach; col <= centerCol + reach; col++) {
+                int cell = Arrays.binarySearch(cellKeys, key(row, col));
+                if (cell < 0) continue;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int point = points[i];
+                    if (distanceMeters(queryLat, queryLng, lat[point], lng[point]) <= radiusMeters) {
+                        if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                        found[count++] = point;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    // Indices of the k closest points, nearest first
+    public int[] nearest(double queryLat, double queryLng, int k) {
+        int limit = Math.min(k, size());
+        if (limit <= 0) return new int[0];
+
+        // Max-heap on distance, so the current k-th neighbor is always on top
+        PriorityQueue<double[]> best = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(b[0], a[0]));
+        int centerRow = row(queryLat);
+        int centerCol = col(queryLng);
+        int maxRing = Math.max(Math.max(centerRow - minRow, maxRow - centerRow),
+                Math.max(centerCol - minCol, maxCol - centerCol));
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (best.size() == limit && (ring - 1) * cellMeters > best.peek()[0]) break;
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int col = centerCol - ring; col <= centerCol + ring; col += Math.max(1, step)) {
+                    int cell = Arrays.binarySearch(cellKeys, key(row, col));
+                    if (cell < 0) continue;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        int point = points[i];
+                        double distance = distanceMeters(queryLat, queryLng, lat[point], lng[point]);
+                        if (best.size() < limit) {
+                            best.add(new double[]{distance, point});
+                        } else if (distance < best.peek()[0]) {
+                            best.poll();
+                            best.add(new double[]{distance, point});
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] result = new int[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = (int) best.poll()[1];
+        }
+        return result;
+    }
+
+    public static double distanceMeters(double fromLat, double fromLng, double toLat, double toLng) {
+        double sinLat = Math.sin(Math.toRadians(toLat - fromLat) / 2);
+        double sinLng = Math.sin(Math.toRadians(toLng - fromLng) / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(fromLat)) * Math.cos(Math.toRadians(toLat)) * sinLng * sinLng;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private int row(double value) {
+        return (int) Math.floor(value / cellLat);
+    }
+
+    private int col(double value) {
+        return (int) Math.floor(value / cellLng);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+}
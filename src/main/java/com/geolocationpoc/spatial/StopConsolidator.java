@@ -0,0 +1,194 @@
+package com.geolocationpoc.spatial;
+
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RouteMetrics;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Merges stops within mergeRadiusMeters of each other into one stop before dispatch and splits
+// them apart again in the response. A merged stop keeps its first member's id and location, sums
+// service time and demand, and never outgrows the largest vehicle so it stays assignable.
+public class StopConsolidator {
+
+    private final double mergeRadiusMeters;
+
+    public StopConsolidator(double mergeRadiusMeters) {
+        this.mergeRadiusMeters = mergeRadiusMeters;
+    }
+
+    public Consolidation consolidate(RouteRequest request) {
+        List<ServicePoint> services = request.services();
+        if (mergeRadiusMeters <= 0 || services.size() < 2) {
+            return Consolidation.identity(request);
+        }
+
+        int size = services.size();
+        double[] lat = new double[size];
+        double[] lng = new double[size];
+        for (int i = 0; i < size; i++) {
+            lat[i] = services.get(i).location().lat();
+            lng[i] = services.get(i).location().lng();
+        }
+        GridIndex index = new GridIndex(lat, lng, mergeRadiusMeters);
+        int maxDemand = largestCapacity(request.vehicles());
+
+        boolean[] merged = new boolean[size];
+        List<ServicePoint> consolidated = new ArrayList<>(size);
+        Map<String, List<ServicePoint>> groups = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (merged[i]) continue;
+            merged[i] = true;
+            ServicePoint first = services.get(i);
+            int duration = valueOf(first.durationSeconds());
+            int demand = valueOf(first.demandKg());
+            List<ServicePoint> members = null;
+
+            for (int neighbor : index.withinRadius(lat[i], lng[i], mergeRadiusMeters)) {
+                if (merged[neighbor]) continue;
+                ServicePoint candidate = services.get(neighbor);
+                if (demand + valueOf(candidate.demandKg()) > maxDemand) continue;
+                if (members == null) {
+                    members = new ArrayList<>();
+                    members.add(first);
+                }
+                members.add(candidate);
+                merged[neighbor] = true;
+                duration += valueOf(candidate.durationSeconds());
+                demand += valueOf(candidate.demandKg());
+            }
+
+            if (members == null) {
+                consolidated.add(first);
+            } else {
+                consolidated.add(new ServicePoint(first.id(), first.location(), duration, demand));
+                groups.put(first.id(), members);
+            }
+        }
+
+        if (groups.isEmpty()) {
+            return Consolidation.identity(request);
+        }
+        RouteRequest reduced = new RouteRequest(request.vehicles(), consolidated,
+                request.globalStartTime(), request.globalEndTime(), request.optimizerOrder());
+        return new Consolidation(reduced, groups);
+    }
+
+    private static int largestCapacity(List<Vehicle> vehicles) {
+        int largest = 0;
+        for (Vehicle vehicle : vehicles) {
+            if (vehicle.capacityKg() == null || vehicle.capacityKg() <= 0) return Integer.MAX_VALUE;
+            largest = Math.max(largest, vehicle.capacityKg());
+        }
+        return largest > 0 ? largest : Integer.MAX_VALUE;
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    public static final class Consolidation {
+
+        private final RouteRequest request;
+        private final Map<String, List<ServicePoint>> groups;
+
+        private Consolidation(RouteRequest request, Map<String, List<ServicePoint>> groups) {
+            this.request = request;
+            this.groups = groups;
+        }
+
+        static Consolidation identity(RouteRequest request) {
+            return new Consolidation(request, Map.of());
+        }
+
+        public RouteRequest request() {
+            return request;
+        }
+
+        public int mergedStops() {
+            return groups.values().stream().mapToInt(members -> members.size() - 1).sum();
+        }
+
+        // Members are visited back to back in request order: the first one carries the travel leg,
+        // the rest arrive as the previous one departs
+        public RouteResponse expand(RouteResponse response) {
+            if (groups.isEmpty() || response.stops() == null) {
+                return response;
+            }
+
+            List<OptimizedStop> stops = new ArrayList<>(response.stops().size() + mergedStops());
+            int[] expandedSizes = new int[response.stops().size()];
+            for (int s = 0; s < response.stops().size(); s++) {
+                OptimizedStop stop = response.stops().get(s);
+                List<ServicePoint> members = groups.get(stop.serviceId());
+                if (members == null) {
+                    stops.add(stop);
+                    expandedSizes[s] = 1;
+                    continue;
+                }
+                OffsetDateTime arrival = parseTime(stop.arrivalTime());
+                long offset = 0;
+                for (int m = 0; m < members.size(); m++) {
+                    ServicePoint member = members.get(m);
+                    long duration = valueOf(member.durationSeconds());
+                    boolean first = m == 0;
+                    stops.add(new OptimizedStop(
+                            member.id(), member.location(),
+                            arrival != null ? arrival.plusSeconds(offset).toString() : stop.arrivalTime(),
+                            arrival != null ? arrival.plusSeconds(offset + duration).toString() : stop.departureTime(),
+                            first ? stop.waitTimeSeconds() : Integer.valueOf(0),
+                            first ? stop.distanceFromPrevious() : Double.valueOf(0),
+                            first ? stop.travelTimeFromPrevious() : Long.valueOf(0)
+                    ));
+                    offset += duration;
+                }
+                expandedSizes[s] = members.size();
+            }
+
+            return new RouteResponse(response.totalDistanceMeters(), response.totalDurationSeconds(), stops,
+                    expandMetrics(response.routeMetrics(), expandedSizes), response.provider(),
+                    response.selection(), response.refinement());
+        }
+
+        // Stops are laid out route after route, so each route's count grows by its merged members.
+        // Counts that do not line up with the stops are passed through untouched.
+        private static List<RouteMetrics> expandMetrics(List<RouteMetrics> metrics, int[] expandedSizes) {
+            if (metrics == null) return null;
+            int expected = metrics.stream()
+                    .mapToInt(route -> route.servicesPerformed() != null ? route.servicesPerformed() : 0)
+                    .sum();
+            if (expected != expandedSizes.length) return metrics;
+
+            List<RouteMetrics> expanded = new ArrayList<>(metrics.size());
+            int offset = 0;
+            for (RouteMetrics route : metrics) {
+                int count = route.servicesPerformed() != null ? route.servicesPerformed() : 0;
+                int performed = 0;
+                for (int s = offset; s < offset + count; s++) {
+                    performed += expandedSizes[s];
+                }
+                offset += count;
+                expanded.add(new RouteMetrics(route.vehicleId(), route.distanceMeters(), route.durationSeconds(),
+                        performed, route.startTime(), route.endTime()));
+            }
+            return expanded;
+        }
+
+        private static OffsetDateTime parseTime(String value) {
+            if (value == null || value.isEmpty()) return null;
+            try {
+                return OffsetDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+}
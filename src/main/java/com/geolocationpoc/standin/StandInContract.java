@@ -0,0 +1,256 @@
+package com.geolocationpoc.standin;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Answers in the shape the adapters parse: stops are dealt round-robin to vehicles and legs are
+// straight-line distances, which is enough for realistic payload sizes, not for realistic routes
+public enum StandInContract {
+
+    GOOGLE {
+        @Override
+        boolean matches(String path) {
+            return path.startsWith("/v1/projects/") && path.endsWith(":optimizeTours");
+        }
+
+        @Override
+        Plan plan(JsonNode request) {
+            JsonNode model = request.path("model");
+            List<Site> vehicles = new ArrayList<>();
+            for (JsonNode vehicle : model.path("vehicles")) {
+                vehicles.add(new Site(vehicle.path("label").asText(),
+                        vehicle.path("startLocation").path("latitude").asDouble(),
+                        vehicle.path("startLocation").path("longitude").asDouble()));
+            }
+            List<Site> stops = new ArrayList<>();
+            for (JsonNode shipment : model.path("shipments")) {
+                JsonNode location = shipment.path("deliveries").path(0).path("arrivalLocation");
+                stops.add(new Site(shipment.path("label").asText(),
+                        location.path("latitude").asDouble(), location.path("longitude").asDouble()));
+            }
+            return new Plan(vehicles, stops, start(model.path("globalStartTime")));
+        }
+
+        @Override
+        void write(Plan plan, JsonGenerator generator) throws IOException {
+            generator.writeArrayFieldStart("routes");
+            for (Plan.Route route : plan.routes()) {
+                generator.writeStartObject();
+                generator.writeStringField("vehicleLabel", route.vehicle().id());
+                generator.writeStringField("vehicleStartTime", plan.start().toString());
+                generator.writeStringField("vehicleEndTime", plan.start().plusSeconds(route.totalSeconds()).toString());
+
+                generator.writeArrayFieldStart("visits");
+                long elapsed = 0;
+                for (int i = 0; i < route.stops().size(); i++) {
+                    elapsed += route.seconds()[i];
+                    generator.writeStartObject();
+                    generator.writeStringField("shipmentLabel", route.stops().get(i).id());
+                    generator.writeStringField("startTime", plan.start().plusSeconds(elapsed).toString());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+
+                generator.writeArrayFieldStart("transitions");
+                for (int i = 0; i < route.meters().length; i++) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("travelDistanceMeters", route.meters()[i]);
+                    generator.writeStringField("travelDuration", route.seconds()[i] + "s");
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+
+                generator.writeObjectFieldStart("metrics");
+                generator.writeNumberField("performedShipmentCount", route.stops().size());
+                generator.writeNumberField("travelDistanceMeters", route.totalMeters());
+                generator.writeStringField("travelDuration", route.totalSeconds() + "s");
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    },
+
+    MAPBOX {
+        @Override
+        boolean matches(String path) {
+            return path.equals(JOBS_PATH);
+        }
+
+        @Override
+        boolean isAsync() {
+            return true;
+        }
+
+        @Override
+        String pollJobId(String path) {
+            return path.startsWith(JOBS_PATH + "/") ? path.substring(JOBS_PATH.length() + 1) : null;
+        }
+
+        @Override
+        Plan plan(JsonNode request) {
+            List<Site> vehicles = new ArrayList<>();
+            for (JsonNode vehicle : request.path("vehicles")) {
+                JsonNode coordinates = vehicle.path("start").path("coordinates");
+                vehicles.add(new Site(vehicle.path("id").asText(),
+                        coordinates.path(1).asDouble(), coordinates.path(0).asDouble()));
+            }
+            List<Site> stops = new ArrayList<>();
+            for (JsonNode service : request.path("services")) {
+                JsonNode coordinates = service.path("coordinates");
+                stops.add(new Site(service.path("id").asText(),
+                        coordinates.path(1).asDouble(), coordinates.path(0).asDouble()));
+            }
+            return new Plan(vehicles, stops, start(request.path("globalStartTime")));
+        }
+
+        @Override
+        void write(Plan plan, JsonGenerator generator) throws IOException {
+            generator.writeStringField("status", "complete");
+            generator.writeArrayFieldStart("routes");
+            for (Plan.Route route : plan.routes()) {
+                generator.writeStartObject();
+                generator.writeStringField("vehicle", route.vehicle().id());
+                generator.writeArrayFieldStart("stops");
+
+                double odometer = 0;
+                long elapsed = 0;
+                writeStop(generator, "start", "start-" + route.vehicle().id(), plan.start(), odometer);
+                for (int i = 0; i < route.stops().size(); i++) {
+                    odometer += route.meters()[i];
+                    elapsed += route.seconds()[i];
+                    writeStop(generator, "service", route.stops().get(i).id(), plan.start().plusSeconds(elapsed),
+                            odometer);
+                }
+                int last = route.stops().size();
+                writeStop(generator, "end", "end-" + route.vehicle().id(),
+                        plan.start().plusSeconds(elapsed + route.seconds()[last]), odometer + route.meters()[last]);
+
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+
+        private void writeStop(JsonGenerator generator, String type, String location, OffsetDateTime eta,
+                               double odometer) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", type);
+            generator.writeStringField("location", location);
+            generator.writeStringField("eta", eta.toString());
+            generator.writeNumberField("wait", 0);
+            generator.writeNumberField("odometer", odometer);
+            generator.writeEndObject();
+        }
+    };
+
+    private static final String JOBS_PATH = "/optimized-trips/v2";
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final OffsetDateTime DEFAULT_START = OffsetDateTime.of(2025, 1, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    abstract boolean matches(String path);
+
+    // Job id of a poll request for contracts that queue problems and are polled for the solution;
+    // null for synchronous contracts and for any other path
+    String pollJobId(String path) {
+        return null;
+    }
+
+    boolean isAsync() {
+        return false;
+    }
+
+    abstract Plan plan(JsonNode request);
+
+    abstract void write(Plan plan, JsonGenerator generator) throws IOException;
+
+    byte[] respond(JsonNode request, int paddingBytes) {
+        Plan plan = plan(request);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + plan.stops().size() * 160 + paddingBytes);
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            generator.writeStartObject();
+            write(plan, generator);
+            if (paddingBytes > 0) {
+                generator.writeStringField("standInPadding", "x".repeat(paddingBytes));
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static OffsetDateTime start(JsonNode globalStartTime) {
+        try {
+            return globalStartTime.isTextual() ? OffsetDateTime.parse(globalStartTime.asText()) : DEFAULT_START;
+        } catch (RuntimeException e) {
+            return DEFAULT_START;
+        }
+    }
+
+    record Site(String id, double lat, double lng) {
+    }
+
+    record Plan(List<Site> vehicles, List<Site> stops, OffsetDateTime start) {
+
+        private static final double METERS_PER_DEGREE = 111_320;
+        private static final double CIRCUITY = 1.3;
+        private static final double METERS_PER_SECOND = 11.1;
+
+        List<Route> routes() {
+            List<Route> routes = new ArrayList<>();
+            if (vehicles.isEmpty()) {
+                return routes;
+            }
+            List<List<Site>> assigned = new ArrayList<>();
+            vehicles.forEach(vehicle -> assigned.add(new ArrayList<>()));
+            for (int i = 0; i < stops.size(); i++) {
+                assigned.get(i % vehicles.size()).add(stops.get(i));
+            }
+            for (int v = 0; v < vehicles.size(); v++) {
+                routes.add(Route.of(vehicles.get(v), assigned.get(v)));
+            }
+            return routes;
+        }
+
+        record Route(Site vehicle, List<Site> stops, double[] meters, long[] seconds) {
+
+            static Route of(Site vehicle, List<Site> stops) {
+                double[] meters = new double[stops.size() + 1];
+                long[] seconds = new long[stops.size() + 1];
+                Site previous = vehicle;
+                for (int i = 0; i <= stops.size(); i++) {
+                    Site next = i < stops.size() ? stops.get(i) : vehicle;
+                    double dLat = (next.lat() - previous.lat()) * METERS_PER_DEGREE;
+                    double dLng = (next.lng() - previous.lng()) * METERS_PER_DEGREE
+                            * Math.cos(Math.toRadians(previous.lat()));
+                    meters[i] = Math.hypot(dLat, dLng) * CIRCUITY;
+                    seconds[i] = Math.round(meters[i] / METERS_PER_SECOND);
+                    previous = next;
+                }
+                return new Route(vehicle, stops, meters, seconds);
+            }
+
+            double totalMeters() {
+                double total = 0;
+                for (double leg : meters) total += leg;
+                return total;
+            }
+
+            long totalSeconds() {
+                long total = 0;
+                for (long leg : seconds) total += leg;
+                return total;
+            }
+        }
+    }
+}
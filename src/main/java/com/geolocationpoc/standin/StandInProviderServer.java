@@ -0,0 +1,142 @@
+package com.geolocationpoc.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPInputStream;
+
+// Speaks one provider contract on its own port so latency and failure behaviour can differ per provider
+public class StandInProviderServer {
+
+    private static final Logger log = LoggerFactory.getLogger(StandInProviderServer.class);
+    private static final String INJECTED_FAILURE = "{\"error\":{\"code\":503,\"message\":\"stand-in injected failure\"}}";
+    private static final String PROCESSING = "{\"status\":\"processing\"}";
+    private static final Duration JOB_RETENTION = Duration.ofMinutes(5);
+
+    private final StandInContract contract;
+    private final StandInSettings settings;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final DisposableServer server;
+
+    private StandInProviderServer(StandInContract contract, StandInSettings settings) {
+        this.contract = contract;
+        this.settings = settings;
+        this.server = HttpServer.create()
+                .port(settings.port())
+                .compress(true)
+                .handle(this::handle)
+                .bindNow();
+        log.info("Stand-in {} provider listening on port {} (median latency {}, error rate {})",
+                contract, server.port(), settings.medianLatency(), settings.errorRate());
+    }
+
+    public static StandInProviderServer start(StandInContract contract, StandInSettings settings) {
+        return new StandInProviderServer(contract, settings);
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    public void stop() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        String jobId = contract.pollJobId(request.fullPath());
+        if (request.method() == HttpMethod.GET && jobId != null) {
+            return poll(jobId, response);
+        }
+        if (request.method() != HttpMethod.POST || !contract.matches(request.fullPath())) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+
+        boolean gzip = "gzip".equalsIgnoreCase(request.requestHeaders().get(HttpHeaderNames.CONTENT_ENCODING));
+        Mono<JsonNode> body = request.receive().aggregate().asInputStream().map(in -> read(in, gzip));
+        // Async contracts answer the submit at once and spend the sampled latency "solving"
+        return (contract.isAsync() ? body : body.delayUntil(problem -> Mono.delay(sampleLatency())))
+                .flatMap(problem -> {
+                    if (ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                        return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Mono.just(INJECTED_FAILURE))
+                                .then();
+                    }
+                    if (contract.isAsync()) {
+                        return submit(problem, response);
+                    }
+                    return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                            .sendByteArray(Mono.fromCallable(() -> contract.respond(problem, settings.paddingBytes())))
+                            .then();
+                })
+                .onErrorResume(e -> response.status(HttpResponseStatus.BAD_REQUEST)
+                        .sendString(Mono.just(String.valueOf(e.getMessage())))
+                        .then());
+    }
+
+    private Mono<Void> submit(JsonNode problem, HttpServerResponse response) {
+        long now = System.nanoTime();
+        // Jobs nobody came back for would otherwise pile up
+        jobs.values().removeIf(job -> now - job.readyAt() > JOB_RETENTION.toNanos());
+        String id = UUID.randomUUID().toString();
+        jobs.put(id, new Job(now + sampleLatency().toNanos(), contract.respond(problem, settings.paddingBytes())));
+        return response.status(HttpResponseStatus.ACCEPTED)
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendString(Mono.just("{\"id\":\"" + id + "\",\"status\":\"ok\"}"))
+                .then();
+    }
+
+    // 202 while the job is still "solving"; the solution is handed out once and then forgotten
+    private Mono<Void> poll(String jobId, HttpServerResponse response) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send().then();
+        }
+        if (System.nanoTime() < job.readyAt()) {
+            return response.status(HttpResponseStatus.ACCEPTED)
+                    .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .sendString(Mono.just(PROCESSING))
+                    .then();
+        }
+        jobs.remove(jobId);
+        return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendByteArray(Mono.just(job.solution()))
+                .then();
+    }
+
+    private JsonNode read(InputStream body, boolean gzip) {
+        try (InputStream in = gzip ? new GZIPInputStream(body) : body) {
+            return mapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Duration sampleLatency() {
+        double factor = Math.exp(settings.latencySigma() * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos((long) (settings.medianLatency().toNanos() * factor));
+    }
+
+    private record Job(long readyAt, byte[] solution) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.geolocationpoc.standin;
+
+import org.springframework.core.env.PropertyResolver;
+
+import java.time.Duration;
+
+// Latency is log-normal around the median; sigma 0 gives a fixed delay, 0.5 a p99 of about 3.2x the median
+public record StandInSettings(
+        int port,
+        Duration medianLatency,
+        double latencySigma,
+        double errorRate,
+        int paddingBytes) {
+
+    public static StandInSettings forProvider(PropertyResolver properties, String provider, int defaultPort) {
+        String prefix = "standin." + provider + ".";
+        return new StandInSettings(
+                properties.getProperty(prefix + "port", Integer.class, defaultPort),
+                properties.getProperty(prefix + "medianLatency", Duration.class, Duration.ofMillis(500)),
+                properties.getProperty(prefix + "latencySigma", Double.class, 0.5),
+                properties.getProperty(prefix + "errorRate", Double.class, 0.0),
+                properties.getProperty(prefix + "paddingBytes", Integer.class, 0)
+        );
+    }
+}
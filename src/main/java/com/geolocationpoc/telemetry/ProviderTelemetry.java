@@ -0,0 +1,130 @@
+package com.geolocationpoc.telemetry;
+
+import com.geolocationpoc.service.routing.CircuitOpenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Phases are observations, so the same instrumentation yields the route.provider.phase timer
+// and, when a tracing bridge is on the classpath, one span per phase
+public class ProviderTelemetry {
+
+    public static final String PHASE_BUILD = "build";
+    public static final String PHASE_TOKEN = "token";
+    public static final String PHASE_NETWORK = "network";
+    public static final String PHASE_PARSE = "parse";
+    public static final String PHASE_POLL = "poll";
+
+    public static final String DIRECTION_REQUEST = "request";
+    public static final String DIRECTION_RESPONSE = "response";
+
+    private static final String PHASE_OBSERVATION = "route.provider.phase";
+
+    private final MeterRegistry meters;
+    private final ObservationRegistry observations;
+
+    public ProviderTelemetry(MeterRegistry meters, ObservationRegistry observations) {
+        this.meters = meters;
+        this.observations = observations;
+    }
+
+    public static ProviderTelemetry noop() {
+        return new ProviderTelemetry(new CompositeMeterRegistry(), ObservationRegistry.NOOP);
+    }
+
+    public <T> Mono<T> observe(String provider, String phase, Mono<T> source) {
+        return Mono.defer(() -> {
+            Observation observation = phaseObservation(provider, phase).start();
+            return source
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop());
+        });
+    }
+
+    public <T> T observe(String provider, String phase, Supplier<T> work) {
+        return phaseObservation(provider, phase).observe(work);
+    }
+
+    public void observeChecked(String provider, String phase,
+                               Observation.CheckedRunnable<IOException> work) throws IOException {
+        phaseObservation(provider, phase).observeChecked(work);
+    }
+
+    public void registerOutstandingJobs(String provider, Supplier<Number> outstanding) {
+        Gauge.builder("route.provider.jobs.outstanding", outstanding)
+                .tag("provider", provider)
+                .register(meters);
+    }
+
+    public void recordPayload(String provider, String direction, long bytes) {
+        DistributionSummary.builder("route.provider.payload")
+                .baseUnit("bytes")
+                .tag("provider", provider)
+                .tag("direction", direction)
+                .publishPercentileHistogram()
+                .register(meters)
+                .record(bytes);
+    }
+
+    // End-to-end per provider call, bulkhead queuing included
+    public void recordCall(String provider, long elapsedMillis, Throwable error) {
+        Timer.builder("route.provider.latency")
+                .tag("provider", provider)
+                .tag("outcome", error == null ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meters)
+                .record(elapsedMillis, TimeUnit.MILLISECONDS);
+        if (error != null) {
+            recordError(provider, error);
+        }
+    }
+
+    public void recordError(String provider, Throwable error) {
+        Counter.builder("route.provider.errors")
+                .tag("provider", provider)
+                .tag("cause", cause(error))
+                .register(meters)
+                .increment();
+    }
+
+    public void recordWin(String provider) {
+        Counter.builder("route.provider.wins")
+                .tag("provider", provider)
+                .register(meters)
+                .increment();
+    }
+
+    private Observation phaseObservation(String provider, String phase) {
+        return Observation.createNotStarted(PHASE_OBSERVATION, observations)
+                .lowCardinalityKeyValue("provider", provider)
+                .lowCardinalityKeyValue("phase", phase);
+    }
+
+    private static String cause(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof TimeoutException) return "timeout";
+            if (current instanceof CircuitOpenException) return "circuit_open";
+            if (current instanceof RejectedExecutionException) return "rejected";
+            if (current instanceof WebClientResponseException response) {
+                if (response.getStatusCode().is4xxClientError()) return "http_4xx";
+                if (response.getStatusCode().is5xxServerError()) return "http_5xx";
+                return "http_other";
+            }
+            if (current instanceof IOException) return "io";
+        }
+        return "other";
+    }
+}
@@ -1,13 +1,28 @@
 package com.geolocationpoc;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
 
-@SpringBootTest
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Keeps the context from creating the jobs database under ./data
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:jobs")
 class GeolocationPocApplicationTests {
 
+    @Autowired
+    private ConfigurableApplicationContext context;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void providerClientsAreNotBuiltAtStartup() {
+        assertThat(context.getBeanFactory().containsSingleton("googleApiClient")).isFalse();
+        assertThat(context.getBeanFactory().containsSingleton("mapboxApiClient")).isFalse();
+        assertThat(context.getBeanFactory().containsSingleton("googleAccessTokenManager")).isFalse();
+    }
+
 }
@@ -0,0 +1,161 @@
+package com.geolocationpoc.cache;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InFlightCoalescerTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+    private static final RouteResponse ANSWER = new RouteResponse(1000.0, 600L, List.of(), List.of(), "Google");
+
+    private final RequestCanonicalizer canonicalizer = new RequestCanonicalizer(0.0001, Duration.ofMinutes(15));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneComputation() {
+        InFlightCoalescer coalescer = coalescer(true, Duration.ofSeconds(2));
+        Sinks.One<RouteResponse> upstream = Sinks.one();
+
+        CompletableFuture<RouteResponse> first = call(coalescer, "best", upstream.asMono()).toFuture();
+        CompletableFuture<RouteResponse> second = call(coalescer, "best", upstream.asMono()).toFuture();
+        upstream.tryEmitValue(ANSWER);
+
+        assertThat(first.join()).isSameAs(ANSWER);
+        assertThat(second.join()).isSameAs(ANSWER);
+        assertThat(loads).hasValue(1);
+        assertThat(coalescer.statistics().leaders()).isEqualTo(1);
+        assertThat(coalescer.statistics().joiners()).isEqualTo(1);
+    }
+
+    @Test
+    void differentScopesNeverShare() {
+        InFlightCoalescer coalescer = coalescer(true, Duration.ofSeconds(2));
+        Sinks.One<RouteResponse> upstream = Sinks.one();
+
+        call(coalescer, "Google", upstream.asMono()).toFuture();
+        call(coalescer, "Mapbox", upstream.asMono()).toFuture();
+
+        assertThat(loads).hasValue(2);
+        assertThat(coalescer.statistics().inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void callsJustAfterSuccessReuseTheResult() {
+        InFlightCoalescer coalescer = coalescer(true, Duration.ofMinutes(1));
+
+        call(coalescer, "best", Mono.just(ANSWER)).block();
+        RouteResponse again = call(coalescer, "best", Mono.just(ANSWER)).block();
+
+        assertThat(again).isSameAs(ANSWER);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void callsAfterTheJoinWindowComputeAgain() {
+        InFlightCoalescer coalescer = coalescer(true, Duration.ZERO);
+
+        call(coalescer, "best", Mono.just(ANSWER)).block();
+        call(coalescer, "best", Mono.just(ANSWER)).block();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void failuresAreNotShared() {
+        InFlightCoalescer coalescer = coalescer(true, Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> call(coalescer, "best", Mono.error(new IllegalStateException("down"))).block())
+                .hasMessage("down");
+        RouteResponse retry = call(coalescer, "best", Mono.just(ANSWER)).block();
+
+        assertThat(retry).isSameAs(ANSWER);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void lateJoinersCatchUpOnPartialResults() {
+        InFlightCoalescer coalescer = coalescer(true, Duration.ofSeconds(2));
+        Sinks.One<RouteResponse> upstream = Sinks.one();
+        AtomicReference<Consumer<RouteResponse>> publish = new AtomicReference<>();
+        List<String> early = new CopyOnWriteArrayList<>();
+        List<String> late = new CopyOnWriteArrayList<>();
+        RouteResponse mapbox = new RouteResponse(1200.0, 700L, List.of(), List.of(), "Mapbox");
+
+        CompletableFuture<RouteResponse> first = coalescer.coalesce("best", request(), listener -> {
+            publish.set(listener);
+            return upstream.asMono();
+        }, partial -> early.add(partial.provider())).toFuture();
+        publish.get().accept(mapbox);
+        CompletableFuture<RouteResponse> second = coalescer.coalesce("best", request(),
+                listener -> Mono.never(), partial -> late.add(partial.provider())).toFuture();
+        publish.get().accept(ANSWER);
+        upstream.tryEmitValue(ANSWER);
+
+        assertThat(first.join()).isSameAs(second.join());
+        assertThat(early).containsExactly("Mapbox", "Google");
+        assertThat(late).containsExactly("Mapbox", "Google");
+    }
+
+    @Test
+    void computationIsCancelledOnlyOnceEveryCallerHasGone() {
+        InFlightCoalescer coalescer = coalescer(true, Duration.ofSeconds(2));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<RouteResponse> upstream = Mono.<RouteResponse>never().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = call(coalescer, "best", upstream).subscribe();
+        Disposable second = call(coalescer, "best", upstream).subscribe();
+        first.dispose();
+
+        assertThat(cancelled).isFalse();
+        second.dispose();
+        assertThat(cancelled).isTrue();
+        assertThat(coalescer.statistics().inFlight()).isZero();
+    }
+
+    @Test
+    void disabledCoalescerCallsTheLoaderEveryTime() {
+        InFlightCoalescer coalescer = coalescer(false, Duration.ofMinutes(1));
+
+        call(coalescer, "best", Mono.just(ANSWER)).block();
+        call(coalescer, "best", Mono.just(ANSWER)).block();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private InFlightCoalescer coalescer(boolean enabled, Duration joinWindow) {
+        return new InFlightCoalescer(canonicalizer, new SimpleMeterRegistry(), enabled, joinWindow);
+    }
+
+    private Mono<RouteResponse> call(InFlightCoalescer coalescer, String scope, Mono<RouteResponse> upstream) {
+        return coalescer.coalesce(scope, request(), listener -> {
+            loads.incrementAndGet();
+            return upstream;
+        }, partial -> {});
+    }
+
+    private static RouteRequest request() {
+        return new RouteRequest(List.of(new Vehicle("van", DEPOT, DEPOT, null, null, 1000)),
+                List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), 300, 10)),
+                "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+    }
+}
@@ -0,0 +1,87 @@
+package com.geolocationpoc.cache;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCanonicalizerTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final RequestCanonicalizer canonicalizer = new RequestCanonicalizer(0.0001, Duration.ofMinutes(15));
+
+    @Test
+    void orderOfServicesAndVehiclesDoesNotMatter() {
+        RouteRequest request = request(List.of(vehicle("v1"), vehicle("v2")),
+                List.of(service("a", 52.53, 13.41), service("b", 52.54, 13.42)), "2026-01-05T08:00:00Z");
+        RouteRequest shuffled = request(List.of(vehicle("v2"), vehicle("v1")),
+                List.of(service("b", 52.54, 13.42), service("a", 52.53, 13.41)), "2026-01-05T08:00:00Z");
+
+        assertThat(canonicalizer.fingerprint("best", shuffled)).isEqualTo(canonicalizer.fingerprint("best", request));
+    }
+
+    @Test
+    void coordinatesWithinThePrecisionShareAKey() {
+        RouteRequest request = request(List.of(vehicle("v1")), List.of(service("a", 52.53, 13.41)),
+                "2026-01-05T08:00:00Z");
+        RouteRequest jittered = request(List.of(vehicle("v1")), List.of(service("a", 52.530004, 13.409996)),
+                "2026-01-05T08:00:00Z");
+        RouteRequest moved = request(List.of(vehicle("v1")), List.of(service("a", 52.5302, 13.41)),
+                "2026-01-05T08:00:00Z");
+
+        assertThat(canonicalizer.fingerprint("best", jittered)).isEqualTo(canonicalizer.fingerprint("best", request));
+        assertThat(canonicalizer.fingerprint("best", moved)).isNotEqualTo(canonicalizer.fingerprint("best", request));
+    }
+
+    @Test
+    void timesAreBucketedAcrossOffsets() {
+        List<ServicePoint> services = List.of(service("a", 52.53, 13.41));
+        RequestFingerprint base = canonicalizer.fingerprint("best",
+                request(List.of(vehicle("v1")), services, "2026-01-05T08:00:00Z"));
+
+        assertThat(canonicalizer.fingerprint("best",
+                request(List.of(vehicle("v1")), services, "2026-01-05T09:10:00+01:00"))).isEqualTo(base);
+        assertThat(canonicalizer.fingerprint("best",
+                request(List.of(vehicle("v1")), services, "2026-01-05T08:20:00Z"))).isNotEqualTo(base);
+    }
+
+    @Test
+    void scopeIsCaseInsensitiveButSeparatesProviders() {
+        RouteRequest request = request(List.of(vehicle("v1")), List.of(service("a", 52.53, 13.41)),
+                "2026-01-05T08:00:00Z");
+
+        RequestFingerprint google = canonicalizer.fingerprint("Google", request);
+
+        assertThat(canonicalizer.fingerprint("google", request)).isEqualTo(google);
+        assertThat(canonicalizer.fingerprint("Mapbox", request)).isNotEqualTo(google);
+    }
+
+    @Test
+    void demandIsPartOfTheKey() {
+        RouteRequest request = request(List.of(vehicle("v1")), List.of(service("a", 52.53, 13.41)),
+                "2026-01-05T08:00:00Z");
+        RouteRequest heavier = request(List.of(vehicle("v1")),
+                List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), 300, 20)), "2026-01-05T08:00:00Z");
+
+        assertThat(canonicalizer.fingerprint("best", heavier)).isNotEqualTo(canonicalizer.fingerprint("best", request));
+    }
+
+    private static RouteRequest request(List<Vehicle> vehicles, List<ServicePoint> services, String start) {
+        return new RouteRequest(vehicles, services, start, "2026-01-05T18:00:00Z", true);
+    }
+
+    private static Vehicle vehicle(String id) {
+        return new Vehicle(id, DEPOT, DEPOT, null, null, 1000);
+    }
+
+    private static ServicePoint service(String id, double lat, double lng) {
+        return new ServicePoint(id, new Coordinate(lat, lng), 300, 10);
+    }
+}
@@ -0,0 +1,87 @@
+package com.geolocationpoc.cache;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteResultCacheTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final RequestCanonicalizer canonicalizer = new RequestCanonicalizer(0.0001, Duration.ofMinutes(15));
+    private final RouteRequest request = new RouteRequest(
+            List.of(new Vehicle("van", DEPOT, DEPOT, null, null, 1000)),
+            List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), 300, 10)),
+            "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void secondLookupIsServedFromTheCache() {
+        RouteResultCache cache = new RouteResultCache(canonicalizer, true, 100, Duration.ofMinutes(10));
+
+        RouteResponse first = cache.get("Google", request, this::load).block();
+        RouteResponse second = cache.get("Google", request, this::load).block();
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.statistics().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void loaderIsNotCalledUntilSubscribed() {
+        RouteResultCache cache = new RouteResultCache(canonicalizer, true, 100, Duration.ofMinutes(10));
+
+        Mono<RouteResponse> pending = cache.get("Google", request, this::load);
+
+        assertThat(loads).hasValue(0);
+        pending.block();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void answersFailingThePredicateAreNotKept() {
+        RouteResultCache cache = new RouteResultCache(canonicalizer, true, 100, Duration.ofMinutes(10));
+
+        cache.get("best", request, this::load, response -> false).block();
+        cache.get("best", request, this::load, response -> false).block();
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.statistics().size()).isZero();
+    }
+
+    @Test
+    void scopesAreCachedApart() {
+        RouteResultCache cache = new RouteResultCache(canonicalizer, true, 100, Duration.ofMinutes(10));
+        cache.put("Google", request, new RouteResponse(1.0, 1L, List.of(), List.of(), "Google"));
+
+        RouteResponse mapbox = cache.get("Mapbox", request, this::load).block();
+
+        assertThat(mapbox.provider()).isEqualTo("Loaded");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        RouteResultCache cache = new RouteResultCache(canonicalizer, false, 100, Duration.ofMinutes(10));
+
+        cache.get("Google", request, this::load).block();
+        cache.get("Google", request, this::load).block();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Mono<RouteResponse> load() {
+        loads.incrementAndGet();
+        return Mono.just(new RouteResponse(1.0, 1L, List.of(), List.of(), "Loaded"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.geolocationpoc.client;
+
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GoogleAccessTokenManagerTest {
+
+    private final CountingCredentials credentials = new CountingCredentials();
+    private GoogleAccessTokenManager manager;
+
+    @AfterEach
+    void close() {
+        if (manager != null) {
+            manager.close();
+        }
+    }
+
+    @Test
+    void concurrentCallersShareOneFetch() {
+        credentials.lifetime = Duration.ofHours(1);
+        manager = new GoogleAccessTokenManager(Duration.ofMinutes(5), credentials);
+
+        List<String> tokens = Flux.range(0, 20)
+                .flatMap(i -> manager.accessToken().subscribeOn(Schedulers.parallel()))
+                .collectList()
+                .block();
+
+        assertThat(tokens).hasSize(20).containsOnly("token-1");
+        assertThat(credentials.fetches).hasValue(1);
+    }
+
+    @Test
+    void validTokenIsServedWithoutFetchingAgain() {
+        credentials.lifetime = Duration.ofHours(1);
+        manager = new GoogleAccessTokenManager(Duration.ofMinutes(5), credentials);
+
+        manager.accessToken().block();
+        String second = manager.accessToken().block();
+
+        assertThat(second).isEqualTo("token-1");
+        assertThat(credentials.fetches).hasValue(1);
+    }
+
+    @Test
+    void tokenIsRefreshedAheadOfItsExpiry() throws InterruptedException {
+        // Due for refresh as soon as it arrives, so the background refresh runs after the one-second floor
+        credentials.lifetime = Duration.ofSeconds(30);
+        manager = new GoogleAccessTokenManager(Duration.ofMinutes(1), credentials);
+
+        manager.accessToken().block();
+        Thread.sleep(1500);
+
+        assertThat(credentials.fetches.get()).isGreaterThanOrEqualTo(2);
+        assertThat(manager.accessToken().block()).isNotEqualTo("token-1");
+    }
+
+    @Test
+    void staticTokenNeverTouchesCredentials() {
+        manager = new GoogleAccessTokenManager(Duration.ofMinutes(5), "fixed");
+
+        assertThat(manager.accessToken().block()).isEqualTo("fixed");
+    }
+
+    private static final class CountingCredentials extends GoogleCredentials {
+
+        final AtomicInteger fetches = new AtomicInteger();
+        volatile Duration lifetime;
+
+        @Override
+        public AccessToken refreshAccessToken() {
+            int fetch = fetches.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new AccessToken("token-" + fetch, Date.from(Instant.now().plus(lifetime)));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.geolocationpoc.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GoogleOptimizationClientTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final GoogleOptimizationClient client = new GoogleOptimizationClient(WebClient.builder(), "project");
+
+    @Test
+    void streamedRequestCarriesEveryShipmentAndVehicle() throws IOException {
+        RouteRequest request = new RouteRequest(
+                List.of(new Vehicle("van", DEPOT, new Coordinate(52.50, 13.40), null, null, 800)),
+                List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), 300, 25),
+                        new ServicePoint("b", new Coordinate(52.54, 13.42), 120, 0)),
+                "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+
+        JsonNode model = write(request).path("model");
+
+        JsonNode first = model.path("shipments").get(0);
+        assertThat(first.path("label").asText()).isEqualTo("a");
+        assertThat(first.path("deliveries").get(0).path("arrivalLocation").path("latitude").asDouble())
+                .isEqualTo(52.53);
+        assertThat(first.path("deliveries").get(0).path("duration").asText()).isEqualTo("300s");
+        assertThat(first.path("deliveries").get(0).path("loadDemands").path("weight").path("amount").asInt())
+                .isEqualTo(25);
+        assertThat(model.path("shipments").get(1).path("deliveries").get(0).has("loadDemands")).isFalse();
+
+        JsonNode vehicle = model.path("vehicles").get(0);
+        assertThat(vehicle.path("label").asText()).isEqualTo("van");
+        assertThat(vehicle.path("endLocation").path("latitude").asDouble()).isEqualTo(52.50);
+        assertThat(vehicle.path("loadLimits").path("weight").path("maxLoad").asInt()).isEqualTo(800);
+        assertThat(model.path("globalStartTime").asText()).isEqualTo("2026-01-05T08:00:00Z");
+    }
+
+    private JsonNode write(RouteRequest request) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            client.writeOptimizationRequest(request, generator);
+        }
+        return mapper.readTree(out.toString());
+    }
+}
@@ -0,0 +1,49 @@
+package com.geolocationpoc.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpTransportFactoryTest {
+
+    private final HttpTransportFactory transports = new HttpTransportFactory();
+    private HttpServer server;
+
+    @AfterEach
+    void stop() {
+        transports.destroy();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void connectorFallsBackToHttp11ForAPlainTextServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ping", exchange -> {
+            byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        WebClient client = WebClient.builder()
+                .clientConnector(transports.connector("test",
+                        HttpTransportSettings.forProvider(new MockEnvironment(), "test")))
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+
+        assertThat(client.get().uri("/ping").retrieve().bodyToMono(String.class).block()).isEqualTo("pong");
+    }
+}
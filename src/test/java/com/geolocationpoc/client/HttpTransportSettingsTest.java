@@ -0,0 +1,51 @@
+package com.geolocationpoc.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpTransportSettingsTest {
+
+    @Test
+    void providerSettingWinsOverTheSharedDefault() {
+        MockEnvironment environment = environment()
+                .withProperty("http.default.maxConnections", "50")
+                .withProperty("http.google.maxConnections", "200");
+
+        assertThat(HttpTransportSettings.forProvider(environment, "google").maxConnections()).isEqualTo(200);
+        assertThat(HttpTransportSettings.forProvider(environment, "mapbox").maxConnections()).isEqualTo(50);
+    }
+
+    @Test
+    void unsetValuesFallBackToTheBuiltInDefaults() {
+        HttpTransportSettings settings = HttpTransportSettings.forProvider(environment(), "mapbox");
+
+        assertThat(settings.maxConnections()).isEqualTo(100);
+        assertThat(settings.http2()).isTrue();
+        assertThat(settings.gzipRequestsAboveBytes()).isEqualTo(-1);
+        assertThat(settings.connectTimeout()).isEqualTo(Duration.ofSeconds(3));
+    }
+
+    @Test
+    void durationsAndFlagsAreConverted() {
+        MockEnvironment environment = environment()
+                .withProperty("http.default.responseTimeout", "45s")
+                .withProperty("http.mapbox.http2", "false");
+
+        HttpTransportSettings settings = HttpTransportSettings.forProvider(environment, "mapbox");
+
+        assertThat(settings.responseTimeout()).isEqualTo(Duration.ofSeconds(45));
+        assertThat(settings.http2()).isFalse();
+    }
+
+    // Spring Boot's conversion service, as the application environment has, so "45s" reads as a Duration
+    private static MockEnvironment environment() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setConversionService(new ApplicationConversionService());
+        return environment;
+    }
+}
@@ -0,0 +1,125 @@
+package com.geolocationpoc.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MapboxJobPollingTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final AtomicInteger polls = new AtomicInteger();
+    private volatile int pollsUntilSolved;
+    private volatile String submitAnswer = "{\"id\": \"job-1\", \"status\": \"ok\"}";
+    private HttpServer server;
+    private MapboxOptimizationClient client;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/optimized-trips/v2", exchange -> {
+            if (exchange.getRequestMethod().equals("POST")) {
+                exchange.getRequestBody().readAllBytes();
+                respond(exchange, 202, submitAnswer);
+            } else if (!exchange.getRequestURI().getPath().endsWith("/job-1")) {
+                respond(exchange, 404, "{}");
+            } else if (polls.incrementAndGet() < pollsUntilSolved) {
+                respond(exchange, 202, "{\"status\": \"processing\"}");
+            } else {
+                respond(exchange, 200, "{\"status\": \"complete\", \"routes\": []}");
+            }
+        });
+        server.start();
+        client = new MapboxOptimizationClient(WebClient.builder(),
+                "http://127.0.0.1:" + server.getAddress().getPort(), "token", -1, ProviderTelemetry.noop());
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void pollsUntilTheSolutionIsReady() throws InterruptedException {
+        pollsUntilSolved = 3;
+
+        JsonNode solution = client.optimizeRoutesAsync(request()).block(Duration.ofSeconds(10));
+
+        assertThat(solution.path("status").asText()).isEqualTo("complete");
+        assertThat(polls).hasValue(3);
+        assertThat(outstandingJobsSettle()).isZero();
+    }
+
+    @Test
+    void cancellingTheCallStopsPolling() throws InterruptedException {
+        pollsUntilSolved = Integer.MAX_VALUE;
+
+        Disposable call = client.optimizeRoutesAsync(request()).subscribe();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (polls.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        call.dispose();
+        int pollsAtCancel = polls.get();
+        Thread.sleep(1000);
+
+        assertThat(pollsAtCancel).isGreaterThanOrEqualTo(2);
+        assertThat(polls.get()).isLessThanOrEqualTo(pollsAtCancel + 1);
+        assertThat(outstandingJobsSettle()).isZero();
+    }
+
+    @Test
+    void submitWithoutAJobIdFails() {
+        submitAnswer = "{\"status\": \"ok\"}";
+
+        assertThatThrownBy(() -> client.optimizeRoutesAsync(request()).block(Duration.ofSeconds(10)))
+                .hasMessageContaining("request failed")
+                .hasRootCauseMessage("Mapbox accepted the problem without a job id: {\"status\": \"ok\"}");
+        assertThat(polls).hasValue(0);
+    }
+
+    // The count drops in doFinally, which may run just after the caller has its answer
+    private int outstandingJobsSettle() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (client.outstandingJobs() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return client.outstandingJobs();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static RouteRequest request() {
+        return new RouteRequest(List.of(new Vehicle("van", DEPOT, DEPOT, null, null, 1000)),
+                List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), 300, 10)),
+                "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+    }
+}
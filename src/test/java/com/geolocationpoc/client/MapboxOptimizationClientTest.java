@@ -0,0 +1,70 @@
+package com.geolocationpoc.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MapboxOptimizationClientTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final MapboxOptimizationClient client = new MapboxOptimizationClient(WebClient.builder(), "token");
+
+    @Test
+    void streamedRequestUsesLongitudeFirstCoordinates() throws IOException {
+        RouteRequest request = new RouteRequest(
+                List.of(new Vehicle("van", DEPOT, DEPOT, null, null, 800)),
+                List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), 300, 25)),
+                "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+
+        JsonNode body = write(request);
+
+        assertThat(body.path("version").asInt()).isEqualTo(1);
+        JsonNode vehicle = body.path("vehicles").get(0);
+        assertThat(vehicle.path("id").asText()).isEqualTo("van");
+        assertThat(vehicle.path("start").path("coordinates").get(0).asDouble()).isEqualTo(13.405);
+        assertThat(vehicle.path("start").path("coordinates").get(1).asDouble()).isEqualTo(52.52);
+        assertThat(vehicle.path("capacity").asInt()).isEqualTo(800);
+
+        JsonNode service = body.path("services").get(0);
+        assertThat(service.path("id").asText()).isEqualTo("a");
+        assertThat(service.path("coordinates").get(0).asDouble()).isEqualTo(13.41);
+        assertThat(service.path("duration").asInt()).isEqualTo(300);
+        assertThat(service.path("size").asInt()).isEqualTo(25);
+    }
+
+    @Test
+    void missingNumbersAreWrittenAsZeroRatherThanNull() throws IOException {
+        RouteRequest request = new RouteRequest(
+                List.of(new Vehicle("van", DEPOT, null, null, null, null)),
+                List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), null, null)),
+                "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+
+        JsonNode body = write(request);
+
+        assertThat(body.toString()).doesNotContain("null");
+        assertThat(body.path("services").get(0).path("duration").asInt()).isZero();
+        assertThat(body.path("vehicles").get(0).path("end").path("coordinates").get(1).asDouble()).isEqualTo(52.52);
+    }
+
+    private JsonNode write(RouteRequest request) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            client.writeOptimizationRequest(request, generator);
+        }
+        return mapper.readTree(out.toString());
+    }
+}
@@ -0,0 +1,36 @@
+package com.geolocationpoc.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SolveTimeEstimatorTest {
+
+    private final SolveTimeEstimator estimator = new SolveTimeEstimator();
+
+    @Test
+    void startsFromAFixedCostPlusAPerStopCost() {
+        assertThat(estimator.expected(100)).isEqualTo(Duration.ofMillis(1200));
+    }
+
+    @Test
+    void firstObservationIsTakenAsIsAndLaterOnesAreSmoothed() {
+        estimator.record(100, Duration.ofSeconds(10).toNanos());
+        assertThat(estimator.expected(100)).isEqualTo(Duration.ofSeconds(10));
+
+        estimator.record(100, Duration.ofSeconds(20).toNanos());
+        assertThat(estimator.expected(100)).isEqualTo(Duration.ofSeconds(12));
+    }
+
+    @Test
+    void unobservedSizesScaleFromTheNearestObservedClass() {
+        // 100 stops fall in the 64..127 class; 300 stops are two classes up
+        estimator.record(100, Duration.ofSeconds(4).toNanos());
+
+        assertThat(estimator.expected(120)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(estimator.expected(300)).isEqualTo(Duration.ofSeconds(16));
+        assertThat(estimator.expected(40)).isEqualTo(Duration.ofSeconds(2));
+    }
+}
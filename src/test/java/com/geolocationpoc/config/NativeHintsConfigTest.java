@@ -0,0 +1,27 @@
+package com.geolocationpoc.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeHintsConfigTest {
+
+    @Test
+    void everyDtoHasABindingHint() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+        String[] dtos = scanner.findCandidateComponents("com.geolocationpoc.dto").stream()
+                .map(BeanDefinition::getBeanClassName)
+                .toArray(String[]::new);
+
+        Class<?>[] hinted = NativeHintsConfig.class.getAnnotation(RegisterReflectionForBinding.class).value();
+
+        assertThat(dtos).isNotEmpty();
+        assertThat(Arrays.stream(hinted).map(Class::getName)).containsExactlyInAnyOrder(dtos);
+    }
+}
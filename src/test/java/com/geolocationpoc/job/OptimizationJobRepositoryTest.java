@@ -0,0 +1,41 @@
+package com.geolocationpoc.job;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class OptimizationJobRepositoryTest {
+
+    @Autowired
+    private OptimizationJobRepository repository;
+
+    @Test
+    void deletesFinishedJobsLastUpdatedBeforeTheCutoff() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(7));
+        save("old-completed", JobStatus.COMPLETED, cutoff.minusSeconds(60));
+        save("old-failed", JobStatus.FAILED, cutoff.minusSeconds(60));
+        save("old-running", JobStatus.RUNNING, cutoff.minusSeconds(60));
+        save("old-pending", JobStatus.PENDING, cutoff.minusSeconds(60));
+        save("recent-completed", JobStatus.COMPLETED, cutoff.plusSeconds(60));
+
+        int purged = repository.deleteByStatusInAndUpdatedAtBefore(List.of(JobStatus.COMPLETED, JobStatus.FAILED),
+                cutoff);
+
+        assertThat(purged).isEqualTo(2);
+        assertThat(repository.findAll()).extracting(OptimizationJob::getId)
+                .containsExactlyInAnyOrder("old-running", "old-pending", "recent-completed");
+    }
+
+    private void save(String id, JobStatus status, Instant updatedAt) {
+        OptimizationJob job = new OptimizationJob(id, "{}", null, false, updatedAt);
+        job.setStatus(status);
+        repository.save(job);
+    }
+}
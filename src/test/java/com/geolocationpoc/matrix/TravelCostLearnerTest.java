@@ -0,0 +1,60 @@
+package com.geolocationpoc.matrix;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RouteMetrics;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.Vehicle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TravelCostLearnerTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+    private static final Coordinate FIRST = new Coordinate(52.53, 13.41);
+    private static final Coordinate SECOND = new Coordinate(52.54, 13.42);
+
+    private final RouteRequest request = new RouteRequest(
+            List.of(new Vehicle("van", DEPOT, DEPOT, null, null, 1000)), List.of(),
+            "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void learnsTheLegsFromTheStartAndBetweenStops() {
+        try (TravelCostStore store = TravelCostStore.open(directory.resolve("costs.bin"), 1024, 0.0001)) {
+            new TravelCostLearner(store).learn(request, response(2));
+
+            assertThat(TravelCostStore.meters(store.get(key(store, DEPOT), key(store, FIRST)))).isEqualTo(1200);
+            assertThat(TravelCostStore.seconds(store.get(key(store, FIRST), key(store, SECOND)))).isEqualTo(150);
+        }
+    }
+
+    @Test
+    void skipsAnswersWhoseStopsDoNotMatchTheirRoutes() {
+        try (TravelCostStore store = TravelCostStore.open(directory.resolve("costs.bin"), 1024, 0.0001)) {
+            new TravelCostLearner(store).learn(request, response(3));
+
+            assertThat(store.statistics().writes()).isZero();
+        }
+    }
+
+    private static RouteResponse response(int servicesPerformed) {
+        List<OptimizedStop> stops = List.of(
+                new OptimizedStop("a", FIRST, null, null, 0, 1200.0, 120L),
+                new OptimizedStop("b", SECOND, null, null, 0, 1400.0, 150L));
+        return new RouteResponse(2600.0, 270L, stops,
+                List.of(new RouteMetrics("van", 2600.0, 270L, servicesPerformed, null, null)), "Google");
+    }
+
+    private static long key(TravelCostStore store, Coordinate coordinate) {
+        return store.key(coordinate.lat(), coordinate.lng());
+    }
+}
@@ -0,0 +1,93 @@
+package com.geolocationpoc.matrix;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TravelCostStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storesCostsPerDirection() {
+        try (TravelCostStore store = TravelCostStore.open(directory.resolve("costs.bin"), 1024, 0.0001)) {
+            long a = store.key(52.52, 13.405);
+            long b = store.key(52.53, 13.41);
+
+            store.put(a, b, 1500, 180);
+
+            assertThat(TravelCostStore.meters(store.get(a, b))).isEqualTo(1500);
+            assertThat(TravelCostStore.seconds(store.get(a, b))).isEqualTo(180);
+            assertThat(store.get(b, a)).isEqualTo(TravelCostStore.MISSING);
+        }
+    }
+
+    @Test
+    void distanceOnlyUpdateKeepsTheStoredDuration() {
+        try (TravelCostStore store = TravelCostStore.open(directory.resolve("costs.bin"), 1024, 0.0001)) {
+            long a = store.key(52.52, 13.405);
+            long b = store.key(52.53, 13.41);
+
+            store.put(a, b, 1500, 180);
+            store.put(a, b, 1600, Double.NaN);
+
+            assertThat(TravelCostStore.meters(store.get(a, b))).isEqualTo(1600);
+            assertThat(TravelCostStore.seconds(store.get(a, b))).isEqualTo(180);
+        }
+    }
+
+    @Test
+    void reopeningTheFileKeepsWhatWasLearned() {
+        Path file = directory.resolve("costs.bin");
+        try (TravelCostStore store = TravelCostStore.open(file, 1024, 0.0001)) {
+            store.put(store.key(52.52, 13.405), store.key(52.53, 13.41), 1500, 180);
+        }
+
+        try (TravelCostStore store = TravelCostStore.open(file, 1024, 0.0001)) {
+            long costs = store.get(store.key(52.52, 13.405), store.key(52.53, 13.41));
+            assertThat(TravelCostStore.meters(costs)).isEqualTo(1500);
+        }
+    }
+
+    @Test
+    void changedPrecisionStartsTheFileOver() {
+        Path file = directory.resolve("costs.bin");
+        try (TravelCostStore store = TravelCostStore.open(file, 1024, 0.0001)) {
+            store.put(store.key(52.52, 13.405), store.key(52.53, 13.41), 1500, 180);
+        }
+
+        try (TravelCostStore store = TravelCostStore.open(file, 1024, 0.001)) {
+            assertThat(store.get(store.key(52.52, 13.405), store.key(52.53, 13.41)))
+                    .isEqualTo(TravelCostStore.MISSING);
+        }
+    }
+
+    @Test
+    void fullTableEvictsInsteadOfGrowing() {
+        try (TravelCostStore store = TravelCostStore.open(directory.resolve("costs.bin"), 16, 0.0001)) {
+            for (int i = 1; i <= 100; i++) {
+                store.put(store.key(52, 13), store.key(52 + i * 0.001, 13), 100 * i, Double.NaN);
+            }
+
+            assertThat(store.statistics().capacity()).isEqualTo(16);
+            assertThat(store.statistics().writes()).isEqualTo(100);
+            assertThat(store.statistics().evictions()).isEqualTo(84);
+        }
+    }
+
+    @Test
+    void disabledStoreForgetsEverything() {
+        TravelCostStore store = TravelCostStore.none();
+        long a = store.key(52.52, 13.405);
+        long b = store.key(52.53, 13.41);
+
+        store.put(a, b, 1500, 180);
+
+        assertThat(store.isEnabled()).isFalse();
+        assertThat(store.get(a, b)).isEqualTo(TravelCostStore.MISSING);
+    }
+}
@@ -0,0 +1,98 @@
+package com.geolocationpoc.matrix;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TravelMatrixEngineTest {
+
+    @Test
+    void distancesAreGreatCircleTimesCircuity() {
+        TravelMatrixEngine engine = new TravelMatrixEngine(1.3, 40, false, 512, ForkJoinPool.commonPool());
+
+        // Berlin to Munich is about 504 km as the crow flies
+        TravelMatrix matrix = engine.build(new double[]{52.5200, 48.1351}, new double[]{13.4050, 11.5820});
+
+        assertThat(matrix.distance(0, 1)).isCloseTo(504_000 * 1.3, within(504_000 * 1.3 * 0.01));
+        assertThat(matrix.distance(1, 0)).isEqualTo(matrix.distance(0, 1));
+        assertThat(matrix.distance(0, 0)).isZero();
+    }
+
+    @Test
+    void durationsFollowFromDistanceAtTheConfiguredSpeed() {
+        TravelMatrixEngine engine = new TravelMatrixEngine(1.0, 36, false, 512, ForkJoinPool.commonPool());
+
+        TravelMatrix matrix = engine.build(new double[]{52.52, 52.53, 52.54}, new double[]{13.40, 13.41, 13.43});
+
+        // 36 km/h is 10 m/s
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertThat(matrix.duration(i, j)).isCloseTo(matrix.distance(i, j) / 10, within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    void parallelAndVectorizedBuildsMatchTheSerialScalarOne() {
+        double[] lat = new double[300];
+        double[] lng = new double[300];
+        Random random = new Random(7);
+        for (int i = 0; i < lat.length; i++) {
+            lat[i] = 48 + random.nextDouble() * 4;
+            lng[i] = 9 + random.nextDouble() * 5;
+        }
+        TravelMatrix serial = new TravelMatrixEngine(1.3, 40, false, Integer.MAX_VALUE, ForkJoinPool.commonPool())
+                .build(lat, lng);
+        TravelMatrix parallel = new TravelMatrixEngine(1.3, 40, false, 1, ForkJoinPool.commonPool())
+                .build(lat, lng);
+        TravelMatrix vectorized = new TravelMatrixEngine(1.3, 40, true, 1, ForkJoinPool.commonPool())
+                .build(lat, lng);
+
+        assertThat(parallel.distances()).containsExactly(serial.distances());
+        for (int cell = 0; cell < serial.distances().length; cell++) {
+            assertThat(vectorized.distances()[cell]).isCloseTo(serial.distances()[cell], within(1e-6));
+        }
+    }
+
+    @Test
+    void refusesMatricesOverTheNodeLimit() {
+        TravelMatrixEngine engine = new TravelMatrixEngine(1.3, 40, false, 512, ForkJoinPool.commonPool(),
+                TravelCostStore.none(), 10);
+
+        assertThat(engine.build(new double[10], new double[10]).size()).isEqualTo(10);
+        assertThatThrownBy(() -> engine.build(new double[11], new double[11]))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("11 nodes");
+    }
+
+    @Test
+    void defaultLimitFitsFiveThousandStopsWithTheirVehicles() {
+        int nodes = 5_000 + 2 * 100;
+        double[] lat = new double[nodes];
+        double[] lng = new double[nodes];
+        Random random = new Random(11);
+        for (int i = 0; i < nodes; i++) {
+            lat[i] = 48 + random.nextDouble() * 4;
+            lng[i] = 9 + random.nextDouble() * 5;
+        }
+
+        TravelMatrix matrix = new TravelMatrixEngine(1.3, 40, false, 512, ForkJoinPool.commonPool())
+                .build(lat, lng);
+
+        assertThat(matrix.size()).isEqualTo(nodes);
+        assertThat(matrix.distances()).hasSize(nodes * nodes);
+    }
+
+    @Test
+    void nodeLimitNeverAllowsAnIntOverflow() {
+        TravelMatrixEngine engine = new TravelMatrixEngine(1.3, 40, false, 512, ForkJoinPool.commonPool(),
+                TravelCostStore.none(), Integer.MAX_VALUE);
+
+        assertThat((long) engine.maxNodes() * engine.maxNodes()).isLessThanOrEqualTo(Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,74 @@
+package com.geolocationpoc.model;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRouteRequestTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    @Test
+    void fieldsAreReadBackByIndex() {
+        RouteRequest request = new RouteRequest(
+                List.of(new Vehicle("van", DEPOT, new Coordinate(52.50, 13.40), "2026-01-05T09:00:00Z", null, 800)),
+                List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), 300, 25),
+                        new ServicePoint("b", new Coordinate(52.54, 13.42), 120, 5)),
+                "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+
+        CompactRouteRequest compact = CompactRouteRequest.of(request);
+
+        assertThat(compact.source()).isSameAs(request);
+        assertThat(compact.serviceCount()).isEqualTo(2);
+        assertThat(compact.serviceId(1)).isEqualTo("b");
+        assertThat(compact.serviceLocation(1)).isEqualTo(new Coordinate(52.54, 13.42));
+        assertThat(compact.serviceDuration(0)).isEqualTo(300);
+        assertThat(compact.serviceDemand(0)).isEqualTo(25);
+        assertThat(compact.vehicleCount()).isEqualTo(1);
+        assertThat(compact.vehicleId(0)).isEqualTo("van");
+        assertThat(compact.startLat(0)).isEqualTo(52.52);
+        assertThat(compact.endLat(0)).isEqualTo(52.50);
+        assertThat(compact.capacity(0)).isEqualTo(800);
+        assertThat(compact.vehicleStartTime(0)).isEqualTo("2026-01-05T09:00:00Z");
+        assertThat(compact.globalStartTime()).isEqualTo("2026-01-05T08:00:00Z");
+    }
+
+    @Test
+    void missingNumbersReadAsZeroAndVehiclesReturnToTheirStart() {
+        RouteRequest request = new RouteRequest(
+                List.of(new Vehicle("van", DEPOT, null, null, null, null)),
+                List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), null, null)),
+                null, null, true);
+
+        CompactRouteRequest compact = CompactRouteRequest.of(request);
+
+        assertThat(compact.serviceDuration(0)).isZero();
+        assertThat(compact.serviceDemand(0)).isZero();
+        assertThat(compact.capacity(0)).isZero();
+        assertThat(compact.endLat(0)).isEqualTo(DEPOT.lat());
+        assertThat(compact.endLng(0)).isEqualTo(DEPOT.lng());
+    }
+
+    @Test
+    void idsResolveToTheirIndex() {
+        RouteRequest request = new RouteRequest(
+                List.of(new Vehicle("van-0", DEPOT, DEPOT), new Vehicle("van-1", DEPOT, DEPOT)),
+                List.of(new ServicePoint("a", new Coordinate(52.53, 13.41)),
+                        new ServicePoint("b", new Coordinate(52.54, 13.42))),
+                null, null, true);
+
+        CompactRouteRequest compact = CompactRouteRequest.of(request);
+
+        assertThat(compact.serviceIndexOf("b")).isEqualTo(1);
+        assertThat(compact.serviceIndexOf("missing")).isEqualTo(-1);
+        assertThat(compact.vehicleIndexOf("van-1")).isEqualTo(1);
+        assertThat(compact.serviceLocation("a")).isEqualTo(new Coordinate(52.53, 13.41));
+        assertThat(compact.serviceLocation("missing")).isEqualTo(new Coordinate(0D, 0D));
+    }
+}
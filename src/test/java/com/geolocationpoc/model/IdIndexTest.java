@@ -0,0 +1,48 @@
+package com.geolocationpoc.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdIndexTest {
+
+    @Test
+    void everyIdFindsItsPosition() {
+        String[] ids = new String[10_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = "stop-" + i;
+        }
+
+        IdIndex index = new IdIndex(ids);
+
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(index.indexOf("stop-" + i)).isEqualTo(i);
+        }
+        assertThat(index.indexOf("stop-10000")).isEqualTo(-1);
+    }
+
+    @Test
+    void collidingHashesAreProbedPast() {
+        // "Aa" and "BB" share a hash code
+        IdIndex index = new IdIndex(new String[]{"Aa", "BB", "AaAa", "BBBB", "AaBB"});
+
+        assertThat(index.indexOf("Aa")).isEqualTo(0);
+        assertThat(index.indexOf("BB")).isEqualTo(1);
+        assertThat(index.indexOf("BBAa")).isEqualTo(-1);
+        assertThat(index.indexOf("AaBB")).isEqualTo(4);
+    }
+
+    @Test
+    void duplicatesKeepTheirFirstIndexAndNullsAreSkipped() {
+        IdIndex index = new IdIndex(new String[]{"a", null, "b", "a"});
+
+        assertThat(index.indexOf("a")).isEqualTo(0);
+        assertThat(index.indexOf("b")).isEqualTo(2);
+        assertThat(index.indexOf(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        assertThat(new IdIndex(new String[0]).indexOf("a")).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,116 @@
+package com.geolocationpoc.partition;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoPartitionerTest {
+
+    private static final Coordinate BERLIN = new Coordinate(52.52, 13.405);
+    private static final Coordinate MUNICH = new Coordinate(48.1351, 11.582);
+
+    private final GeoPartitioner partitioner = new GeoPartitioner(30, 20);
+
+    @Test
+    void smallRequestsAreLeftWhole() {
+        RouteRequest request = request(List.of(vehicle("v0", BERLIN), vehicle("v1", MUNICH)),
+                services("b", BERLIN, 30, 1));
+
+        assertThat(partitioner.partition(request)).containsExactly(request);
+    }
+
+    @Test
+    void everyServiceLandsInExactlyOnePartition() {
+        List<ServicePoint> services = new ArrayList<>(services("b", BERLIN, 70, 2));
+        services.addAll(services("m", MUNICH, 50, 3));
+        RouteRequest request = request(fleet(6), services);
+
+        List<RouteRequest> parts = partitioner.partition(request);
+
+        assertThat(parts).hasSizeGreaterThan(1);
+        assertThat(parts.stream().flatMap(part -> part.services().stream()).toList())
+                .containsExactlyInAnyOrderElementsOf(services);
+        assertThat(parts.stream().flatMap(part -> part.vehicles().stream()).toList())
+                .containsExactlyInAnyOrderElementsOf(request.vehicles());
+        parts.forEach(part -> assertThat(part.vehicles()).isNotEmpty());
+    }
+
+    @Test
+    void clustersStayNearTheTargetSize() {
+        RouteRequest request = request(fleet(8), services("b", BERLIN, 200, 4));
+
+        List<RouteRequest> parts = partitioner.partition(request);
+
+        // 200 services over 7 clusters, with 25% slack on the even share
+        assertThat(parts).hasSize(7);
+        parts.forEach(part -> assertThat(part.services()).hasSizeLessThanOrEqualTo((int) Math.ceil(1.25 * 200 / 7)));
+    }
+
+    @Test
+    void separateCitiesBecomeSeparatePartitionsWithTheirOwnVehicles() {
+        List<ServicePoint> services = new ArrayList<>(services("b", BERLIN, 30, 5));
+        services.addAll(services("m", MUNICH, 30, 6));
+        List<Vehicle> vehicles = List.of(vehicle("berlin-0", BERLIN), vehicle("munich-0", MUNICH),
+                vehicle("berlin-1", BERLIN), vehicle("munich-1", MUNICH));
+
+        List<RouteRequest> parts = partitioner.partition(request(vehicles, services));
+
+        assertThat(parts).hasSize(2);
+        for (RouteRequest part : parts) {
+            String city = part.services().get(0).id().startsWith("b") ? "berlin" : "munich";
+            assertThat(part.services()).allMatch(service -> service.id().startsWith(city.substring(0, 1)));
+            assertThat(part.vehicles()).extracting(Vehicle::id).allMatch(id -> id.startsWith(city));
+        }
+    }
+
+    @Test
+    void spareVehiclesGoWhereDemandOutrunsCapacity() {
+        List<ServicePoint> services = new ArrayList<>(services("b", BERLIN, 30, 7));
+        services.addAll(services("m", MUNICH, 30, 8).stream()
+                .map(service -> new ServicePoint(service.id(), service.location(), 300, 100))
+                .toList());
+        List<Vehicle> vehicles = List.of(vehicle("v0", BERLIN), vehicle("v1", MUNICH),
+                vehicle("v2", BERLIN), vehicle("v3", BERLIN));
+
+        List<RouteRequest> parts = partitioner.partition(request(vehicles, services));
+
+        RouteRequest munich = parts.stream().filter(part -> part.services().get(0).id().startsWith("m"))
+                .findFirst().orElseThrow();
+        assertThat(munich.vehicles()).hasSize(3);
+    }
+
+    private static RouteRequest request(List<Vehicle> vehicles, List<ServicePoint> services) {
+        return new RouteRequest(vehicles, services, "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+    }
+
+    private static List<Vehicle> fleet(int size) {
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int v = 0; v < size; v++) {
+            vehicles.add(vehicle("v" + v, v % 2 == 0 ? BERLIN : MUNICH));
+        }
+        return vehicles;
+    }
+
+    private static Vehicle vehicle(String id, Coordinate depot) {
+        return new Vehicle(id, depot, depot, null, null, 1000);
+    }
+
+    private static List<ServicePoint> services(String prefix, Coordinate center, int count, long seed) {
+        Random random = new Random(seed);
+        List<ServicePoint> services = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Coordinate location = new Coordinate(center.lat() + (random.nextDouble() - 0.5) * 0.2,
+                    center.lng() + (random.nextDouble() - 0.5) * 0.3);
+            services.add(new ServicePoint(prefix + "-" + i, location, 300, 10));
+        }
+        return services;
+    }
+}
@@ -0,0 +1,75 @@
+package com.geolocationpoc.partition;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RefinementReport;
+import com.geolocationpoc.dto.RouteMetrics;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.SelectionReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteStitcherTest {
+
+    @Test
+    void singlePartIsReturnedAsIs() {
+        RouteResponse part = part("Google", 1000.0, 100L, "a", null, null);
+
+        assertThat(RouteStitcher.merge(List.of(part))).isSameAs(part);
+    }
+
+    @Test
+    void routesConcatenateAndTotalsAddUp() {
+        RouteResponse merged = RouteStitcher.merge(List.of(
+                part("Google", 1000.0, 100L, "a", null, null),
+                part("Mapbox", 2500.0, 300L, "b", null, null),
+                part("Google", 500.0, 50L, "c", null, null)));
+
+        assertThat(merged.totalDistanceMeters()).isEqualTo(4000.0);
+        assertThat(merged.totalDurationSeconds()).isEqualTo(450L);
+        assertThat(merged.stops()).extracting(OptimizedStop::serviceId).containsExactly("a", "b", "c");
+        assertThat(merged.routeMetrics()).extracting(RouteMetrics::vehicleId)
+                .containsExactly("vehicle-a", "vehicle-b", "vehicle-c");
+        assertThat(merged.provider()).isEqualTo("Google+Mapbox");
+        assertThat(merged.selection()).isNull();
+        assertThat(merged.refinement()).isNull();
+    }
+
+    @Test
+    void selectionReportsAreUnioned() {
+        SelectionReport first = new SelectionReport(List.of("Google"), List.of("Mapbox"), List.of(), List.of(), 500L);
+        SelectionReport second = new SelectionReport(List.of("Google", "Local"), List.of(), List.of("Mapbox"),
+                List.of(), 500L);
+
+        RouteResponse merged = RouteStitcher.merge(List.of(
+                part("Google", 1000.0, 100L, "a", first, null),
+                part("Google", 1000.0, 100L, "b", second, null)));
+
+        assertThat(merged.selection().completedProviders()).containsExactly("Google", "Local");
+        assertThat(merged.selection().failedProviders()).containsExactly("Mapbox");
+        assertThat(merged.selection().cutOffProviders()).containsExactly("Mapbox");
+        assertThat(merged.selection().latencyBudgetMillis()).isEqualTo(500L);
+    }
+
+    @Test
+    void unrefinedPartsCountTowardsTheOriginalDistance() {
+        RouteResponse merged = RouteStitcher.merge(List.of(
+                part("Google", 900.0, 100L, "a", null, new RefinementReport(1, 1000.0, 100.0)),
+                part("Google", 2000.0, 100L, "b", null, null)));
+
+        assertThat(merged.refinement().improvedRoutes()).isEqualTo(1);
+        assertThat(merged.refinement().originalDistanceMeters()).isEqualTo(3000.0);
+        assertThat(merged.refinement().savedDistanceMeters()).isEqualTo(100.0);
+    }
+
+    private static RouteResponse part(String provider, Double distance, Long duration, String stopId,
+                                      SelectionReport selection, RefinementReport refinement) {
+        OptimizedStop stop = new OptimizedStop(stopId, new Coordinate(52.52, 13.405), null, null, 0, distance,
+                duration);
+        RouteMetrics route = new RouteMetrics("vehicle-" + stopId, distance, duration, 1, null, null);
+        return new RouteResponse(distance, duration, List.of(stop), List.of(route), provider, selection, refinement);
+    }
+}
@@ -0,0 +1,147 @@
+package com.geolocationpoc.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geolocationpoc.dto.BatchItem;
+import com.geolocationpoc.dto.BatchResult;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchRouteServiceTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final PartitionedRouteService routeService = mock(PartitionedRouteService.class);
+
+    @Test
+    void newlineDelimitedItemsAreAnsweredByCorrelationId() throws Exception {
+        answerWithStopId();
+        BatchRouteService service = new BatchRouteService(routeService, mapper, 4);
+
+        List<BatchResult> results = service.optimize(body(ndjson(item("a", "stop-a"), item("b", "stop-b"))))
+                .collectList().block();
+
+        assertThat(results).extracting(BatchResult::correlationId).containsExactlyInAnyOrder("a", "b");
+        results.forEach(result -> {
+            assertThat(result.error()).isNull();
+            assertThat(result.response().provider()).isEqualTo("stop-" + result.correlationId());
+        });
+    }
+
+    @Test
+    void aJsonArrayIsAcceptedToo() throws Exception {
+        answerWithStopId();
+        BatchRouteService service = new BatchRouteService(routeService, mapper, 4);
+
+        String array = mapper.writeValueAsString(List.of(item("a", "stop-a"), item("b", "stop-b")));
+        List<BatchResult> results = service.optimize(body(array)).collectList().block();
+
+        assertThat(results).extracting(BatchResult::correlationId).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void failingItemsReportAnErrorWithoutStoppingTheBatch() throws Exception {
+        answerWithStopId();
+        BatchRouteService service = new BatchRouteService(routeService, mapper, 4);
+
+        List<BatchResult> results = service.optimize(body(ndjson(item("a", "stop-a"), item("b", "boom"),
+                        new BatchItem("c", null))))
+                .collectList().block();
+
+        assertThat(results).hasSize(3);
+        assertThat(results).filteredOn(result -> result.correlationId().equals("a"))
+                .allMatch(result -> result.error() == null && result.response() != null);
+        assertThat(results).filteredOn(result -> result.correlationId().equals("b"))
+                .extracting(BatchResult::error).containsExactly("no route");
+        assertThat(results).filteredOn(result -> result.correlationId().equals("c"))
+                .extracting(BatchResult::error).containsExactly("Missing request");
+    }
+
+    @Test
+    void malformedBodyEndsTheBatchAfterEarlierItemsReport() throws Exception {
+        answerWithStopId();
+        BatchRouteService service = new BatchRouteService(routeService, mapper, 4);
+
+        String body = ndjson(item("a", "stop-a")) + "{\"correlationId\": \"b\", \"request\": [}\n";
+        List<BatchResult> results = service.optimize(body(body)).collectList().block();
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).correlationId()).isEqualTo("a");
+        assertThat(results.get(1).correlationId()).isNull();
+        assertThat(results.get(1).error()).isEqualTo("Malformed batch body");
+    }
+
+    @Test
+    void noMoreItemsRunAtOnceThanTheConcurrencyLimit() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(routeService.optimizeBestRouteAsync(any())).thenAnswer(invocation -> Mono.delay(Duration.ofMillis(20))
+                .doOnSubscribe(subscription -> peak.accumulateAndGet(running.incrementAndGet(), Math::max))
+                .map(tick -> {
+                    // Counted down before the result is emitted, which is what frees the slot
+                    running.decrementAndGet();
+                    return response("ok");
+                }));
+        BatchRouteService service = new BatchRouteService(routeService, mapper, 2);
+
+        List<BatchItem> items = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            items.add(item("item-" + i, "stop-" + i));
+        }
+        List<BatchResult> results = service.optimize(body(ndjson(items.toArray(BatchItem[]::new))))
+                .collectList().block();
+
+        assertThat(results).hasSize(8);
+        assertThat(peak.get()).isLessThanOrEqualTo(2);
+    }
+
+    private void answerWithStopId() {
+        when(routeService.optimizeBestRouteAsync(any())).thenAnswer(invocation -> {
+            String stopId = invocation.<RouteRequest>getArgument(0).services().get(0).id();
+            return stopId.equals("boom") ? Mono.error(new IllegalStateException("no route"))
+                    : Mono.just(response(stopId));
+        });
+    }
+
+    private String ndjson(BatchItem... items) throws JsonProcessingException {
+        StringBuilder body = new StringBuilder();
+        for (BatchItem item : items) {
+            body.append(mapper.writeValueAsString(item)).append('\n');
+        }
+        return body.toString();
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BatchItem item(String correlationId, String stopId) {
+        ServicePoint stop = new ServicePoint(stopId, new Coordinate(DEPOT.lat() + 0.01, DEPOT.lng()), 300, 10);
+        Vehicle vehicle = new Vehicle("vehicle-0", DEPOT, DEPOT, null, null, 1000);
+        return new BatchItem(correlationId, new RouteRequest(List.of(vehicle), List.of(stop),
+                "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true));
+    }
+
+    private static RouteResponse response(String provider) {
+        return new RouteResponse(1.0, 1L, List.of(), List.of(), provider);
+    }
+}
@@ -0,0 +1,330 @@
+package com.geolocationpoc.service;
+
+import com.geolocationpoc.cache.InFlightCoalescer;
+import com.geolocationpoc.cache.RequestCanonicalizer;
+import com.geolocationpoc.cache.RouteResultCache;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RouteMetrics;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import com.geolocationpoc.matrix.TravelCostLearner;
+import com.geolocationpoc.matrix.TravelCostStore;
+import com.geolocationpoc.matrix.TravelMatrixEngine;
+import com.geolocationpoc.service.execution.BulkheadRegistry;
+import com.geolocationpoc.service.routing.ProviderRouter;
+import com.geolocationpoc.solver.LocalRouteSolver;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompositeRouteServiceTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final RouteRequest request = new RouteRequest(
+            List.of(new Vehicle("van", DEPOT, DEPOT, null, null, 1000)),
+            List.of(service("a", 0.01), service("b", 0.02), service("c", 0.03)),
+            "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+
+    @Test
+    void partialAnswerNeverWinsOnDistance() {
+        StubProvider partial = new StubProvider("Partial", answer("Partial", 100, "a", "b"));
+        StubProvider complete = new StubProvider("Complete", answer("Complete", 5000, "a", "b", "c"));
+
+        RouteResponse best = composite(List.of(partial, complete)).optimizeBestRoute(request);
+
+        assertThat(best.provider()).isEqualTo("Complete");
+        assertThat(best.selection().completedProviders()).containsExactly("Complete");
+        assertThat(best.selection().failedProviders()).containsExactly("Partial");
+    }
+
+    @Test
+    void shortestCompleteAnswerWins() {
+        StubProvider longer = new StubProvider("Longer", answer("Longer", 9000, "c", "b", "a"));
+        StubProvider shorter = new StubProvider("Shorter", answer("Shorter", 4000, "a", "b", "c"));
+
+        RouteResponse best = composite(List.of(longer, shorter)).optimizeBestRoute(request);
+
+        assertThat(best.provider()).isEqualTo("Shorter");
+        assertThat(best.selection().completedProviders()).containsExactlyInAnyOrder("Longer", "Shorter");
+    }
+
+    @Test
+    void estimateNeverBeatsAMeasuredAnswer() {
+        StubProvider estimator = new StubProvider("Local", answer("Local", 1000, "a", "b", "c"), false);
+        StubProvider measured = new StubProvider("Google", answer("Google", 7000, "a", "b", "c"));
+        ProviderRouter router = router();
+
+        RouteResponse best = composite(List.of(estimator, measured), router).optimizeBestRoute(request);
+
+        assertThat(best.provider()).isEqualTo("Google");
+        assertThat(best.selection().completedProviders()).containsExactlyInAnyOrder("Local", "Google");
+        assertThat(router.snapshots())
+                .filteredOn(snapshot -> snapshot.provider().equals("Local"))
+                .allSatisfy(snapshot -> assertThat(snapshot.contests()).isZero());
+    }
+
+    @Test
+    void estimateStandsInWhenNoMeasuredAnswerArrives() {
+        StubProvider estimator = new StubProvider("Local", answer("Local", 1000, "a", "b", "c"), false);
+        StubProvider failing = new StubProvider("Google", null);
+
+        RouteResponse best = composite(List.of(estimator, failing)).optimizeBestRoute(request);
+
+        assertThat(best.provider()).isEqualTo("Local");
+        assertThat(best.selection().failedProviders()).containsExactly("Google");
+    }
+
+    @Test
+    void contestsCountOnlyMeasuredContenders() {
+        StubProvider estimator = new StubProvider("Local", answer("Local", 1000, "a", "b", "c"), false);
+        StubProvider google = new StubProvider("Google", answer("Google", 7000, "a", "b", "c"));
+        StubProvider mapbox = new StubProvider("Mapbox", answer("Mapbox", 8000, "a", "b", "c"));
+        ProviderRouter router = router();
+
+        composite(List.of(estimator, google, mapbox), router).optimizeBestRoute(request);
+
+        assertThat(router.snapshots()).extracting(snapshot -> snapshot.provider() + ":" + snapshot.wins()
+                        + "/" + snapshot.contests())
+                .containsExactlyInAnyOrder("Google:1/1", "Mapbox:0/1", "Local:0/0");
+    }
+
+    @Test
+    void selectionComparesReportedTotalsAndRefinesOnlyTheWinner() {
+        // Refining c-a-b into a-b-c would bring it under 4000, but selection sees what was measured
+        StubProvider zigzag = new StubProvider("Zigzag", answer("Zigzag", 5000, "c", "a", "b"));
+        StubProvider straight = new StubProvider("Straight", answer("Straight", 4000, "a", "b", "c"));
+
+        RouteResponse best = composite(List.of(zigzag, straight), router(), refiner()).optimizeBestRoute(request);
+
+        assertThat(best.provider()).isEqualTo("Straight");
+        assertThat(best.totalDistanceMeters()).isEqualTo(4000);
+        assertThat(best.refinement()).isNotNull();
+    }
+
+    @Test
+    void ownSolverAnswerIsNotRefined() {
+        StubProvider estimator = new StubProvider("Local", answer("Local", 1000, "c", "a", "b"), false);
+
+        RouteResponse best = composite(List.of(estimator), router(), refiner()).optimizeBestRoute(request);
+
+        assertThat(best.refinement()).isNull();
+    }
+
+    @Test
+    void singleProviderAnswerIsRefinedOnTheWayOut() {
+        StubProvider zigzag = new StubProvider("Zigzag", answer("Zigzag", 5000, "c", "a", "b"));
+
+        RouteResponse response = composite(List.of(zigzag), router(), refiner())
+                .optimizeWithProvider("Zigzag", request);
+
+        assertThat(response.refinement().improvedRoutes()).isEqualTo(1);
+        assertThat(response.totalDistanceMeters()).isLessThan(5000);
+    }
+
+    @Test
+    void returnsBeforeAnyProviderHasAnswered() {
+        StubProvider slow = new StubProvider("Slow", answer("Slow", 4000, "a", "b", "c"), Duration.ofMillis(300));
+        CompositeRouteService composite = composite(List.of(slow));
+
+        long start = System.nanoTime();
+        Mono<RouteResponse> pending = composite.optimizeBestRouteAsync(request);
+        Duration assembly = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(assembly).isLessThan(Duration.ofMillis(100));
+        assertThat(pending.block().provider()).isEqualTo("Slow");
+    }
+
+    @Test
+    void providersAreCalledConcurrently() {
+        List<RouteService> providers = List.of(
+                new StubProvider("One", answer("One", 4000, "a", "b", "c"), Duration.ofMillis(400)),
+                new StubProvider("Two", answer("Two", 5000, "a", "b", "c"), Duration.ofMillis(400)),
+                new StubProvider("Three", answer("Three", 6000, "a", "b", "c"), Duration.ofMillis(400)));
+
+        long start = System.nanoTime();
+        RouteResponse best = composite(providers).optimizeBestRoute(request);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1000));
+        assertThat(best.selection().completedProviders()).containsExactlyInAnyOrder("One", "Two", "Three");
+    }
+
+    @Test
+    void budgetReturnsTheBestAnswerSoFarAndCutsOffTheRest() {
+        StubProvider fast = new StubProvider("Fast", answer("Fast", 5000, "a", "b", "c"));
+        StubProvider slow = new StubProvider("Slow", answer("Slow", 3000, "a", "b", "c"), Duration.ofSeconds(3));
+
+        long start = System.nanoTime();
+        RouteResponse best = composite(List.of(fast, slow))
+                .optimizeBestRouteAsync(request, Duration.ofMillis(300), false).block();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(best.provider()).isEqualTo("Fast");
+        assertThat(best.selection().cutOffProviders()).containsExactly("Slow");
+        assertThat(best.selection().latencyBudgetMillis()).isEqualTo(300);
+    }
+
+    @Test
+    void hedgingLeavesBackupsIdleWhenThePrimaryAnswers() {
+        StubProvider primary = new StubProvider("Primary", answer("Primary", 5000, "a", "b", "c"));
+        StubProvider backup = new StubProvider("Backup", answer("Backup", 3000, "a", "b", "c"));
+
+        RouteResponse best = composite(List.of(primary, backup)).optimizeBestRouteAsync(request, null, true).block();
+
+        assertThat(best.provider()).isEqualTo("Primary");
+        assertThat(best.selection().skippedProviders()).containsExactly("Backup");
+    }
+
+    @Test
+    void hedgingFiresBackupsAtOnceWhenThePrimaryFails() {
+        StubProvider primary = new StubProvider("Primary", null);
+        StubProvider backup = new StubProvider("Backup", answer("Backup", 3000, "a", "b", "c"));
+
+        long start = System.nanoTime();
+        RouteResponse best = composite(List.of(primary, backup)).optimizeBestRouteAsync(request, null, true).block();
+
+        // Well under the two-second default hedge delay
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(best.provider()).isEqualTo("Backup");
+        assertThat(best.selection().failedProviders()).containsExactly("Primary");
+    }
+
+    @Test
+    void hedgingFiresBackupsOnceThePrimaryRunsPastItsP95() {
+        StubProvider primary = new StubProvider("Primary", answer("Primary", 3000, "a", "b", "c"),
+                Duration.ofMillis(500));
+        StubProvider backup = new StubProvider("Backup", answer("Backup", 5000, "a", "b", "c"));
+        ProviderRouter router = router();
+        router.recordSuccess("Primary", 50);
+
+        RouteResponse best = composite(List.of(primary, backup), router)
+                .optimizeBestRouteAsync(request, null, true).block();
+
+        assertThat(best.provider()).isEqualTo("Primary");
+        assertThat(best.selection().completedProviders()).containsExactlyInAnyOrder("Primary", "Backup");
+    }
+
+    @Test
+    void hedgedAnswerIsNotServedFromCacheToAFullRace() {
+        StubProvider primary = new StubProvider("Primary", answer("Primary", 5000, "a", "b", "c"));
+        StubProvider backup = new StubProvider("Backup", answer("Backup", 3000, "a", "b", "c"));
+        RouteResultCache cache = new RouteResultCache(canonicalizer(), true, 100, Duration.ofMinutes(10));
+        CompositeRouteService composite = composite(List.of(primary, backup), router(),
+                new RouteRefiner(null, false, 0), cache);
+
+        RouteResponse hedged = composite.optimizeBestRouteAsync(request, null, true).block();
+        RouteResponse full = composite.optimizeBestRouteAsync(request, null, false).block();
+        RouteResponse hedgedAgain = composite.optimizeBestRouteAsync(request, null, true).block();
+
+        assertThat(hedged.provider()).isEqualTo("Primary");
+        assertThat(full.provider()).isEqualTo("Backup");
+        assertThat(hedgedAgain.provider()).isEqualTo("Primary");
+        assertThat(composite.cacheStatistics().hits()).isEqualTo(1);
+    }
+
+    static CompositeRouteService composite(List<RouteService> providers) {
+        return composite(providers, router());
+    }
+
+    // Minimum samples never reached, so every provider is raced on every call
+    static ProviderRouter router() {
+        return new ProviderRouter(50, 10, 0.5, Duration.ofSeconds(30), 2,
+                Integer.MAX_VALUE, 0.15, 0.0, Duration.ofSeconds(2));
+    }
+
+    static CompositeRouteService composite(List<RouteService> providers, ProviderRouter router) {
+        return composite(providers, router, new RouteRefiner(null, false, 0));
+    }
+
+    static RequestCanonicalizer canonicalizer() {
+        return new RequestCanonicalizer(0.0001, Duration.ofMinutes(15));
+    }
+
+    static RouteRefiner refiner() {
+        return new RouteRefiner(new LocalRouteSolver(
+                new TravelMatrixEngine(1.3, 40, false, 512, ForkJoinPool.commonPool()), 50), true, 50);
+    }
+
+    static CompositeRouteService composite(List<RouteService> providers, ProviderRouter router, RouteRefiner refiner) {
+        return composite(providers, router, refiner, new RouteResultCache(canonicalizer(), false, 0,
+                Duration.ofMinutes(10)));
+    }
+
+    static CompositeRouteService composite(List<RouteService> providers, ProviderRouter router, RouteRefiner refiner,
+                                           RouteResultCache cache) {
+        return new CompositeRouteService(providers, cache,
+                new InFlightCoalescer(canonicalizer(), new SimpleMeterRegistry(), false, Duration.ZERO),
+                new BulkheadRegistry(new StandardEnvironment(), new SimpleMeterRegistry(), 16, 16),
+                router, ProviderTelemetry.noop(), new TravelCostLearner(TravelCostStore.none()),
+                refiner, Duration.ofSeconds(5), Duration.ofSeconds(2));
+    }
+
+    static RouteResponse answer(String provider, double distance, String... serviceIds) {
+        List<OptimizedStop> stops = Arrays.stream(serviceIds)
+                .map(id -> new OptimizedStop(id, DEPOT, null, null, 0, distance / serviceIds.length, 60L))
+                .toList();
+        RouteMetrics route = new RouteMetrics("van", distance, 600L, serviceIds.length, null, null);
+        return new RouteResponse(distance, 600L, stops, List.of(route), provider);
+    }
+
+    private static ServicePoint service(String id, double offset) {
+        return new ServicePoint(id, new Coordinate(DEPOT.lat() + offset, DEPOT.lng() + offset), 300, 10);
+    }
+
+    // A null response fails the call; the delay runs on a timer, so no thread waits for the answer
+    record StubProvider(String name, RouteResponse response, boolean measures, Duration delay)
+            implements RouteService {
+
+        StubProvider(String name, RouteResponse response) {
+            this(name, response, true);
+        }
+
+        StubProvider(String name, RouteResponse response, boolean measures) {
+            this(name, response, measures, Duration.ZERO);
+        }
+
+        StubProvider(String name, RouteResponse response, Duration delay) {
+            this(name, response, true, delay);
+        }
+
+        @Override
+        public RouteResponse optimizeRoute(RouteRequest request) {
+            return optimizeRouteAsync(request).block();
+        }
+
+        @Override
+        public Mono<RouteResponse> optimizeRouteAsync(RouteRequest request) {
+            Mono<RouteResponse> answer = response != null
+                    ? Mono.just(response)
+                    : Mono.error(new IllegalStateException(name + " is down"));
+            return delay.isZero() ? answer : Mono.delay(delay).then(answer);
+        }
+
+        @Override
+        public boolean measuresTravelCosts() {
+            return measures;
+        }
+
+        @Override
+        public boolean benefitsFromRefinement() {
+            return measures;
+        }
+
+        @Override
+        public String providerName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.geolocationpoc.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.JobEvent;
+import com.geolocationpoc.dto.JobView;
+import com.geolocationpoc.dto.ProviderResult;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import com.geolocationpoc.job.JobStatus;
+import com.geolocationpoc.job.OptimizationJob;
+import com.geolocationpoc.job.OptimizationJobRepository;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobServiceTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, OptimizationJob> stored = new ConcurrentHashMap<>();
+    private final OptimizationJobRepository repository = repository(stored);
+    private final PartitionedRouteService routeService = mock(PartitionedRouteService.class);
+    private final JobService service = new JobService(routeService, repository, mapper, Duration.ofDays(7));
+
+    @Test
+    void liveSubscribersSeeEveryStepOfTheJob() {
+        Sinks.One<RouteResponse> result = Sinks.one();
+        answer(response("Google", 1000.0), result.asMono());
+
+        String id = service.submit(request(), Duration.ofMillis(500), true).id();
+        // Subscribing while the race is still open must replay what came before
+        List<JobEvent> events = service.events(id).orElseThrow()
+                .doOnSubscribe(subscription -> result.tryEmitValue(response("Google", 1000.0)))
+                .collectList().block(WAIT);
+
+        assertThat(events).extracting(JobEvent::type).containsExactly("status", "status", "partial", "completed");
+        assertThat(events).extracting(JobEvent::status).startsWith("PENDING", "RUNNING");
+        assertThat(events.get(2).partialResult().provider()).isEqualTo("Google");
+        assertThat(events.get(3).result().totalDistanceMeters()).isEqualTo(1000.0);
+    }
+
+    @Test
+    void completedJobsKeepTheirResultAndPartials() {
+        answer(response("Mapbox", 1200.0), Mono.just(response("Mapbox", 1200.0)));
+
+        JobView submitted = service.submit(request(), null, false);
+        awaitEnd(submitted.id());
+
+        JobView job = service.find(submitted.id()).orElseThrow();
+        assertThat(job.status()).isEqualTo("COMPLETED");
+        assertThat(job.result().provider()).isEqualTo("Mapbox");
+        assertThat(job.partialResults()).extracting(ProviderResult::provider).containsExactly("Mapbox");
+        assertThat(service.completed(submitted.id())).hasValueSatisfying(completed ->
+                assertThat(completed.request()).isEqualTo(request()));
+        assertThat(service.events(submitted.id()).orElseThrow().collectList().block(WAIT))
+                .extracting(JobEvent::type).containsExactly("completed");
+    }
+
+    @Test
+    void failedJobsRecordTheError() {
+        answer(null, Mono.error(new IllegalStateException("every provider failed")));
+
+        String id = service.submit(request(), null, false).id();
+        awaitEnd(id);
+
+        JobView job = service.find(id).orElseThrow();
+        assertThat(job.status()).isEqualTo("FAILED");
+        assertThat(job.error()).isEqualTo("every provider failed");
+        assertThat(service.completed(id)).isEmpty();
+    }
+
+    @Test
+    void jobsInterruptedByARestartAreRunAgain() throws Exception {
+        answer(response("Local", 900.0), Mono.just(response("Local", 900.0)));
+        OptimizationJob interrupted = new OptimizationJob("interrupted", mapper.writeValueAsString(request()),
+                null, false, Instant.now());
+        interrupted.setStatus(JobStatus.RUNNING);
+        stored.put(interrupted.getId(), interrupted);
+        OptimizationJob finished = new OptimizationJob("finished", mapper.writeValueAsString(request()),
+                null, false, Instant.now());
+        finished.setStatus(JobStatus.COMPLETED);
+        finished.setResultJson(mapper.writeValueAsString(response("Google", 1.0)));
+        stored.put(finished.getId(), finished);
+
+        service.resumeUnfinished();
+        awaitEnd("interrupted");
+
+        assertThat(service.find("interrupted").orElseThrow().result().provider()).isEqualTo("Local");
+        assertThat(service.find("finished").orElseThrow().result().provider()).isEqualTo("Google");
+    }
+
+    @Test
+    void purgeRemovesOnlyJobsFinishedBeforeTheRetentionPeriod() throws Exception {
+        Instant longAgo = Instant.now().minus(Duration.ofDays(8));
+        stored(JobStatus.COMPLETED, "old-completed", longAgo);
+        stored(JobStatus.FAILED, "old-failed", longAgo);
+        stored(JobStatus.RUNNING, "old-running", longAgo);
+        stored(JobStatus.COMPLETED, "recent-completed", Instant.now().minus(Duration.ofDays(1)));
+
+        service.purgeFinished();
+
+        assertThat(stored).containsOnlyKeys("old-running", "recent-completed");
+    }
+
+    @Test
+    void zeroRetentionKeepsFinishedJobs() throws Exception {
+        stored(JobStatus.COMPLETED, "old-completed", Instant.now().minus(Duration.ofDays(365)));
+
+        new JobService(routeService, repository, mapper, Duration.ZERO).purgeFinished();
+
+        assertThat(stored).containsOnlyKeys("old-completed");
+    }
+
+    @Test
+    void unknownJobsHaveNoEvents() {
+        assertThat(service.events("missing")).isEmpty();
+        assertThat(service.find("missing")).isEmpty();
+    }
+
+    private void stored(JobStatus status, String id, Instant updatedAt) throws Exception {
+        OptimizationJob job = new OptimizationJob(id, mapper.writeValueAsString(request()), null, false, updatedAt);
+        job.setStatus(status);
+        stored.put(id, job);
+    }
+
+    private void awaitEnd(String id) {
+        service.events(id).orElseThrow().blockLast(WAIT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void answer(RouteResponse partial, Mono<RouteResponse> result) {
+        when(routeService.optimizeBestRouteAsync(any(), any(), anyBoolean(), any())).thenAnswer(invocation -> {
+            if (partial != null) {
+                invocation.<Consumer<RouteResponse>>getArgument(3).accept(partial);
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static OptimizationJobRepository repository(Map<String, OptimizationJob> stored) {
+        OptimizationJobRepository repository = mock(OptimizationJobRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            OptimizationJob job = invocation.getArgument(0);
+            stored.put(job.getId(), job);
+            return job;
+        });
+        when(repository.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(stored.get(invocation.<String>getArgument(0))));
+        when(repository.findByStatusIn(any())).thenAnswer(invocation -> stored.values().stream()
+                .filter(job -> invocation.<Collection<JobStatus>>getArgument(0).contains(job.getStatus()))
+                .toList());
+        when(repository.deleteByStatusInAndUpdatedAtBefore(any(), any())).thenAnswer(invocation -> {
+            Collection<JobStatus> statuses = invocation.getArgument(0);
+            Instant cutoff = invocation.getArgument(1);
+            List<String> purged = stored.values().stream()
+                    .filter(job -> statuses.contains(job.getStatus()) && job.getUpdatedAt().isBefore(cutoff))
+                    .map(OptimizationJob::getId)
+                    .toList();
+            purged.forEach(stored::remove);
+            return purged.size();
+        });
+        return repository;
+    }
+
+    private static RouteRequest request() {
+        Vehicle vehicle = new Vehicle("vehicle-0", DEPOT, DEPOT, null, null, 1000);
+        ServicePoint stop = new ServicePoint("stop-0", new Coordinate(52.53, 13.41), 300, 10);
+        return new RouteRequest(List.of(vehicle), List.of(stop), "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z",
+                true);
+    }
+
+    private static RouteResponse response(String provider, double distance) {
+        return new RouteResponse(distance, 600L, List.of(), List.of(), provider);
+    }
+}
@@ -0,0 +1,75 @@
+package com.geolocationpoc.service;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.ReoptimizeResponse;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import com.geolocationpoc.matrix.TravelMatrixEngine;
+import com.geolocationpoc.solver.LocalRouteSolver;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReoptimizationServiceTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final LocalRouteSolver solver = new LocalRouteSolver(
+            new TravelMatrixEngine(1.3, 40, false, 512, ForkJoinPool.commonPool()), 50);
+    private final PartitionedRouteService routeService = mock(PartitionedRouteService.class);
+    private final ReoptimizationService service = new ReoptimizationService(solver, routeService, 50, 1.15);
+
+    @Test
+    void nearbyStopsArePatchedIntoThePlan() {
+        RouteRequest base = request(grid(0, 30));
+        RouteResponse plan = solver.solve(base);
+
+        ReoptimizeResponse result = service.reoptimize(base, plan, grid(30, 2), List.of("stop-0")).block();
+
+        assertThat(result.strategy()).isEqualTo("repair");
+        assertThat(result.request().services()).hasSize(31);
+        verifyNoInteractions(routeService);
+    }
+
+    @Test
+    void farAwayStopsAreSolvedAgain() {
+        RouteRequest base = request(grid(0, 30));
+        RouteResponse plan = solver.solve(base);
+        RouteResponse fresh = new RouteResponse(1.0, 1L, List.of(), List.of(), "Google");
+        when(routeService.optimizeBestRouteAsync(any())).thenReturn(Mono.just(fresh));
+
+        ServicePoint far = new ServicePoint("far", new Coordinate(DEPOT.lat() + 2, DEPOT.lng() + 2), 300, 10);
+        ReoptimizeResponse result = service.reoptimize(base, plan, List.of(far), List.of()).block();
+
+        assertThat(result.strategy()).isEqualTo("full");
+        assertThat(result.plan()).isSameAs(fresh);
+        verify(routeService).optimizeBestRouteAsync(result.request());
+    }
+
+    private static RouteRequest request(List<ServicePoint> services) {
+        return new RouteRequest(List.of(new Vehicle("van", DEPOT, DEPOT, null, null, 1000)), services,
+                "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+    }
+
+    // Stops on a 6-wide grid of 1 km cells next to the depot
+    private static List<ServicePoint> grid(int from, int count) {
+        List<ServicePoint> services = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            Coordinate location = new Coordinate(DEPOT.lat() + (i / 6) * 0.009, DEPOT.lng() + (i % 6) * 0.015);
+            services.add(new ServicePoint("stop-" + i, location, 300, 10));
+        }
+        return services;
+    }
+}
@@ -0,0 +1,66 @@
+package com.geolocationpoc.service.execution;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimitTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void overloadCutsTheLimitByTheBackoffRatio() {
+        AimdLimit limit = new AimdLimit(2, 20, 0.5, 0);
+
+        limit.onOverload();
+
+        assertThat(limit.limit()).isEqualTo(10);
+        assertThat(limit.decreases()).isEqualTo(1);
+    }
+
+    @Test
+    void neverDropsBelowTheMinimum() {
+        AimdLimit limit = new AimdLimit(3, 20, 0.1, 0);
+
+        limit.onOverload();
+
+        assertThat(limit.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void successesGrowTheLimitByAboutOnePerRound() {
+        AimdLimit limit = new AimdLimit(1, 20, 0.5, 0);
+        limit.onOverload();
+
+        // From 10, each success adds a tenth or a bit less
+        for (int i = 0; i < 12; i++) {
+            limit.onSuccess(10 * MILLIS);
+        }
+
+        assertThat(limit.limit()).isEqualTo(11);
+    }
+
+    @Test
+    void burstOfFailuresWithinOneRoundTripCountsOnce() {
+        AimdLimit limit = new AimdLimit(1, 16, 0.5, 0);
+        limit.onSuccess(60_000 * MILLIS);
+
+        limit.onOverload();
+        limit.onOverload();
+        limit.onOverload();
+
+        assertThat(limit.limit()).isEqualTo(8);
+        assertThat(limit.decreases()).isEqualTo(1);
+    }
+
+    @Test
+    void callFarSlowerThanTheBaselineCountsAsOverload() {
+        AimdLimit limit = new AimdLimit(1, 16, 0.5, 2.0);
+        limit.onSuccess(10 * MILLIS);
+
+        limit.onSuccess(50 * MILLIS);
+
+        assertThat(limit.decreases()).isEqualTo(1);
+        assertThat(limit.limit()).isEqualTo(8);
+    }
+}
@@ -0,0 +1,44 @@
+package com.geolocationpoc.service.execution;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadRegistryTest {
+
+    private final MeterRegistry meters = new SimpleMeterRegistry();
+
+    @Test
+    void providersGetTheirOwnSettingsOrTheDefaults() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("provider.google.bulkhead.maxConcurrent", "3")
+                .withProperty("provider.google.bulkhead.maxQueue", "7");
+        BulkheadRegistry registry = new BulkheadRegistry(environment, meters, 10, 20);
+
+        ProviderBulkhead google = registry.forProvider("Google");
+
+        assertThat(registry.forProvider("google")).isSameAs(google);
+        assertThat(google.statistics().maxConcurrent()).isEqualTo(3);
+        assertThat(google.statistics().maxQueue()).isEqualTo(7);
+        assertThat(registry.forProvider("Mapbox").statistics().maxConcurrent()).isEqualTo(10);
+        assertThat(registry.statistics()).extracting(ProviderBulkhead.BulkheadStatistics::provider)
+                .containsExactly("Google", "Mapbox");
+    }
+
+    @Test
+    void everyBulkheadPublishesItsGauges() {
+        BulkheadRegistry registry = new BulkheadRegistry(new MockEnvironment(), meters, 4, 8);
+
+        ProviderBulkhead bulkhead = registry.forProvider("Mapbox");
+
+        for (String gauge : new String[]{"queued", "inflight", "rejected", "limit", "throttled"}) {
+            assertThat(meters.find("route.bulkhead." + gauge).tag("provider", "Mapbox").gauge()).as(gauge).isNotNull();
+        }
+        assertThat(meters.get("route.bulkhead.limit").gauge().value())
+                .isEqualTo(bulkhead.statistics().concurrencyLimit());
+        assertThat(meters.get("route.bulkhead.inflight").gauge().value()).isZero();
+    }
+}
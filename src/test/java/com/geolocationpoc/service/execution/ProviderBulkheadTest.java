@@ -0,0 +1,133 @@
+package com.geolocationpoc.service.execution;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderBulkheadTest {
+
+    @Test
+    void callsBeyondMaxConcurrentWaitForAFreeSlot() {
+        ProviderBulkhead bulkhead = new ProviderBulkhead("p", 2, 10);
+        List<Sinks.One<String>> calls = pending(3);
+        List<String> results = new ArrayList<>();
+
+        calls.forEach(call -> bulkhead.execute(call::asMono).subscribe(results::add));
+
+        assertThat(bulkhead.statistics().inFlight()).isEqualTo(2);
+        assertThat(bulkhead.statistics().queued()).isEqualTo(1);
+
+        calls.get(0).tryEmitValue("first");
+
+        assertThat(results).containsExactly("first");
+        assertThat(bulkhead.statistics().inFlight()).isEqualTo(2);
+        assertThat(bulkhead.statistics().queued()).isZero();
+    }
+
+    @Test
+    void rejectsOnceTheQueueIsFull() {
+        ProviderBulkhead bulkhead = new ProviderBulkhead("p", 1, 1);
+        List<Sinks.One<String>> calls = pending(3);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        bulkhead.execute(calls.get(0)::asMono).subscribe();
+        bulkhead.execute(calls.get(1)::asMono).subscribe();
+        bulkhead.execute(calls.get(2)::asMono).subscribe(value -> {}, error::set);
+
+        assertThat(error.get()).isInstanceOf(RejectedExecutionException.class);
+        assertThat(bulkhead.statistics().rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledWaiterGivesUpItsQueueSlot() {
+        ProviderBulkhead bulkhead = new ProviderBulkhead("p", 1, 1);
+        List<Sinks.One<String>> calls = pending(2);
+
+        bulkhead.execute(calls.get(0)::asMono).subscribe();
+        Disposable waiting = bulkhead.execute(calls.get(1)::asMono).subscribe();
+        waiting.dispose();
+
+        assertThat(bulkhead.statistics().queued()).isZero();
+        calls.get(0).tryEmitValue("done");
+        assertThat(bulkhead.statistics().inFlight()).isZero();
+    }
+
+    @Test
+    void releasesTheSlotWhenACallFails() {
+        ProviderBulkhead bulkhead = new ProviderBulkhead("p", 1, 0);
+
+        bulkhead.execute(() -> Mono.error(new IllegalStateException("boom"))).onErrorResume(e -> Mono.empty())
+                .block();
+
+        assertThat(bulkhead.statistics().inFlight()).isZero();
+        assertThat(bulkhead.execute(() -> Mono.just("next")).block()).isEqualTo("next");
+    }
+
+    @Test
+    void callRunningPastTheDeadlineLowersTheLimit() {
+        ProviderBulkhead bulkhead = new ProviderBulkhead("p", 10, 10, new LimiterSettings(1, 0, 1, 0.5, 0));
+
+        assertThatThrownBy(() -> bulkhead.execute(Mono::never, Duration.ofMillis(20)).block())
+                .hasCauseInstanceOf(TimeoutException.class);
+
+        assertThat(bulkhead.statistics().concurrencyLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void deadlineExpiringInTheQueueLeavesTheLimitAlone() {
+        ProviderBulkhead bulkhead = new ProviderBulkhead("p", 2, 10, new LimiterSettings(1, 0, 1, 0.5, 0));
+        List<Sinks.One<String>> calls = pending(3);
+        calls.subList(0, 2).forEach(call -> bulkhead.execute(call::asMono).subscribe());
+
+        assertThatThrownBy(() -> bulkhead.execute(calls.get(2)::asMono, Duration.ofMillis(20)).block())
+                .hasCauseInstanceOf(TimeoutException.class);
+
+        assertThat(bulkhead.statistics().concurrencyLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void interactiveCallersAreServedBeforeBatchOnes() {
+        ProviderBulkhead bulkhead = new ProviderBulkhead("p", 1, 10);
+        Sinks.One<String> running = Sinks.one();
+        List<String> order = new ArrayList<>();
+
+        bulkhead.execute(running::asMono).subscribe();
+        bulkhead.execute(() -> Mono.just("batch")).contextWrite(CallPriority.BATCH.asContext()).subscribe(order::add);
+        bulkhead.execute(() -> Mono.just("interactive")).subscribe(order::add);
+        running.tryEmitValue("done");
+
+        assertThat(order).containsExactly("interactive", "batch");
+    }
+
+    @Test
+    void quotaHoldsCallsBackUntilTheBucketRefills() {
+        ProviderBulkhead bulkhead = new ProviderBulkhead("p", 10, 10, new LimiterSettings(1, 20, 1, 0.5, 0));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            bulkhead.execute(() -> Mono.just("ok")).block();
+        }
+
+        // One token up front, then one every 50 ms
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(90));
+    }
+
+    static List<Sinks.One<String>> pending(int count) {
+        List<Sinks.One<String>> calls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            calls.add(Sinks.one());
+        }
+        return calls;
+    }
+}
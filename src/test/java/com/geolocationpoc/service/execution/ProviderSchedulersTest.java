@@ -0,0 +1,44 @@
+package com.geolocationpoc.service.execution;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderSchedulersTest {
+
+    @Test
+    void blockingWorkRunsOnAVirtualThread() {
+        Boolean virtual = Mono.fromCallable(() -> Thread.currentThread().isVirtual())
+                .subscribeOn(ProviderSchedulers.virtualThreads())
+                .block();
+
+        assertThat(virtual).isTrue();
+    }
+
+    @Test
+    void cancellingInterruptsTheBlockedThread() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Disposable call = Mono.fromCallable(() -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(60_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return "late";
+                })
+                .subscribeOn(ProviderSchedulers.virtualThreads())
+                .subscribe();
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        call.dispose();
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,48 @@
+package com.geolocationpoc.service.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void startsFullAtTheBurstSize() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+
+        assertThat(bucket.tryTake()).isTrue();
+        assertThat(bucket.tryTake()).isTrue();
+        assertThat(bucket.tryTake()).isTrue();
+        assertThat(bucket.tryTake()).isFalse();
+    }
+
+    @Test
+    void waitUntilTheNextTokenFollowsTheRate() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        bucket.tryTake();
+
+        assertThat(bucket.nanosUntilNext()).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void givenBackTokenIsAvailableAgain() {
+        TokenBucket bucket = new TokenBucket(0.001, 1);
+        bucket.tryTake();
+
+        bucket.giveBack();
+
+        assertThat(bucket.tryTake()).isTrue();
+    }
+
+    @Test
+    void pauseEmptiesTheBucketForTheRetryAfterPeriod() {
+        TokenBucket bucket = new TokenBucket(1000, 5);
+
+        bucket.pause(TimeUnit.SECONDS.toNanos(60));
+
+        assertThat(bucket.tryTake()).isFalse();
+        assertThat(bucket.nanosUntilNext()).isGreaterThan(TimeUnit.SECONDS.toNanos(59));
+    }
+}
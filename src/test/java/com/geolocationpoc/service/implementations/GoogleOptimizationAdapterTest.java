@@ -0,0 +1,110 @@
+package com.geolocationpoc.service.implementations;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.geolocationpoc.client.GoogleOptimizationClient;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GoogleOptimizationAdapterTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final GoogleOptimizationAdapter adapter = new GoogleOptimizationAdapter(null, ProviderTelemetry.noop());
+    private final CompactRouteRequest request = CompactRouteRequest.of(new RouteRequest(
+            List.of(new Vehicle("van", DEPOT, DEPOT, null, null, 1000)),
+            List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), 300, 10),
+                    new ServicePoint("b", new Coordinate(52.54, 13.42), 300, 10)),
+            "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true));
+
+    @Test
+    void readsVisitsTransitionsAndMetricsWhileSkippingTheRest() throws IOException {
+        String body = """
+                {"requestLabel": "x", "metrics": {"aggregatedRouteMetrics": {"travelDistanceMeters": 9}},
+                 "routes": [{
+                   "vehicleLabel": "van",
+                   "vehicleStartTime": "2026-01-05T08:00:00Z",
+                   "vehicleEndTime": "2026-01-05T09:00:00Z",
+                   "routePolyline": {"points": "abc"},
+                   "visits": [
+                     {"shipmentLabel": "b", "startTime": "2026-01-05T08:10:00Z", "detour": "0s"},
+                     {"shipmentLabel": "a", "startTime": "2026-01-05T08:30:00Z"}
+                   ],
+                   "transitions": [
+                     {"travelDistanceMeters": 1200, "travelDuration": "300s", "loads": {"weight": {}}},
+                     {"travelDistanceMeters": 800, "travelDuration": "200s"},
+                     {"travelDistanceMeters": 1500, "travelDuration": "400s"}
+                   ],
+                   "metrics": {"travelDistanceMeters": 3500, "travelDuration": "900s",
+                               "performedShipmentCount": 2, "maxLoads": {"weight": {"amount": "20"}}}
+                 }]}
+                """;
+
+        RouteResponse response = parse(body);
+
+        assertThat(response.provider()).isEqualTo("Google");
+        assertThat(response.totalDistanceMeters()).isEqualTo(3500);
+        assertThat(response.totalDurationSeconds()).isEqualTo(900);
+        assertThat(response.stops()).extracting(OptimizedStop::serviceId).containsExactly("b", "a");
+        assertThat(response.stops().get(0).location()).isEqualTo(new Coordinate(52.54, 13.42));
+        assertThat(response.stops().get(1).distanceFromPrevious()).isEqualTo(800);
+        assertThat(response.stops().get(1).travelTimeFromPrevious()).isEqualTo(200);
+        assertThat(response.routeMetrics().get(0).vehicleId()).isEqualTo("van");
+        assertThat(response.routeMetrics().get(0).servicesPerformed()).isEqualTo(2);
+    }
+
+    @Test
+    void answerWithoutRoutesIsEmpty() throws IOException {
+        RouteResponse response = parse("{\"skippedShipments\": [{\"index\": 0}]}");
+
+        assertThat(response.stops()).isEmpty();
+        assertThat(response.totalDistanceMeters()).isZero();
+    }
+
+    @Test
+    void rejectsABodyThatIsNotAnObject() {
+        assertThatThrownBy(() -> parse("[]")).isInstanceOf(IOException.class);
+    }
+
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clientIsOnlyLookedUpOnTheFirstCall() {
+        ObjectProvider<GoogleOptimizationClient> provider = mock(ObjectProvider.class);
+        GoogleOptimizationClient client = mock(GoogleOptimizationClient.class);
+        when(provider.getObject()).thenReturn(client);
+        when(client.optimizeToursRaw(any(CompactRouteRequest.class)))
+                .thenReturn(Mono.error(new IllegalStateException("down")));
+
+        GoogleOptimizationAdapter lazy = new GoogleOptimizationAdapter(provider, ProviderTelemetry.noop());
+        verifyNoInteractions(provider);
+
+        assertThatThrownBy(() -> lazy.optimizeRouteAsync(request.source()).block()).hasRootCauseMessage("down");
+        verify(provider).getObject();
+    }
+    private RouteResponse parse(String body) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(body)) {
+            return adapter.parseGoogleResponse(parser, request);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.geolocationpoc.service.implementations;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.geolocationpoc.client.MapboxOptimizationClient;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import com.geolocationpoc.model.CompactRouteRequest;
+import com.geolocationpoc.telemetry.ProviderTelemetry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MapboxOptimizationAdapterTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final MapboxOptimizationAdapter adapter = new MapboxOptimizationAdapter(null, ProviderTelemetry.noop());
+    private final CompactRouteRequest request = CompactRouteRequest.of(new RouteRequest(
+            List.of(new Vehicle("van", DEPOT, DEPOT, null, null, 1000)),
+            List.of(new ServicePoint("a", new Coordinate(52.53, 13.41), 300, 10),
+                    new ServicePoint("b", new Coordinate(52.54, 13.42), 300, 10),
+                    new ServicePoint("c", new Coordinate(52.55, 13.43), 300, 10)),
+            "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true));
+
+    @Test
+    void perStopDistanceIsTheOdometerDelta() throws IOException {
+        String body = """
+                {"dropped": {"services": []},
+                 "routes": [{
+                   "vehicle": "van",
+                   "stops": [
+                     {"type": "start", "location": "start-van", "eta": "2026-01-05T08:00:00Z", "odometer": 0},
+                     {"type": "service", "location": "a", "eta": "2026-01-05T08:10:00Z", "odometer": 1200,
+                      "wait": 30, "services": ["a"]},
+                     {"type": "service", "location": "b", "eta": "2026-01-05T08:25:00Z", "odometer": 2000},
+                     {"type": "end", "location": "end-van", "eta": "2026-01-05T08:50:00Z", "odometer": 3500}
+                   ]
+                 }]}
+                """;
+
+        RouteResponse response = parse(body);
+
+        assertThat(response.provider()).isEqualTo("Mapbox");
+        assertThat(response.totalDistanceMeters()).isEqualTo(3500);
+        assertThat(response.stops()).extracting(OptimizedStop::serviceId).containsExactly("a", "b");
+        assertThat(response.stops()).extracting(OptimizedStop::distanceFromPrevious).containsExactly(1200.0, 800.0);
+        assertThat(response.stops().get(0).waitTimeSeconds()).isEqualTo(30);
+        assertThat(response.stops().get(1).location()).isEqualTo(new Coordinate(52.54, 13.42));
+        assertThat(response.routeMetrics().get(0).servicesPerformed()).isEqualTo(2);
+        assertThat(response.routeMetrics().get(0).startTime()).isEqualTo("2026-01-05T08:00:00Z");
+        assertThat(response.routeMetrics().get(0).endTime()).isEqualTo("2026-01-05T08:50:00Z");
+    }
+
+    // Each leg is measured from the stop before it, not from the length of the leg before it
+    @Test
+    void perStopDistancesAreLegLengthsAlongTheWholeRoute() throws IOException {
+        String body = """
+                {"dropped": {"services": []},
+                 "routes": [{
+                   "vehicle": "van",
+                   "stops": [
+                     {"type": "start", "location": "start-van", "eta": "2026-01-05T08:00:00Z", "odometer": 0},
+                     {"type": "service", "location": "a", "eta": "2026-01-05T08:10:00Z", "odometer": 1200},
+                     {"type": "service", "location": "b", "eta": "2026-01-05T08:25:00Z", "odometer": 2000},
+                     {"type": "service", "location": "c", "eta": "2026-01-05T08:40:00Z", "odometer": 2600},
+                     {"type": "end", "location": "end-van", "eta": "2026-01-05T08:50:00Z", "odometer": 3500}
+                   ]
+                 }]}
+                """;
+
+        RouteResponse response = parse(body);
+
+        assertThat(response.stops()).extracting(OptimizedStop::serviceId).containsExactly("a", "b", "c");
+        assertThat(response.stops()).extracting(OptimizedStop::distanceFromPrevious)
+                .containsExactly(1200.0, 800.0, 600.0);
+        assertThat(response.totalDistanceMeters()).isEqualTo(3500);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clientIsOnlyLookedUpOnTheFirstCall() {
+        ObjectProvider<MapboxOptimizationClient> provider = mock(ObjectProvider.class);
+        MapboxOptimizationClient client = mock(MapboxOptimizationClient.class);
+        when(provider.getObject()).thenReturn(client);
+        when(client.optimizeRoutesRaw(any(CompactRouteRequest.class)))
+                .thenReturn(Mono.error(new IllegalStateException("down")));
+
+        MapboxOptimizationAdapter lazy = new MapboxOptimizationAdapter(provider, ProviderTelemetry.noop());
+        verifyNoInteractions(provider);
+
+        assertThatThrownBy(() -> lazy.optimizeRouteAsync(request.source()).block()).hasRootCauseMessage("down");
+        verify(provider).getObject();
+    }
+    private RouteResponse parse(String body) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(body)) {
+            return adapter.parseMapboxResponse(parser, request);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.geolocationpoc.service.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    @Test
+    void staysClosedUntilTheMinimumNumberOfCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 5, 0.5, Duration.ofMinutes(1), 1);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.isCallPermitted()).isFalse();
+    }
+
+    @Test
+    void tripsOnlyAtTheFailureRateThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofMinutes(1), 1);
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void oldOutcomesSlideOutOfTheWindow() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.75, Duration.ofMinutes(1), 1);
+        breaker.onFailure();
+        breaker.onFailure();
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess();
+        }
+
+        assertThat(breaker.failureRate()).isZero();
+    }
+
+    @Test
+    void halfOpenAdmitsOnlyTheTrialCalls() {
+        CircuitBreaker breaker = tripped(2);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void successfulTrialClosesTheBreaker() {
+        CircuitBreaker breaker = tripped(1);
+        breaker.tryAcquire();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRate()).isZero();
+    }
+
+    @Test
+    void failedTrialOpensItAgain() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 1, 0.5, Duration.ofMillis(50), 1);
+        breaker.onFailure();
+        sleep(60);
+        breaker.tryAcquire();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void cancelledTrialFreesItsSlot() {
+        CircuitBreaker breaker = tripped(1);
+        breaker.tryAcquire();
+
+        breaker.onIgnored();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    // Open for no time at all, so the next acquire moves it to half-open
+    private static CircuitBreaker tripped(int halfOpenTrials) {
+        CircuitBreaker breaker = new CircuitBreaker(10, 1, 0.5, Duration.ZERO, halfOpenTrials);
+        breaker.onFailure();
+        return breaker;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.geolocationpoc.service.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyWindowTest {
+
+    @Test
+    void emptyWindowHasNoPercentile() {
+        assertThat(new LatencyWindow(10).percentile(0.95)).isEqualTo(-1);
+    }
+
+    @Test
+    void percentilesAreNearestRank() {
+        LatencyWindow window = new LatencyWindow(100);
+        for (int millis = 1; millis <= 100; millis++) {
+            window.record(millis);
+        }
+
+        assertThat(window.percentile(0.5)).isEqualTo(50);
+        assertThat(window.percentile(0.95)).isEqualTo(95);
+        assertThat(window.percentile(1.0)).isEqualTo(100);
+    }
+
+    @Test
+    void oldestSamplesAreOverwritten() {
+        LatencyWindow window = new LatencyWindow(3);
+        window.record(1000);
+        window.record(10);
+        window.record(20);
+        window.record(30);
+
+        assertThat(window.count()).isEqualTo(3);
+        assertThat(window.percentile(1.0)).isEqualTo(30);
+    }
+}
@@ -0,0 +1,111 @@
+package com.geolocationpoc.service.routing;
+
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.service.RouteService;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderRouterTest {
+
+    private static final RouteService LOCAL = new NamedProvider("Local", false);
+    private static final RouteService GOOGLE = new NamedProvider("Google", true);
+    private static final RouteService MAPBOX = new NamedProvider("Mapbox", true);
+
+    private final ProviderRouter router = new ProviderRouter(50, 10, 0.5, Duration.ofSeconds(30), 2,
+            5, 0.15, 0.0, Duration.ofSeconds(2));
+
+    @Test
+    void fansOutToEveryProviderWhileWarmingUp() {
+        RoutingDecision decision = router.route(List.of(LOCAL, GOOGLE, MAPBOX));
+
+        assertThat(decision.selected()).containsExactlyInAnyOrder(LOCAL, GOOGLE, MAPBOX);
+        assertThat(decision.fannedOut()).isTrue();
+    }
+
+    @Test
+    void routesToTheWinnerAndKeepsEstimatorsAsFallback() {
+        for (int i = 0; i < 40; i++) {
+            router.recordSuccess("Local", 5);
+            router.recordSuccess("Google", 900);
+            router.recordSuccess("Mapbox", 900);
+            router.recordContest("Mapbox", List.of("Google", "Mapbox"));
+        }
+
+        RoutingDecision decision = router.route(List.of(LOCAL, GOOGLE, MAPBOX));
+
+        assertThat(decision.selected()).containsExactlyInAnyOrder(MAPBOX, LOCAL);
+        assertThat(decision.fannedOut()).isFalse();
+    }
+
+    @Test
+    void fastEstimatorDoesNotCrowdOutMeasuringProviders() {
+        for (int i = 0; i < 40; i++) {
+            router.recordSuccess("Local", 1);
+            router.recordSuccess("Google", 2000);
+            router.recordSuccess("Mapbox", 2000);
+        }
+
+        RoutingDecision decision = router.route(List.of(LOCAL, GOOGLE, MAPBOX));
+
+        assertThat(decision.selected()).contains(GOOGLE, MAPBOX);
+    }
+
+    @Test
+    void providerWithAnOpenBreakerIsLeftOut() {
+        for (int i = 0; i < 10; i++) {
+            router.recordFailure("Mapbox");
+        }
+
+        RoutingDecision decision = router.route(List.of(LOCAL, GOOGLE, MAPBOX));
+
+        assertThat(decision.selected()).doesNotContain(MAPBOX);
+        assertThat(router.tryAcquire("Mapbox")).isFalse();
+    }
+
+    @Test
+    void closeScoresFanOutToBothLeaders() {
+        for (int i = 0; i < 40; i++) {
+            router.recordSuccess("Google", 900);
+            router.recordSuccess("Mapbox", 950);
+            router.recordContest(i % 2 == 0 ? "Google" : "Mapbox", List.of("Google", "Mapbox"));
+        }
+
+        RoutingDecision decision = router.route(List.of(GOOGLE, MAPBOX));
+
+        assertThat(decision.selected()).containsExactlyInAnyOrder(GOOGLE, MAPBOX);
+        assertThat(decision.fannedOut()).isTrue();
+    }
+
+    @Test
+    void providerThatIsAlwaysCutOffIsLeftOut() {
+        for (int i = 0; i < 40; i++) {
+            router.recordSuccess("Google", 900);
+            router.recordCutOff("Mapbox", 3000);
+        }
+
+        RoutingDecision decision = router.route(List.of(LOCAL, GOOGLE, MAPBOX));
+
+        assertThat(decision.selected()).containsExactlyInAnyOrder(GOOGLE, LOCAL);
+        assertThat(router.latencyPercentile("Mapbox", 0.95)).isEqualTo(3000);
+        assertThat(router.tryAcquire("Mapbox")).isTrue();
+    }
+
+    record NamedProvider(String providerName, boolean measuresTravelCosts) implements RouteService {
+
+        @Override
+        public RouteResponse optimizeRoute(RouteRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Mono<RouteResponse> optimizeRouteAsync(RouteRequest request) {
+            return Mono.error(new UnsupportedOperationException());
+        }
+    }
+}
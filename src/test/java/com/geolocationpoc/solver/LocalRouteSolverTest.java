@@ -0,0 +1,193 @@
+package com.geolocationpoc.solver;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RouteMetrics;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import com.geolocationpoc.matrix.TravelCostStore;
+import com.geolocationpoc.matrix.TravelMatrix;
+import com.geolocationpoc.matrix.TravelMatrixEngine;
+import com.geolocationpoc.model.CompactRouteRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class LocalRouteSolverTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final LocalRouteSolver solver = new LocalRouteSolver(
+            new TravelMatrixEngine(1.3, 40, false, 512, ForkJoinPool.commonPool()), 50);
+
+    @Test
+    void everyStopIsServedExactlyOnce() {
+        RouteRequest request = request(3, 1000, services(60, 10, 1));
+
+        RouteResponse response = solver.solve(request);
+
+        assertThat(response.stops()).extracting(OptimizedStop::serviceId)
+                .containsExactlyInAnyOrderElementsOf(request.services().stream().map(ServicePoint::id).toList());
+        assertThat(response.provider()).isEqualTo("Local");
+    }
+
+    @Test
+    void routesStayWithinVehicleCapacity() {
+        RouteRequest request = request(4, 100, services(36, 10, 2));
+
+        RouteResponse response = solver.solve(request);
+
+        Map<String, Integer> demand = new HashMap<>();
+        request.services().forEach(service -> demand.put(service.id(), service.demandKg()));
+        int offset = 0;
+        for (RouteMetrics route : response.routeMetrics()) {
+            int load = 0;
+            for (OptimizedStop stop : response.stops().subList(offset, offset + route.servicesPerformed())) {
+                load += demand.get(stop.serviceId());
+            }
+            assertThat(load).as(route.vehicleId()).isLessThanOrEqualTo(100);
+            offset += route.servicesPerformed();
+        }
+        assertThat(offset).isEqualTo(36);
+    }
+
+    @Test
+    void failsRatherThanDroppingStopsThatFitNoVehicle() {
+        RouteRequest request = request(1, 1000, services(150, 10, 3));
+
+        assertThatThrownBy(() -> solver.solve(request))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("50 of 150 stops");
+    }
+
+    @Test
+    void reportedTotalsAddUpOverRoutes() {
+        RouteResponse response = solver.solve(request(2, 1000, services(25, 10, 4)));
+
+        double routeDistance = response.routeMetrics().stream().mapToDouble(RouteMetrics::distanceMeters).sum();
+        long routeDuration = response.routeMetrics().stream().mapToLong(RouteMetrics::durationSeconds).sum();
+        assertThat(response.totalDistanceMeters()).isCloseTo(routeDistance, offset(1e-6));
+        assertThat(response.totalDurationSeconds()).isEqualTo(routeDuration);
+    }
+
+    @Test
+    void repairKeepsTheOldPlanAndInsertsOnlyTheNewStops() {
+        List<ServicePoint> services = services(40, 10, 5);
+        RouteResponse plan = solver.solve(request(2, 1000, services.subList(0, 38)));
+
+        List<ServicePoint> updated = new ArrayList<>(services.subList(1, 40));
+        LocalRouteSolver.Repair repair = solver.repair(CompactRouteRequest.of(request(2, 1000, updated)), plan, 50);
+
+        assertThat(repair.keptStops()).isEqualTo(37);
+        assertThat(repair.insertedStops()).isEqualTo(2);
+        assertThat(repair.unassignedStops()).isZero();
+        assertThat(repair.response().stops()).extracting(OptimizedStop::serviceId)
+                .containsExactlyInAnyOrderElementsOf(updated.stream().map(ServicePoint::id).toList());
+    }
+
+    @Test
+    void nearbyStopsRepairAtAboutTheOldCostPerStop() {
+        List<ServicePoint> services = services(40, 10, 6);
+        RouteResponse plan = solver.solve(request(2, 1000, services.subList(0, 36)));
+
+        LocalRouteSolver.Repair repair = solver.repair(CompactRouteRequest.of(request(2, 1000, services)), plan, 50);
+
+        assertThat(repair.costRatio()).isLessThan(1.15);
+    }
+
+    @Test
+    void farAwayStopsPushTheCostRatioUp() {
+        List<ServicePoint> services = new ArrayList<>(services(40, 10, 7));
+        RouteResponse plan = solver.solve(request(2, 1000, services));
+        services.add(new ServicePoint("far", new Coordinate(DEPOT.lat() + 1.5, DEPOT.lng() + 1.5), 300, 10));
+
+        LocalRouteSolver.Repair repair = solver.repair(CompactRouteRequest.of(request(2, 1000, services)), plan, 50);
+
+        assertThat(repair.insertedStops()).isEqualTo(1);
+        assertThat(repair.costRatio()).isGreaterThan(1.15);
+    }
+
+    @Test
+    void noSegmentReversalShortensARouteOverOneWayCosts(@TempDir Path directory) {
+        RouteRequest request = request(1, 1000, services(30, 10, 8));
+        try (TravelCostStore store = TravelCostStore.open(directory.resolve("costs.bin"), 4096, 0.0001)) {
+            TravelMatrixEngine engine = new TravelMatrixEngine(1.3, 40, false, 512, ForkJoinPool.commonPool(),
+                    store, 4096);
+            // Legs heading west cost three times what the map says
+            List<Coordinate> points = new ArrayList<>(request.services().stream().map(ServicePoint::location).toList());
+            points.add(DEPOT);
+            for (Coordinate from : points) {
+                for (Coordinate to : points) {
+                    if (to.lng() < from.lng()) {
+                        double meters = engine.distance(from.lat(), from.lng(), to.lat(), to.lng());
+                        store.put(store.key(from.lat(), from.lng()), store.key(to.lat(), to.lng()),
+                                meters * 3, Double.NaN);
+                    }
+                }
+            }
+
+            RouteResponse response = new LocalRouteSolver(engine, 10_000).solve(request);
+
+            TravelMatrix matrix = engine.build(request);
+            Map<String, Integer> nodes = new HashMap<>();
+            for (int s = 0; s < request.services().size(); s++) {
+                nodes.put(request.services().get(s).id(), matrix.serviceNode(s));
+            }
+            List<Integer> route = new ArrayList<>();
+            route.add(matrix.startNode(0));
+            response.stops().forEach(stop -> route.add(nodes.get(stop.serviceId())));
+            route.add(matrix.endNode(0));
+
+            double cost = routeCost(matrix, route);
+            for (int i = 1; i < route.size() - 2; i++) {
+                for (int j = i + 1; j < route.size() - 1; j++) {
+                    List<Integer> reversed = new ArrayList<>(route);
+                    Collections.reverse(reversed.subList(i, j + 1));
+                    assertThat(routeCost(matrix, reversed)).as("reversing %d..%d", i, j)
+                            .isGreaterThanOrEqualTo(cost - 1e-6);
+                }
+            }
+        }
+    }
+
+    private static double routeCost(TravelMatrix matrix, List<Integer> route) {
+        double cost = 0;
+        for (int k = 1; k < route.size(); k++) {
+            cost += matrix.distance(route.get(k - 1), route.get(k));
+        }
+        return cost;
+    }
+
+    static RouteRequest request(int vehicles, int capacityKg, List<ServicePoint> services) {
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int v = 0; v < vehicles; v++) {
+            fleet.add(new Vehicle("vehicle-" + v, DEPOT, DEPOT, null, null, capacityKg));
+        }
+        return new RouteRequest(fleet, services, "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+    }
+
+    static List<ServicePoint> services(int count, int demandKg, long seed) {
+        Random random = new Random(seed);
+        List<ServicePoint> services = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Coordinate location = new Coordinate(DEPOT.lat() + (random.nextDouble() - 0.5) * 0.2,
+                    DEPOT.lng() + (random.nextDouble() - 0.5) * 0.3);
+            services.add(new ServicePoint("stop-" + i, location, 300, demandKg));
+        }
+        return services;
+    }
+}
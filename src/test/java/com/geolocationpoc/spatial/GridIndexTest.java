@@ -0,0 +1,77 @@
+package com.geolocationpoc.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GridIndexTest {
+
+    @Test
+    void distancesAreHaversine() {
+        // One degree of latitude is about 111.2 km
+        assertThat(GridIndex.distanceMeters(52.0, 13.0, 53.0, 13.0)).isCloseTo(111_195, within(10.0));
+        assertThat(GridIndex.distanceMeters(52.0, 13.0, 52.0, 13.0)).isZero();
+    }
+
+    @Test
+    void radiusSearchMatchesABruteForceScan() {
+        double[][] points = points(2000, 52.52, 13.405, 0.05, 1);
+        GridIndex index = new GridIndex(points[0], points[1], 100);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = points[0][q];
+            double lng = points[1][q];
+            for (double radius : new double[]{25, 100, 350}) {
+                int[] expected = IntStream.range(0, 2000)
+                        .filter(i -> GridIndex.distanceMeters(lat, lng, points[0][i], points[1][i]) <= radius)
+                        .toArray();
+                assertThat(index.withinRadius(lat, lng, radius)).containsExactlyInAnyOrder(expected);
+            }
+        }
+    }
+
+    @Test
+    void nearestMatchesABruteForceScan() {
+        double[][] points = points(1500, 69.65, 18.96, 0.2, 2);
+        GridIndex index = new GridIndex(points[0], points[1], 250);
+        Random random = new Random(3);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 69.65 + (random.nextDouble() - 0.5) * 0.3;
+            double lng = 18.96 + (random.nextDouble() - 0.5) * 0.3;
+            int[] expected = IntStream.range(0, 1500).boxed()
+                    .sorted(Comparator.comparingDouble(i ->
+                            GridIndex.distanceMeters(lat, lng, points[0][i], points[1][i])))
+                    .limit(8)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            assertThat(index.nearest(lat, lng, 8)).containsExactly(expected);
+        }
+    }
+
+    @Test
+    void nearestReturnsEveryPointWhenAskedForMore() {
+        GridIndex index = new GridIndex(new double[]{52.0, 52.1, 52.2}, new double[]{13.0, 13.0, 13.0}, 100);
+
+        assertThat(index.nearest(52.0, 13.0, 10)).containsExactly(0, 1, 2);
+        assertThat(index.nearest(52.0, 13.0, 0)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private static double[][] points(int count, double lat, double lng, double spread, long seed) {
+        Random random = new Random(seed);
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        for (int i = 0; i < count; i++) {
+            lats[i] = lat + (random.nextDouble() - 0.5) * spread;
+            lngs[i] = lng + (random.nextDouble() - 0.5) * spread;
+        }
+        return new double[][]{lats, lngs};
+    }
+}
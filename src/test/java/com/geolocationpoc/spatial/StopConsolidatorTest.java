@@ -0,0 +1,93 @@
+package com.geolocationpoc.spatial;
+
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.OptimizedStop;
+import com.geolocationpoc.dto.RouteMetrics;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.RouteResponse;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StopConsolidatorTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+    private static final Coordinate TOWER = new Coordinate(52.5300, 13.4100);
+    // About 2 m north of the tower
+    private static final Coordinate TOWER_LOBBY = new Coordinate(52.53002, 13.4100);
+
+    private final StopConsolidator consolidator = new StopConsolidator(5);
+
+    @Test
+    void coLocatedStopsBecomeOneStopWithTheirSummedWork() {
+        RouteRequest request = request(1000,
+                new ServicePoint("a", TOWER, 300, 10),
+                new ServicePoint("b", new Coordinate(52.54, 13.42), 120, 5),
+                new ServicePoint("c", TOWER_LOBBY, 200, 15));
+
+        StopConsolidator.Consolidation consolidation = consolidator.consolidate(request);
+
+        assertThat(consolidation.mergedStops()).isEqualTo(1);
+        assertThat(consolidation.request().services()).containsExactly(
+                new ServicePoint("a", TOWER, 500, 25),
+                new ServicePoint("b", new Coordinate(52.54, 13.42), 120, 5));
+    }
+
+    @Test
+    void mergedStopsNeverOutgrowTheLargestVehicle() {
+        RouteRequest request = request(30,
+                new ServicePoint("a", TOWER, 300, 20),
+                new ServicePoint("c", TOWER_LOBBY, 200, 15));
+
+        StopConsolidator.Consolidation consolidation = consolidator.consolidate(request);
+
+        assertThat(consolidation.mergedStops()).isZero();
+        assertThat(consolidation.request()).isSameAs(request);
+    }
+
+    @Test
+    void zeroRadiusDisablesMerging() {
+        RouteRequest request = request(1000,
+                new ServicePoint("a", TOWER, 300, 10),
+                new ServicePoint("c", TOWER, 200, 15));
+
+        assertThat(new StopConsolidator(0).consolidate(request).request()).isSameAs(request);
+    }
+
+    @Test
+    void expandedResponsesListEveryOriginalStopBackToBack() {
+        RouteRequest request = request(1000,
+                new ServicePoint("a", TOWER, 300, 10),
+                new ServicePoint("b", new Coordinate(52.54, 13.42), 120, 5),
+                new ServicePoint("c", TOWER_LOBBY, 200, 15));
+        StopConsolidator.Consolidation consolidation = consolidator.consolidate(request);
+        RouteResponse merged = new RouteResponse(5000.0, 1800L, List.of(
+                new OptimizedStop("a", TOWER, "2026-01-05T08:10:00Z", "2026-01-05T08:18:20Z", 0, 1200.0, 600L),
+                new OptimizedStop("b", new Coordinate(52.54, 13.42), "2026-01-05T08:25:00Z",
+                        "2026-01-05T08:27:00Z", 0, 1500.0, 400L)),
+                List.of(new RouteMetrics("van", 5000.0, 1800L, 2, null, null)), "Google");
+
+        RouteResponse expanded = consolidation.expand(merged);
+
+        assertThat(expanded.stops()).extracting(OptimizedStop::serviceId).containsExactly("a", "c", "b");
+        OptimizedStop first = expanded.stops().get(0);
+        OptimizedStop second = expanded.stops().get(1);
+        assertThat(first.departureTime()).isEqualTo("2026-01-05T08:15Z");
+        assertThat(first.distanceFromPrevious()).isEqualTo(1200.0);
+        assertThat(second.location()).isEqualTo(TOWER_LOBBY);
+        assertThat(second.arrivalTime()).isEqualTo(first.departureTime());
+        assertThat(second.departureTime()).isEqualTo("2026-01-05T08:18:20Z");
+        assertThat(second.distanceFromPrevious()).isZero();
+        assertThat(expanded.routeMetrics()).extracting(RouteMetrics::servicesPerformed).containsExactly(3);
+        assertThat(expanded.totalDistanceMeters()).isEqualTo(5000.0);
+    }
+
+    private static RouteRequest request(int capacityKg, ServicePoint... services) {
+        return new RouteRequest(List.of(new Vehicle("van", DEPOT, DEPOT, null, null, capacityKg)),
+                List.of(services), "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+    }
+}
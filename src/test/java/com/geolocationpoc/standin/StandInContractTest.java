@@ -0,0 +1,114 @@
+package com.geolocationpoc.standin;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geolocationpoc.client.GoogleOptimizationClient;
+import com.geolocationpoc.client.MapboxOptimizationClient;
+import com.geolocationpoc.dto.Coordinate;
+import com.geolocationpoc.dto.RouteRequest;
+import com.geolocationpoc.dto.ServicePoint;
+import com.geolocationpoc.dto.Vehicle;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StandInContractTest {
+
+    private static final Coordinate DEPOT = new Coordinate(52.52, 13.405);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void contractsAnswerOnlyTheirOwnPaths() {
+        assertThat(StandInContract.GOOGLE.matches("/v1/projects/demo:optimizeTours")).isTrue();
+        assertThat(StandInContract.GOOGLE.matches("/optimized-trips/v2")).isFalse();
+        assertThat(StandInContract.MAPBOX.matches("/optimized-trips/v2")).isTrue();
+        assertThat(StandInContract.MAPBOX.matches("/v1/projects/demo:optimizeTours")).isFalse();
+    }
+
+    @Test
+    void onlyMapboxIsPolled() {
+        assertThat(StandInContract.GOOGLE.isAsync()).isFalse();
+        assertThat(StandInContract.GOOGLE.pollJobId("/v1/projects/demo:optimizeTours")).isNull();
+        assertThat(StandInContract.MAPBOX.isAsync()).isTrue();
+        assertThat(StandInContract.MAPBOX.pollJobId("/optimized-trips/v2/job-7")).isEqualTo("job-7");
+        assertThat(StandInContract.MAPBOX.pollJobId("/optimized-trips/v2")).isNull();
+    }
+
+    @Test
+    void googleAnswerVisitsEveryShipmentTheClientSent() throws IOException {
+        RouteRequest request = request(7, 2);
+        StringWriter body = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(body)) {
+            new GoogleOptimizationClient(WebClient.builder(), "project").writeOptimizationRequest(request, generator);
+        }
+
+        JsonNode answer = mapper.readTree(StandInContract.GOOGLE.respond(mapper.readTree(body.toString()), 0));
+
+        List<String> visited = new ArrayList<>();
+        for (JsonNode route : answer.path("routes")) {
+            route.path("visits").forEach(visit -> visited.add(visit.path("shipmentLabel").asText()));
+            assertThat(route.path("transitions")).hasSize(route.path("visits").size() + 1);
+            assertThat(route.path("metrics").path("travelDistanceMeters").asDouble()).isPositive();
+        }
+        assertThat(answer.path("routes")).hasSize(2);
+        assertThat(visited).containsExactlyInAnyOrder("stop-0", "stop-1", "stop-2", "stop-3", "stop-4",
+                "stop-5", "stop-6");
+    }
+
+    @Test
+    void mapboxAnswerStartsAndEndsEveryRouteAtTheDepot() throws IOException {
+        RouteRequest request = request(5, 2);
+        StringWriter body = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(body)) {
+            new MapboxOptimizationClient(WebClient.builder(), "token").writeOptimizationRequest(request, generator);
+        }
+
+        JsonNode answer = mapper.readTree(StandInContract.MAPBOX.respond(mapper.readTree(body.toString()), 0));
+
+        assertThat(answer.path("status").asText()).isEqualTo("complete");
+        List<String> served = new ArrayList<>();
+        for (JsonNode route : answer.path("routes")) {
+            JsonNode stops = route.path("stops");
+            assertThat(stops.get(0).path("type").asText()).isEqualTo("start");
+            assertThat(stops.get(stops.size() - 1).path("type").asText()).isEqualTo("end");
+            for (int i = 1; i < stops.size(); i++) {
+                assertThat(stops.get(i).path("odometer").asDouble())
+                        .isGreaterThanOrEqualTo(stops.get(i - 1).path("odometer").asDouble());
+            }
+            stops.forEach(stop -> {
+                if (stop.path("type").asText().equals("service")) served.add(stop.path("location").asText());
+            });
+        }
+        assertThat(served).containsExactlyInAnyOrder("stop-0", "stop-1", "stop-2", "stop-3", "stop-4");
+    }
+
+    @Test
+    void paddingIsAppendedToTheAnswer() throws IOException {
+        JsonNode request = mapper.readTree("{\"vehicles\": [], \"services\": []}");
+
+        JsonNode answer = mapper.readTree(StandInContract.MAPBOX.respond(request, 1024));
+
+        assertThat(answer.path("standInPadding").asText()).hasSize(1024);
+        assertThat(answer.path("routes")).isEmpty();
+    }
+
+    private static RouteRequest request(int stops, int vehicles) {
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int v = 0; v < vehicles; v++) {
+            fleet.add(new Vehicle("vehicle-" + v, DEPOT, DEPOT, null, null, 1000));
+        }
+        List<ServicePoint> services = new ArrayList<>();
+        for (int s = 0; s < stops; s++) {
+            services.add(new ServicePoint("stop-" + s, new Coordinate(DEPOT.lat() + s * 0.01, DEPOT.lng()), 300, 10));
+        }
+        return new RouteRequest(fleet, services, "2026-01-05T08:00:00Z", "2026-01-05T18:00:00Z", true);
+    }
+}
@@ -0,0 +1,35 @@
+package com.geolocationpoc.standin;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StandInSettingsTest {
+
+    @Test
+    void unsetPropertiesFallBackToTheDefaults() {
+        StandInSettings settings = StandInSettings.forProvider(new MockEnvironment(), "google", 9101);
+
+        assertThat(settings).isEqualTo(new StandInSettings(9101, Duration.ofMillis(500), 0.5, 0.0, 0));
+    }
+
+    @Test
+    void providerPropertiesOverrideTheDefaults() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("standin.mapbox.port", "9202")
+                .withProperty("standin.mapbox.medianLatency", "2s")
+                .withProperty("standin.mapbox.latencySigma", "0")
+                .withProperty("standin.mapbox.errorRate", "0.05")
+                .withProperty("standin.mapbox.paddingBytes", "4096")
+                .withProperty("standin.google.port", "9999");
+        environment.setConversionService(new ApplicationConversionService());
+
+        StandInSettings settings = StandInSettings.forProvider(environment, "mapbox", 9102);
+
+        assertThat(settings).isEqualTo(new StandInSettings(9202, Duration.ofSeconds(2), 0.0, 0.05, 4096));
+    }
+}
@@ -0,0 +1,115 @@
+package com.geolocationpoc.telemetry;
+
+import com.geolocationpoc.service.routing.CircuitOpenException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderTelemetryTest {
+
+    private final MeterRegistry meters = new SimpleMeterRegistry();
+    private final ProviderTelemetry telemetry = new ProviderTelemetry(meters, observations(meters));
+
+    @Test
+    void phasesAreTimedPerProviderAndPhase() throws IOException {
+        telemetry.observe("Google", ProviderTelemetry.PHASE_BUILD, () -> "body");
+        telemetry.observeChecked("Google", ProviderTelemetry.PHASE_PARSE, () -> {});
+        telemetry.observe("Mapbox", ProviderTelemetry.PHASE_NETWORK, Mono.just("response")).block();
+
+        assertThat(phaseCount("Google", "build")).isEqualTo(1);
+        assertThat(phaseCount("Google", "parse")).isEqualTo(1);
+        assertThat(phaseCount("Mapbox", "network")).isEqualTo(1);
+    }
+
+    @Test
+    void failedPhasesAreTaggedWithTheError() {
+        Mono<String> failing = telemetry.observe("Mapbox", ProviderTelemetry.PHASE_NETWORK,
+                Mono.error(new IOException("connection reset")));
+
+        assertThatThrownBy(failing::block).hasCauseInstanceOf(IOException.class);
+        assertThat(meters.get("route.provider.phase").tag("phase", "network").tag("error", "IOException")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void monoPhasesAreTimedOnlyOnceSubscribed() {
+        Mono<String> network = telemetry.observe("Google", ProviderTelemetry.PHASE_NETWORK, Mono.just("response"));
+
+        assertThat(meters.find("route.provider.phase").timer()).isNull();
+        network.block();
+        network.block();
+        assertThat(phaseCount("Google", "network")).isEqualTo(2);
+    }
+
+    @Test
+    void callsAreRecordedByOutcomeAndErrorsByCause() {
+        telemetry.recordCall("Google", 120, null);
+        telemetry.recordCall("Google", 900, new RuntimeException(new TimeoutException()));
+        telemetry.recordError("Google", new CircuitOpenException("Google"));
+        telemetry.recordError("Google", new RejectedExecutionException());
+        telemetry.recordError("Google", WebClientResponseException.create(HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests", null, null, null));
+        telemetry.recordError("Google", WebClientResponseException.create(HttpStatus.BAD_GATEWAY.value(),
+                "Bad Gateway", null, null, null));
+        telemetry.recordError("Google", WebClientResponseException.create(HttpStatus.SEE_OTHER.value(),
+                "See Other", null, null, null));
+        telemetry.recordError("Google", new IOException());
+        telemetry.recordError("Google", new IllegalStateException());
+
+        assertThat(meters.get("route.provider.latency").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meters.get("route.provider.latency").tag("outcome", "error").timer().count()).isEqualTo(1);
+        String[] causes = {"timeout", "circuit_open", "rejected", "http_4xx", "http_5xx", "http_other", "io",
+                "other"};
+        for (String cause : causes) {
+            assertThat(meters.get("route.provider.errors").tag("cause", cause).counter().count())
+                    .as(cause).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void payloadsWinsAndOutstandingJobsAreRecorded() {
+        telemetry.recordPayload("Mapbox", ProviderTelemetry.DIRECTION_REQUEST, 2048);
+        telemetry.recordPayload("Mapbox", ProviderTelemetry.DIRECTION_RESPONSE, 512);
+        telemetry.recordWin("Mapbox");
+        telemetry.recordWin("Mapbox");
+        telemetry.registerOutstandingJobs("Mapbox", () -> 3);
+
+        assertThat(meters.get("route.provider.payload").tag("direction", "request").summary().totalAmount())
+                .isEqualTo(2048);
+        assertThat(meters.get("route.provider.payload").tag("direction", "response").summary().totalAmount())
+                .isEqualTo(512);
+        assertThat(meters.get("route.provider.wins").tag("provider", "Mapbox").counter().count()).isEqualTo(2);
+        assertThat(meters.get("route.provider.jobs.outstanding").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void noopTelemetryAcceptsEverything() {
+        ProviderTelemetry noop = ProviderTelemetry.noop();
+
+        assertThat(noop.observe("Google", ProviderTelemetry.PHASE_TOKEN, () -> "token")).isEqualTo("token");
+        noop.recordCall("Google", 10, new IOException());
+        noop.recordPayload("Google", ProviderTelemetry.DIRECTION_REQUEST, 1);
+    }
+
+    private long phaseCount(String provider, String phase) {
+        return meters.get("route.provider.phase").tag("provider", provider).tag("phase", phase).timer().count();
+    }
+
+    private static ObservationRegistry observations(MeterRegistry meters) {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meters));
+        return registry;
+    }
+}